@@ -0,0 +1,146 @@
+package com.coinable.waas_sdk_flutter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
+import io.flutter.plugin.common.MethodChannel.Result;
+
+/**
+ * Bounds the calls a service handler accepts from Dart.
+ *
+ * At most `maxInFlight` calls of a service run at once; up to `maxQueued` more wait for a slot in
+ * arrival order. Calls beyond that are rejected right away with E_OVERLOADED, so that a runaway
+ * caller sheds load instead of growing the native queues without bound. A call holds its slot
+ * until its result has been delivered.
+ *
+ * "initialize", the stopPolling* calls, unwatchPendingOperations and cancelSignTransactions are
+ * never limited, as they are needed to configure and to relieve an overloaded service.
+ *
+ * All methods must be called on the platform thread, where handlers receive calls; slots are
+ * freed there too, through the {@link ResultDispatcher}.
+ */
+class AdmissionControl {
+    // The error code for calls rejected because the service is at its limits.
+    static final String overloadedErr = "E_OVERLOADED";
+
+    static final int defaultMaxInFlight = 16;
+    static final int defaultMaxQueued = 64;
+
+    private final String service;
+    private final ResultDispatcher dispatcher;
+    private int maxInFlight = defaultMaxInFlight;
+    private int maxQueued = defaultMaxQueued;
+
+    private int inFlight;
+    private final Queue<Runnable> queued = new ArrayDeque<>();
+
+    AdmissionControl(String service, ResultDispatcher dispatcher) {
+        this.service = service;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Updates the limits from the optional "maxInFlight" and "maxQueued" arguments of `call`.
+     * Absent arguments keep their current limit. Lowering a limit does not affect admitted calls.
+     *
+     * @throws IllegalArgumentException If maxInFlight is below 1 or maxQueued below 0.
+     */
+    void configure(MethodCall call) {
+        Number newMaxInFlight = call.argument("maxInFlight");
+        Number newMaxQueued = call.argument("maxQueued");
+        if (newMaxInFlight != null && newMaxInFlight.intValue() < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        if (newMaxQueued != null && newMaxQueued.intValue() < 0) {
+            throw new IllegalArgumentException("maxQueued must not be negative");
+        }
+        if (newMaxInFlight != null) {
+            maxInFlight = newMaxInFlight.intValue();
+        }
+        if (newMaxQueued != null) {
+            maxQueued = newMaxQueued.intValue();
+        }
+        startQueued();
+    }
+
+    /**
+     * Passes `call` to `handler` once a slot is free, or rejects it if the queue is full.
+     * An "initialize" call first applies the limits it carries, see {@link #configure(MethodCall)}.
+     */
+    void submit(MethodCall call, Result result, MethodCallHandler handler) {
+        if (call.method.equals("initialize")) {
+            try {
+                configure(call);
+            } catch (IllegalArgumentException e) {
+                result.error("INVALID_ARGUMENT", e.getMessage(), null);
+                return;
+            }
+        }
+        if (isUnlimited(call.method)) {
+            handler.onMethodCall(call, result);
+            return;
+        }
+        Runnable start = () -> handler.onMethodCall(call, releasing(result));
+        if (inFlight < maxInFlight) {
+            inFlight++;
+            start.run();
+        } else if (queued.size() < maxQueued) {
+            queued.add(start);
+        } else {
+            result.error(overloadedErr, service + " is overloaded: " + inFlight + " calls in flight and "
+                    + queued.size() + " queued", null);
+        }
+    }
+
+    private static boolean isUnlimited(String method) {
+        return method.equals("initialize") || method.startsWith("stopPolling")
+                || method.equals("unwatchPendingOperations") || method.equals("cancelSignTransactions");
+    }
+
+    private void startQueued() {
+        while (inFlight < maxInFlight && !queued.isEmpty()) {
+            inFlight++;
+            queued.remove().run();
+        }
+    }
+
+    /**
+     * Returns a Result which forwards to `result` and then frees the call's slot on the platform
+     * thread, once. Handlers may complete on any thread.
+     */
+    private Result releasing(Result result) {
+        return new Result() {
+            private final AtomicBoolean released = new AtomicBoolean();
+
+            @Override
+            public void success(Object output) {
+                result.success(output);
+                release();
+            }
+
+            @Override
+            public void error(String errorCode, String errorMessage, Object errorDetails) {
+                result.error(errorCode, errorMessage, errorDetails);
+                release();
+            }
+
+            @Override
+            public void notImplemented() {
+                result.notImplemented();
+                release();
+            }
+
+            private void release() {
+                if (released.compareAndSet(false, true)) {
+                    dispatcher.dispatch(() -> {
+                        inFlight--;
+                        startQueued();
+                    });
+                }
+            }
+        };
+    }
+}
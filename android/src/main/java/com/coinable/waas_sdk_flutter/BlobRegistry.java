@@ -0,0 +1,152 @@
+package com.coinable.waas_sdk_flutter;
+
+import com.coinbase.waassdk.JsonEncoder;
+import com.coinbase.waassdk.WaasException;
+
+import org.json.JSONException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps large opaque payloads on the native side, e.g. the mpcData of pending operations, device
+ * backups and transactions, and hands Dart a small {@link Handle} in their place. Dart passes the
+ * handle back to the calls which take the payload, so the payload crosses the channel at most once.
+ *
+ * Bounded: once the payloads held exceed `maxBytes`, the least recently used are dropped, and
+ * calls passing their handles fail with E_BLOB_RELEASED. Dart releases a payload it no longer
+ * needs with "releaseBlob"; all are released when the plugin detaches.
+ */
+class BlobRegistry {
+    // The error code for calls passing the handle of a released payload.
+    static final String releasedErr = "E_BLOB_RELEASED";
+
+    static final long defaultMaxBytes = 16L << 20;
+
+    /**
+     * The handle of a payload, written to Dart as a WaasBlob by {@link WaasMessageCodec}.
+     */
+    static final class Handle {
+        final long id;
+
+        Handle(long id) {
+            this.id = id;
+        }
+    }
+
+    private final long maxBytes;
+
+    // Payloads by handle id, in least recently used order: Strings, or UTF-8 JSON as byte[].
+    // Guarded by this.
+    private final LinkedHashMap<Long, Object> blobs = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long nextId;
+
+    BlobRegistry(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Keeps `value` and returns its handle. Strings are kept as they are; maps and lists, e.g.
+     * transactions, are kept as UTF-8 JSON.
+     */
+    Handle put(Object value) throws JSONException {
+        Object blob = value instanceof String || value instanceof byte[] ? value : JsonEncoder.encode(value);
+        synchronized (this) {
+            long id = nextId++;
+            blobs.put(id, blob);
+            bytes += sizeOf(blob);
+            // Drops the least recently used payloads, never the one just added.
+            Iterator<Map.Entry<Long, Object>> eldest = blobs.entrySet().iterator();
+            while (bytes > maxBytes && blobs.size() > 1) {
+                bytes -= sizeOf(eldest.next().getValue());
+                eldest.remove();
+            }
+            return new Handle(id);
+        }
+    }
+
+    /**
+     * Releases the payload of the handle with the given id. Returns whether it was held.
+     */
+    synchronized boolean release(long id) {
+        Object blob = blobs.remove(id);
+        if (blob == null) {
+            return false;
+        }
+        bytes -= sizeOf(blob);
+        return true;
+    }
+
+    /**
+     * Releases every payload.
+     */
+    synchronized void clear() {
+        blobs.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns the string a call argument stands for: the argument itself, or the payload of its
+     * handle.
+     *
+     * @throws WaasException If the argument is the handle of a released payload.
+     */
+    String stringOf(Object argument) throws WaasException {
+        if (!(argument instanceof Handle)) {
+            return (String) argument;
+        }
+        Object blob = get((Handle) argument);
+        return blob instanceof byte[] ? new String((byte[]) blob, StandardCharsets.UTF_8) : (String) blob;
+    }
+
+    /**
+     * Returns the UTF-8 JSON a call argument stands for: the argument encoded, or the payload of
+     * its handle.
+     *
+     * @throws WaasException If the argument is the handle of a released payload.
+     */
+    byte[] jsonOf(Object argument) throws WaasException, JSONException {
+        if (!(argument instanceof Handle)) {
+            return JsonEncoder.encode(argument);
+        }
+        Object blob = get((Handle) argument);
+        return blob instanceof byte[] ? (byte[]) blob : ((String) blob).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns copies of the pending operations with their "MPCData" replaced by handles. The
+     * operations themselves are left untouched, as the pollers share them.
+     */
+    List<Object> withMPCDataHandles(List<Object> operations) throws JSONException {
+        List<Object> result = new ArrayList<>(operations.size());
+        for (Object operation : operations) {
+            if (operation instanceof Map && ((Map<?, ?>) operation).get("MPCData") instanceof String) {
+                Map<Object, Object> copy = new HashMap<>((Map<?, ?>) operation);
+                copy.put("MPCData", put(copy.get("MPCData")));
+                result.add(copy);
+            } else {
+                result.add(operation);
+            }
+        }
+        return result;
+    }
+
+    private synchronized Object get(Handle handle) throws WaasException {
+        Object blob = blobs.get(handle.id);
+        if (blob == null) {
+            throw new WaasException(releasedErr, "blob " + handle.id + " has been released");
+        }
+        return blob;
+    }
+
+    private static long sizeOf(Object blob) {
+        // Java strings take two bytes per char.
+        return blob instanceof byte[] ? ((byte[]) blob).length : 2L * ((String) blob).length();
+    }
+}
@@ -0,0 +1,59 @@
+package com.coinable.waas_sdk_flutter;
+
+import com.coinbase.waassdk.WaasFuture;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks in-flight calls by the cancellation token Dart passed with them, so that a later
+ * "cancel" call can cancel the matching future.
+ */
+class CancellationRegistry {
+    private final Map<Long, WaasFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Registers `future` under `token` until it completes. A null token leaves the call untracked.
+     *
+     * @return The given future.
+     */
+    <T> WaasFuture<T> track(Number token, WaasFuture<T> future) {
+        if (token == null) {
+            return future;
+        }
+        Long id = token.longValue();
+        inFlight.put(id, future);
+        future.addCallback(new WaasFuture.Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                inFlight.remove(id, future);
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                inFlight.remove(id, future);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Cancels the call registered under `token`. Returns whether a call was cancelled.
+     */
+    boolean cancel(Number token) {
+        if (token == null) {
+            return false;
+        }
+        WaasFuture<?> future = inFlight.remove(token.longValue());
+        return future != null && future.cancel(true);
+    }
+
+    /**
+     * Cancels every tracked call.
+     */
+    void cancelAll() {
+        for (Long id : inFlight.keySet()) {
+            cancel(id);
+        }
+    }
+}
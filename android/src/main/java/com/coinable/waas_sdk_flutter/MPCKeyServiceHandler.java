@@ -5,19 +5,24 @@ import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
 
+import com.coinbase.waassdk.DeviceGroupPoller;
+import com.coinbase.waassdk.MetadataSnapshot;
+import com.coinbase.waassdk.SignedTransactionResult;
+import com.coinbase.waassdk.WaasDeadline;
 import com.coinbase.waassdk.WaasException;
+import com.coinbase.waassdk.WaasFuture;
+import com.coinbase.waassdk.WaasPriority;
+import com.coinbase.waassdk.WaasScheduler;
 import com.waassdkinternal.v1.Device;
 import com.waassdkinternal.v1.Signature;
-import com.waassdkinternal.v1.SignedTransaction;
 
-import org.json.JSONObject;
-
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class MPCKeyServiceHandler implements MethodCallHandler {
     // The error code for MPCKeyService-related errors.
@@ -27,77 +32,137 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
     private String uninitializedErr = "MPCKeyService must be initialized";
     public static final String NAME = "MPCKeyService";
 
-    private final ExecutorService executor;
+    private final WaasScheduler scheduler;
+
+    // Tracks calls made with a cancellation token.
+    private final CancellationRegistry cancellations;
 
     // The handle to the Go MPCKeyService client.
     private com.coinbase.waassdk.MPCKeyService keyClient;
 
-    private static final int NUMBER_OF_CORES = Runtime.getRuntime().availableProcessors();
+    // Pushes the operations of DeviceGroups watched through watchPendingOperations.
+    private final PendingOperationsStream pendingOperations;
+
+    // Pushes the results of signTransactions batches.
+    private final SignedTransactionsStream signedTransactions;
+
+    // Provides the MPCSdk which signTransaction computes MPC operations with.
+    private final MPCSdkHandler mpcSdkHandler;
 
-    MPCKeyServiceHandler() {
-        this.executor = Executors.newFixedThreadPool(NUMBER_OF_CORES);
+    // Keeps the mpcData of pending operations for Dart, and resolves the transactions it passes by handle.
+    private final BlobRegistry blobs;
+
+    // Keeps the registered Device and the DeviceGroups looked up across restarts.
+    private final MetadataSnapshot snapshot;
+
+    MPCKeyServiceHandler(WaasScheduler scheduler, CancellationRegistry cancellations, PendingOperationsStream pendingOperations,
+                         SignedTransactionsStream signedTransactions, MPCSdkHandler mpcSdkHandler, BlobRegistry blobs,
+                         MetadataSnapshot snapshot) {
+        this.scheduler = scheduler;
+        this.cancellations = cancellations;
+        this.pendingOperations = pendingOperations;
+        this.signedTransactions = signedTransactions;
+        this.mpcSdkHandler = mpcSdkHandler;
+        this.blobs = blobs;
+        this.snapshot = snapshot;
     }
 
     @Override
     public void onMethodCall(MethodCall call, Result result) {
+        WaasPriority priority;
+        try {
+            // The optional scheduling priority of the call; null selects the method's default.
+            priority = WaasPriority.fromString(call.argument("priority"), null);
+        } catch (WaasException e) {
+            result.error(mpcKeyServiceErr, e.getMessage(), null);
+            return;
+        }
+
+        // The optional deadline of the call, shared by every step of the flow it belongs to.
+        WaasDeadline deadline = Utils.deadlineOf(call);
+
+        // Whether polls resolve with the mpcData of pending operations kept natively, as blob handles.
+        boolean mpcDataAsBlobs = Boolean.TRUE.equals(call.argument("mpcDataAsBlobs"));
+
         switch (call.method) {
             case "initialize":
                 initialize(call.argument("apiKeyName"), call.argument("privateKey"), call.argument("proxyUrl"), result);
                 break;
             case "registerDevice":
-                registerDevice(result);
+                registerDevice(priority, deadline, result);
                 break;
             case "pollForPendingDeviceGroup":
-                pollForPendingDeviceGroup(call.argument("deviceGroup"), call.argument("pollInterval"), result);
+                pollForPendingDeviceGroup(call.argument("deviceGroup"), call.argument("pollInterval"), priority, deadline, call.argument("cancellationToken"), mpcDataAsBlobs, result);
                 break;
             case "stopPollingPendingDeviceGroup":
                 stopPollingPendingDeviceGroup(result);
                 break;
             case "createSignatureFromTx":
-                createSignatureFromTx(call.argument("parent"), call.argument("transaction"), result);
+                createSignatureFromTx(call.argument("parent"), call.argument("transaction"), priority, deadline, result);
                 break;
             case "pollForPendingSignatures":
-                pollForPendingSignatures(call.argument("deviceGroup"), call.argument("pollInterval"), result);
+                pollForPendingSignatures(call.argument("deviceGroup"), call.argument("pollInterval"), priority, deadline, call.argument("cancellationToken"), mpcDataAsBlobs, result);
                 break;
             case "stopPollingForPendingSignatures":
                 stopPollingForPendingSignatures(result);
                 break;
             case "waitPendingSignature":
-                waitPendingSignature(call.argument("operation"), result);
+                waitPendingSignature(call.argument("operation"), priority, deadline, call.argument("cancellationToken"), result);
                 break;
             case "getSignedTransaction":
-                getSignedTransaction(call.argument("transaction"), call.argument("signature"), result);
+                getSignedTransaction(call.argument("transaction"), call.argument("signature"), priority, deadline, result);
+                break;
+            case "signTransaction":
+                signTransaction(call.argument("deviceGroup"), call.argument("parent"), call.argument("transaction"), call.argument("pollInterval"), priority, deadline, call.argument("cancellationToken"), result);
+                break;
+            case "signTransactions":
+                signTransactions(call.argument("batchId"), call.argument("deviceGroup"), call.argument("parent"), call.argument("transactions"), call.argument("pollInterval"), call.argument("parallelism"), priority, deadline, result);
+                break;
+            case "cancelSignTransactions":
+                cancelSignTransactions(call.argument("batchId"), result);
                 break;
             case "getDeviceGroup":
-                getDeviceGroup(call.argument("name"), result);
+                getDeviceGroup(call.argument("name"), priority, deadline, result);
                 break;
             case "prepareDeviceArchive":
-                prepareDeviceArchive(call.argument("deviceGroup"), call.argument("device"), result);
+                prepareDeviceArchive(call.argument("deviceGroup"), call.argument("device"), priority, deadline, result);
                 break;
             case "pollForPendingDeviceArchives":
-                pollForPendingDeviceArchives(call.argument("deviceGroup"), call.argument("pollInterval"), result);
+                pollForPendingDeviceArchives(call.argument("deviceGroup"), call.argument("pollInterval"), priority, deadline, call.argument("cancellationToken"), mpcDataAsBlobs, result);
                 break;
             case "stopPollingForPendingDeviceArchives":
                 stopPollingForPendingDeviceArchives(result);
                 break;
             case "pollForPendingDeviceBackups":
-                pollForPendingDeviceBackups(call.argument("deviceGroup"), call.argument("pollInterval"), result);
+                pollForPendingDeviceBackups(call.argument("deviceGroup"), call.argument("pollInterval"), priority, deadline, call.argument("cancellationToken"), mpcDataAsBlobs, result);
                 break;
             case "stopPollingForPendingDeviceBackups":
                 stopPollingForPendingDeviceBackups(result);
                 break;
             case "prepareDeviceBackup":
-                prepareDeviceBackup(call.argument("deviceGroup"), call.argument("device"), result);
+                prepareDeviceBackup(call.argument("deviceGroup"), call.argument("device"), priority, deadline, result);
                 break;
             case "addDevice":
-                addDevice(call.argument("deviceGroup"), call.argument("device"), result);
+                addDevice(call.argument("deviceGroup"), call.argument("device"), priority, deadline, result);
                 break;
             case "pollForPendingDevices":
-                pollForPendingDevices(call.argument("deviceGroup"), call.argument("pollInterval"), result);
+                pollForPendingDevices(call.argument("deviceGroup"), call.argument("pollInterval"), priority, deadline, call.argument("cancellationToken"), mpcDataAsBlobs, result);
                 break;
             case "stopPollingForPendingDevices":
                 stopPollingForPendingDevices(result);
                 break;
+            case "pollForPendingOperations":
+                pollForPendingOperations(call.argument("deviceGroup"), call.argument("pollInterval"), call.argument("kinds"), Boolean.TRUE.equals(call.argument("includeAll")), deadline, call.argument("cancellationToken"), mpcDataAsBlobs, result);
+                break;
+            case "watchPendingOperations":
+                watchPendingOperations(call.argument("watchId"), call.argument("deviceGroup"), call.argument("pollInterval"), call.argument("kinds"), Boolean.TRUE.equals(call.argument("includeAll")), result);
+                break;
+            case "unwatchPendingOperations":
+                unwatchPendingOperations(call.argument("watchId"), result);
+                break;
+            case "stopPollingDeviceGroup":
+                stopPollingDeviceGroup(call.argument("deviceGroup"), result);
+                break;
             default:
                 result.notImplemented();
                 break;
@@ -114,7 +179,7 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
             return;
         }
         try {
-            keyClient = new com.coinbase.waassdk.MPCKeyService(apiKeyName, privateKey, proxyUrl, this.executor);
+            keyClient = new com.coinbase.waassdk.MPCKeyService(apiKeyName, privateKey, proxyUrl, this.scheduler);
             result.success(null);
         } catch (Exception e) {
             result.error("Error", "initialize MPC key service failed: " + e.getMessage(), null);
@@ -124,16 +189,12 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
     /**
      * Registers the current Device. Resolves with the Device object on success; rejects with an error otherwise.
      */
-    private void registerDevice(Result result) {
+    private void registerDevice(WaasPriority priority, WaasDeadline deadline, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
-        try {
-            Device device = keyClient.registerDevice().get();
-            result.success(Collections.singletonMap("Name", device.getName()));
-        } catch (Exception e) {
-            result.error("Error", e.getMessage(), null);
-        }
+        WaasPromise.resolveMap(snapshot.recording(keyClient.withDeadline(deadline).registerDevice(priority)), result, (Device device) ->
+                Collections.singletonMap("Name", device.getName()));
     }
 
     /**
@@ -142,18 +203,35 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
      * stopPollingForPendingDeviceGroup or computeMPCOperation) before another call is made to this function.
      * Resolves with a list of the pending CreateDeviceGroupOperations on success; rejects with an error otherwise.
      */
-    private void pollForPendingDeviceGroup(String deviceGroup, int pollInterval, Result result) {
+    private void pollForPendingDeviceGroup(String deviceGroup, int pollInterval, WaasPriority priority, WaasDeadline deadline, Number cancellationToken, boolean mpcDataAsBlobs, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
         try {
             // You may need to adjust this to match the expected output and WaasPromise structure in your SDK
-            WaasPromise.resolveMap(keyClient.pollForPendingDeviceGroup(deviceGroup, pollInterval), result, Utils::convertJsonToArray, this.executor);
+            resolveOperations(cancellations.track(cancellationToken, keyClient.withDeadline(deadline).pollForPendingDeviceGroup(deviceGroup, pollInterval, priority)), mpcDataAsBlobs, result);
         } catch (Exception e) {
             result.error("Error", e.getMessage(), null);
         }
     }
 
+    /**
+     * Closes the MPCKeyService, stopping its work and releasing its Go client.
+     */
+    void close() {
+        pendingOperations.unwatchAll();
+        signedTransactions.cancelAll();
+        if (keyClient != null) {
+            keyClient.close();
+            keyClient = null;
+        }
+    }
+
+    // Resolves with the pending operations of a poll, their mpcData replaced by blob handles if `mpcDataAsBlobs` is set.
+    private void resolveOperations(WaasFuture<List<Object>> future, boolean mpcDataAsBlobs, Result result) {
+        WaasPromise.resolveMap(future, result, operations -> mpcDataAsBlobs ? blobs.withMPCDataHandles(operations) : operations);
+    }
+
     private boolean failIfUninitialized(Result result) {
         if (keyClient == null) {
             result.error("Error", "MPCKeyService must be initialized", null);
@@ -172,20 +250,22 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.stopPollingPendingDeviceGroup(), result, null, this.executor);
+        WaasPromise.resolveMap(keyClient.stopPollingPendingDeviceGroup(), result, null);
     }
 
     /**
      * Initiates an operation to create a Signature resource from the given transaction.
      * Resolves with the string "success" on successful initiation; rejects with an error otherwise.
      */
-    public void createSignatureFromTx(String parent, Map<String, Object> transaction, Result result) {
+    public void createSignatureFromTx(String parent, Object transaction, WaasPriority priority, WaasDeadline deadline, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
         try {
-            JSONObject serializedTx = Utils.convertMapToJson(transaction);
-            WaasPromise.resolveMap(keyClient.createSignatureFromTx(parent, serializedTx), result, null, this.executor);
+            byte[] serializedTx = blobs.jsonOf(transaction);
+            WaasPromise.resolveMap(keyClient.withDeadline(deadline).createSignatureFromTx(parent, serializedTx, priority), result, null);
+        } catch (WaasException e) {
+            result.error(e.getErrorType(), e.getMessage(), null);
         } catch (Exception e) {
             result.error("CREATE_SIGNATURE_ERROR", "createSignatureFromTx failed", e.getMessage());
         }
@@ -197,11 +277,11 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
      * stopPollingForPendingSignatures or processPendingSignature before another call is made to this function.
      * Resolves with a list of the pending Signatures on success; rejects with an error otherwise.
      */
-    public void pollForPendingSignatures(String deviceGroup, int pollInterval, Result result) {
+    public void pollForPendingSignatures(String deviceGroup, int pollInterval, WaasPriority priority, WaasDeadline deadline, Number cancellationToken, boolean mpcDataAsBlobs, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.pollForPendingSignatures(deviceGroup, pollInterval), result, Utils::convertJsonToArray, this.executor);
+        resolveOperations(cancellations.track(cancellationToken, keyClient.withDeadline(deadline).pollForPendingSignatures(deviceGroup, pollInterval, priority)), mpcDataAsBlobs, result);
     }
 
     /**
@@ -214,31 +294,26 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.stopPollingForPendingSignatures(), result, null, this.executor);
+        WaasPromise.resolveMap(keyClient.stopPollingForPendingSignatures(), result, null);
     }
 
     /**
      * Waits for a pending Signature with the given operation name. Resolves with the Signature object on success;
      * rejects with an error otherwise.
      */
-    public void waitPendingSignature(String operation, Result result) {
+    public void waitPendingSignature(String operation, WaasPriority priority, WaasDeadline deadline, Number cancellationToken, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.waitPendingSignature(operation), result, (Signature signature) -> {
-            Map<String, Object> resultMap = new HashMap<>();
-            resultMap.put("Name", signature.getName());
-            resultMap.put("Payload", signature.getPayload());
-            resultMap.put("SignedPayload", signature.getSignedPayload());
-            return resultMap;
-        }, this.executor);
+        WaasPromise.resolve(cancellations.track(cancellationToken, keyClient.withDeadline(deadline).waitPendingSignature(operation, priority)), result);
     }
 
     /**
      * Gets the signed transaction using the given inputs.
-     * Resolves with the SignedTransaction on success; rejects with an error otherwise.
+     * Resolves with the SignedTransaction on success, to which Dart adds the transaction and Signature it sent; rejects
+     * with an error otherwise.
      */
-    public void getSignedTransaction(Map<String, Object> transaction, Map<String, Object> signature, Result result) {
+    public void getSignedTransaction(Object transaction, Map<String, Object> signature, WaasPriority priority, WaasDeadline deadline, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
@@ -248,16 +323,11 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
             goSignature.setPayload((String) signature.get("Payload"));
             goSignature.setSignedPayload((String) signature.get("SignedPayload"));
 
-            JSONObject serializedTx = Utils.convertMapToJson(transaction);
+            byte[] serializedTx = blobs.jsonOf(transaction);
 
-            WaasPromise.resolveMap(keyClient.getSignedTransaction(serializedTx, goSignature), result, (SignedTransaction tx) -> {
-                Map<String, Object> resultMap = new HashMap<>();
-                resultMap.put("Transaction", transaction);
-                resultMap.put("Signature", signature);
-                resultMap.put("RawTransaction", tx.getRawTransaction());
-                resultMap.put("TransactionHash", tx.getTransactionHash());
-                return resultMap;
-            }, this.executor);
+            WaasPromise.resolve(keyClient.withDeadline(deadline).getSignedTransaction(serializedTx, goSignature, priority), result);
+        } catch (WaasException e) {
+            result.error(e.getErrorType(), e.getMessage(), null);
         } catch (Exception e) {
             result.error("ERROR_CODE", "getSignedTransaction failed : " + e.getMessage(), null);
         }
@@ -265,34 +335,123 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
 
 
     /**
-     * Gets a DeviceGroup with the given name. Resolves with the DeviceGroup object on success; rejects with an error otherwise.
+     * Signs the transaction with the MPCKey `parent` of the DeviceGroup in a single call, running createSignatureFromTx,
+     * pollForPendingSignatures, computeMPCOperation, waitPendingSignature and getSignedTransaction natively, one transaction
+     * of a DeviceGroup at a time. Requires the MPCSdk to be initialized.
+     * Resolves with the RawTransaction, the TransactionHash and the Timings of each stage, and of the whole call, in
+     * milliseconds; rejects with the error of the failed stage otherwise.
+     */
+    public void signTransaction(String deviceGroup, String parent, Object transaction, int pollInterval, WaasPriority priority, WaasDeadline deadline, Number cancellationToken, Result result) {
+        if (failIfUninitialized(result)) {
+            return;
+        }
+        com.coinbase.waassdk.MPCSdk sdk = mpcSdkHandler.getSdk();
+        if (sdk == null) {
+            result.error("UNINITIALIZED", "MPCSdk must be initialized", null);
+            return;
+        }
+        try {
+            byte[] serializedTx = blobs.jsonOf(transaction);
+            WaasPromise.resolveMap(cancellations.track(cancellationToken, keyClient.withDeadline(deadline).signTransaction(sdk, deviceGroup, parent, serializedTx, pollInterval, priority)), result,
+                    MPCKeyServiceHandler::signedTransactionToMap);
+        } catch (WaasException e) {
+            result.error(e.getErrorType(), e.getMessage(), null);
+        } catch (Exception e) {
+            result.error(mpcKeyServiceErr, "signTransaction failed : " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Signs the transactions with the MPCKey `parent` of the DeviceGroup as signTransaction does, keeping up to
+     * `parallelism` of them in flight (by default, one per core) so that their MPC computations run in parallel.
+     * Each transaction's result or error is pushed to the signed transactions EventChannel as it completes, tagged
+     * with `batchId` and its index, followed by a last "done" event. Resolves once the batch has started; rejects
+     * with an error otherwise.
      */
-    public void getDeviceGroup(String name, Result result) {
+    public void signTransactions(Number batchId, String deviceGroup, String parent, List<Object> transactions, int pollInterval, Integer parallelism,
+                                 WaasPriority priority, WaasDeadline deadline, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
+        com.coinbase.waassdk.MPCSdk sdk = mpcSdkHandler.getSdk();
+        if (sdk == null) {
+            result.error("UNINITIALIZED", "MPCSdk must be initialized", null);
+            return;
+        }
+        try {
+            List<byte[]> serializedTxs = new ArrayList<>();
+            for (Object transaction : transactions) {
+                serializedTxs.add(blobs.jsonOf(transaction));
+            }
+            long id = batchId.longValue();
+            int inFlight = parallelism != null ? parallelism : Runtime.getRuntime().availableProcessors();
+            signedTransactions.track(id, keyClient.withDeadline(deadline).signTransactions(sdk, deviceGroup, parent, serializedTxs, pollInterval, inFlight, priority,
+                    signedTransactions.listener(id)));
+            result.success(null);
+        } catch (WaasException e) {
+            result.error(e.getErrorType(), e.getMessage(), null);
+        } catch (Exception e) {
+            result.error(mpcKeyServiceErr, "signTransactions failed : " + e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Cancels the signTransactions batch with the given id; transactions already signed are unaffected.
+     * Resolves with whether the batch was running.
+     */
+    public void cancelSignTransactions(Number batchId, Result result) {
+        if (batchId == null) {
+            result.error(mpcKeyServiceErr, "cancelSignTransactions failed : batchId is required", null);
+            return;
+        }
+        result.success(signedTransactions.cancel(batchId.longValue()));
+    }
+
+    // Converts a signTransaction result to the map sent to Dart, with the timings in milliseconds.
+    static Map<String, Object> signedTransactionToMap(SignedTransactionResult signed) {
+        Map<String, Object> timings = new HashMap<>();
+        for (Map.Entry<SignedTransactionResult.Stage, Long> stage : signed.getStageNanos().entrySet()) {
+            timings.put(stage.getKey().getKey(), stage.getValue() / 1e6);
+        }
+        timings.put("total", signed.getTotalNanos() / 1e6);
 
-        WaasPromise.resolveMap(keyClient.getDeviceGroup(name), result, (deviceGroup) -> {
-            byte[] devicesData = deviceGroup.getDevices();
-            String devicesDataBytesToStrings = new String(devicesData, StandardCharsets.UTF_8);
+        Map<String, Object> resultMap = new HashMap<>();
+        resultMap.put("RawTransaction", signed.getSignedTransaction().getRawTransaction());
+        resultMap.put("TransactionHash", signed.getSignedTransaction().getTransactionHash());
+        resultMap.put("Timings", timings);
+        return resultMap;
+    }
 
-            Map<String, Object> map = new HashMap<>();
-            map.put("Name", deviceGroup.getName());
-            map.put("MPCKeyExportMetadata", deviceGroup.getMPCKeyExportMetadata());
-            map.put("Devices", devicesDataBytesToStrings);
-            return map;
-        }, this.executor);
+    /**
+     * Drops the cached DeviceGroup `deviceGroup`, or every cached DeviceGroup if null. A no-op until initialized.
+     */
+    void invalidateDeviceGroup(String deviceGroup) {
+        com.coinbase.waassdk.MPCKeyService client = keyClient;
+        if (client != null) {
+            client.invalidateDeviceGroup(deviceGroup);
+        }
+    }
+
+    /**
+     * Gets a DeviceGroup with the given name. Resolves with the DeviceGroup object on success; rejects with an error otherwise.
+     */
+    public void getDeviceGroup(String name, WaasPriority priority, WaasDeadline deadline, Result result) {
+        if (failIfUninitialized(result)) {
+            return;
+        }
+
+        WaasPromise.resolve(snapshot.recording(keyClient.withDeadline(deadline).getDeviceGroup(name, priority)), result);
     }
 
     /**
      * Initiates an operation to prepare device archive for MPCKey export. Resolves with the operation name on successful initiation; rejects with
      * an error otherwise.
      */
-    public void prepareDeviceArchive(String deviceGroup, String device, Result result) {
+    public void prepareDeviceArchive(String deviceGroup, String device, WaasPriority priority, WaasDeadline deadline, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.prepareDeviceArchive(deviceGroup, device), result, null, this.executor);
+        WaasPromise.resolveMap(keyClient.withDeadline(deadline).prepareDeviceArchive(deviceGroup, device, priority), result, null);
     }
 
     /**
@@ -301,11 +460,11 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
      * stopPollingForDeviceArchives or computePrepareDeviceArchiveMPCOperation) before another call is made to this function.
      * Resolves with a list of the pending DeviceArchives on success; rejects with an error otherwise.
      */
-    public void pollForPendingDeviceArchives(String deviceGroup, int pollInterval, Result result) {
+    public void pollForPendingDeviceArchives(String deviceGroup, int pollInterval, WaasPriority priority, WaasDeadline deadline, Number cancellationToken, boolean mpcDataAsBlobs, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.pollForPendingDeviceArchives(deviceGroup, pollInterval), result, Utils::convertJsonToArray, this.executor);
+        resolveOperations(cancellations.track(cancellationToken, keyClient.withDeadline(deadline).pollForPendingDeviceArchives(deviceGroup, pollInterval, priority)), mpcDataAsBlobs, result);
     }
 
     /**
@@ -317,7 +476,7 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.stopPollingForPendingDeviceArchives(), result, null, this.executor);
+        WaasPromise.resolveMap(keyClient.stopPollingForPendingDeviceArchives(), result, null);
     }
 
 
@@ -327,11 +486,11 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
      * stopPollingForDeviceBackups or computePrepareDeviceBackupMPCOperation) before another call is made to this function.
      * Resolves with a list of the pending DeviceBackups on success; rejects with an error otherwise.
      */
-    public void pollForPendingDeviceBackups(String deviceGroup, int pollInterval, Result result) {
+    public void pollForPendingDeviceBackups(String deviceGroup, int pollInterval, WaasPriority priority, WaasDeadline deadline, Number cancellationToken, boolean mpcDataAsBlobs, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.pollForPendingDeviceBackups(deviceGroup, pollInterval), result, Utils::convertJsonToArray, this.executor);
+        resolveOperations(cancellations.track(cancellationToken, keyClient.withDeadline(deadline).pollForPendingDeviceBackups(deviceGroup, pollInterval, priority)), mpcDataAsBlobs, result);
     }
 
     /**
@@ -343,7 +502,7 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.stopPollingForPendingDeviceBackups(), result, null, this.executor);
+        WaasPromise.resolveMap(keyClient.stopPollingForPendingDeviceBackups(), result, null);
     }
 
 
@@ -351,22 +510,22 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
      * Initiates an operation to prepare device backup to add new Devices to the DeviceGroup. Resolves with the operation name on successful initiation; rejects with
      * an error otherwise.
      */
-    public void prepareDeviceBackup(String deviceGroup, String device, Result result) {
+    public void prepareDeviceBackup(String deviceGroup, String device, WaasPriority priority, WaasDeadline deadline, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.prepareDeviceBackup(deviceGroup, device), result, null, this.executor);
+        WaasPromise.resolveMap(keyClient.withDeadline(deadline).prepareDeviceBackup(deviceGroup, device, priority), result, null);
     }
 
     /**
      * Initiates an operation to add a Device to the DeviceGroup. Resolves with the operation name on successful initiation; rejects with
      * an error otherwise.
      */
-    public void addDevice(String deviceGroup, String device, Result result) {
+    public void addDevice(String deviceGroup, String device, WaasPriority priority, WaasDeadline deadline, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.addDevice(deviceGroup, device), result, null, this.executor);
+        WaasPromise.resolveMap(keyClient.withDeadline(deadline).addDevice(deviceGroup, device, priority), result, null);
     }
 
 
@@ -376,11 +535,11 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
      * stopPollingForDevices or computeAddDeviceMPCOperation) before another call is made to this function.
      * Resolves with a list of the pending Devices on success; rejects with an error otherwise.
      */
-    public void pollForPendingDevices(String deviceGroup, int pollInterval, Result result) {
+    public void pollForPendingDevices(String deviceGroup, int pollInterval, WaasPriority priority, WaasDeadline deadline, Number cancellationToken, boolean mpcDataAsBlobs, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.pollForPendingDevices(deviceGroup, pollInterval), result, Utils::convertJsonToArray, this.executor);
+        resolveOperations(cancellations.track(cancellationToken, keyClient.withDeadline(deadline).pollForPendingDevices(deviceGroup, pollInterval, priority)), mpcDataAsBlobs, result);
     }
 
     /**
@@ -392,7 +551,96 @@ public class MPCKeyServiceHandler implements MethodCallHandler {
         if (failIfUninitialized(result)) {
             return;
         }
-        WaasPromise.resolveMap(keyClient.stopPollingForPendingDevices(), result, null, this.executor);
+        WaasPromise.resolveMap(keyClient.stopPollingForPendingDevices(), result, null);
+    }
+
+    /**
+     * Polls for pending operations of any of the given kinds ("deviceGroup", "signatures", "deviceArchives",
+     * "deviceBackups", "devices") of the DeviceGroup, and returns the first set that materializes, keyed by kind.
+     * Any number of DeviceGroups can be polled at once, and concurrent calls for the same DeviceGroup share one
+     * poll per kind; the poll interval of the first call applies until stopPollingDeviceGroup is called.
+     * Operations an earlier call has returned are left out, unless they changed or `includeAll` is set.
+     * The deadline bounds the wait for operations, but not the shared polls, which keep running; for the same
+     * reason no priority applies.
+     * Resolves with a map from kind to the list of pending operations on success; rejects with an error otherwise.
+     */
+    public void pollForPendingOperations(String deviceGroup, int pollInterval, List<String> kinds, boolean includeAll, WaasDeadline deadline, Number cancellationToken, boolean mpcDataAsBlobs, Result result) {
+        if (failIfUninitialized(result)) {
+            return;
+        }
+        Set<DeviceGroupPoller.Kind> kindSet = kindsOf(kinds, result);
+        if (kindSet == null) {
+            return;
+        }
+        DeviceGroupPoller poller = keyClient.pollerFor(deviceGroup, pollInterval);
+        WaasPromise.resolveMap(cancellations.track(cancellationToken, poller.next(kindSet, includeAll, deadline)), result, (Map<DeviceGroupPoller.Kind, List<Object>> operations) -> {
+            Map<String, Object> resultMap = new HashMap<>();
+            for (Map.Entry<DeviceGroupPoller.Kind, List<Object>> entry : operations.entrySet()) {
+                resultMap.put(entry.getKey().getKey(), mpcDataAsBlobs ? blobs.withMPCDataHandles(entry.getValue()) : entry.getValue());
+            }
+            return resultMap;
+        });
     }
-}
 
+    /**
+     * Starts pushing the pending operations of the given kinds of the DeviceGroup to the pending operations
+     * EventChannel, tagged with `watchId`, until unwatchPendingOperations is called with the same id.
+     * Watches share one poll per kind with every other watcher of the DeviceGroup, and only push operations
+     * which are new or changed since the watch last pushed them, unless `includeAll` is set.
+     * Resolves once the watch has started; rejects with an error otherwise.
+     */
+    public void watchPendingOperations(Number watchId, String deviceGroup, int pollInterval, List<String> kinds, boolean includeAll, Result result) {
+        if (failIfUninitialized(result)) {
+            return;
+        }
+        if (watchId == null) {
+            result.error(mpcKeyServiceErr, "watchPendingOperations failed : watchId is required", null);
+            return;
+        }
+        Set<DeviceGroupPoller.Kind> kindSet = kindsOf(kinds, result);
+        if (kindSet == null) {
+            return;
+        }
+        pendingOperations.watch(watchId.longValue(), keyClient.pollerFor(deviceGroup, pollInterval), kindSet, includeAll);
+        result.success(null);
+    }
+
+    /**
+     * Stops the watch started by watchPendingOperations with the given id.
+     * Resolves with whether the watch was running.
+     */
+    public void unwatchPendingOperations(Number watchId, Result result) {
+        if (watchId == null) {
+            result.error(mpcKeyServiceErr, "unwatchPendingOperations failed : watchId is required", null);
+            return;
+        }
+        result.success(pendingOperations.unwatch(watchId.longValue()));
+    }
+
+    /**
+     * Stops polling the DeviceGroup for pollForPendingOperations and watchPendingOperations, leaving the polls
+     * of other DeviceGroups running. Its pending pollForPendingOperations calls reject with E_CANCELLED, and its
+     * watches end. Resolves with whether the DeviceGroup was being polled.
+     */
+    public void stopPollingDeviceGroup(String deviceGroup, Result result) {
+        if (failIfUninitialized(result)) {
+            return;
+        }
+        pendingOperations.endWatches(deviceGroup);
+        result.success(keyClient.stopPolling(deviceGroup));
+    }
+
+    // Parses the kind names sent by Dart; rejects `result` and returns null if one is invalid.
+    private Set<DeviceGroupPoller.Kind> kindsOf(List<String> kinds, Result result) {
+        Set<DeviceGroupPoller.Kind> kindSet = EnumSet.noneOf(DeviceGroupPoller.Kind.class);
+        try {
+            for (String kind : kinds) {
+                kindSet.add(DeviceGroupPoller.Kind.fromKey(kind));
+            }
+        } catch (WaasException e) {
+            result.error(mpcKeyServiceErr, e.getMessage(), null);
+            return null;
+        }
+        return kindSet;
+    }
+}
@@ -5,9 +5,12 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 
 import com.coinbase.waassdk.WaasException;
+import com.coinbase.waassdk.WaasFuture;
+import com.coinbase.waassdk.WaasPriority;
+import com.coinbase.waassdk.WaasScheduler;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.io.File;
+import java.io.IOException;
 
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
@@ -16,12 +19,18 @@ import io.flutter.plugin.common.MethodChannel.Result;
 public class MPCSdkHandler implements MethodCallHandler {
     private Context applicationContext;
 
-    public MPCSdkHandler(Context context) {
+    public MPCSdkHandler(Context context, WaasScheduler scheduler, BlobRegistry blobs) {
         this.applicationContext = context;
+        this.scheduler = scheduler;
+        this.blobs = blobs;
     }
 
     private com.coinbase.waassdk.MPCSdk sdk;
-    private ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    private final WaasScheduler scheduler;
+    // Resolves the payloads Dart passes by handle.
+    private final BlobRegistry blobs;
+    // Told of the DeviceGroups completed AddDevice computations change; null until set.
+    private volatile MPCKeyServiceHandler keyServiceHandler;
 
     // The error code for MPC-SDK related errors.
     private final String mpcSdkErr = "E_MPC_SDK";
@@ -35,6 +44,28 @@ public class MPCSdkHandler implements MethodCallHandler {
             return;
         }
 
+        WaasPriority priority;
+        try {
+            // The optional scheduling priority of the call; null selects the method's default.
+            priority = WaasPriority.fromString(call.argument("priority"), null);
+        } catch (WaasException e) {
+            result.error(mpcSdkErr, e.getMessage(), null);
+            return;
+        }
+
+        // The optional DeviceGroup whose MPC operations the call runs in order with.
+        String orderedBy = call.argument("orderedByDeviceGroup");
+
+        try {
+            handle(call, priority, orderedBy, result);
+        } catch (WaasException e) {
+            result.error(e.getErrorType(), e.getMessage(), null);
+        }
+    }
+
+    // Dispatches the call. The mpcData and deviceBackup arguments may be blob handles; the deviceBackup may also be
+    // passed as the path of a file written by exportDeviceBackupToFile.
+    private void handle(MethodCall call, WaasPriority priority, String orderedBy, Result result) throws WaasException {
         switch (call.method) {
             case "initialize":
                 Boolean isSimulator = call.argument("isSimulator");
@@ -48,36 +79,47 @@ public class MPCSdkHandler implements MethodCallHandler {
                 getRegistrationData(result);
                 break;
             case "computeMPCOperation":
-                String mpcData = call.argument("mpcData");
-                computeMPCOperation(mpcData, result);
+                String mpcData = blobs.stringOf(call.argument("mpcData"));
+                computeMPCOperation(mpcData, priority, orderedBy, result);
                 break;
             case "exportPrivateKeys":
                 String mpcKeyExportMetadata = call.argument("mpcKeyExportMetadata");
                 String pass = call.argument("passcode");
-                exportPrivateKeys(mpcKeyExportMetadata, pass, result);
+                exportPrivateKeys(mpcKeyExportMetadata, pass, priority, result);
+                break;
+            case "exportPrivateKeysToFile":
+                exportPrivateKeysToFile(call.argument("mpcKeyExportMetadata"), call.argument("passcode"), call.argument("path"), priority, result);
                 break;
             case "computePrepareDeviceArchiveMPCOperation":
-                String data = call.argument("mpcData");
+                String data = blobs.stringOf(call.argument("mpcData"));
                 String passcodeForArchive = call.argument("passcode");
-                computePrepareDeviceArchiveMPCOperation(data, passcodeForArchive, result);
+                computePrepareDeviceArchiveMPCOperation(data, passcodeForArchive, priority, orderedBy, result);
                 break;
             case "computePrepareDeviceBackupMPCOperation":
-                String dataBackup = call.argument("mpcData");
+                String dataBackup = blobs.stringOf(call.argument("mpcData"));
                 String passcodeForBackup = call.argument("passcode");
-                computePrepareDeviceBackupMPCOperation(dataBackup, passcodeForBackup, result);
+                computePrepareDeviceBackupMPCOperation(dataBackup, passcodeForBackup, priority, orderedBy, result);
                 break;
             case "exportDeviceBackup":
-                exportDeviceBackup(result);
+                exportDeviceBackup(priority, Boolean.TRUE.equals(call.argument("asBlob")), result);
+                break;
+            case "exportDeviceBackupToFile":
+                exportDeviceBackupToFile(call.argument("path"), priority, result);
                 break;
             case "computeAddDeviceMPCOperation":
-                String mpcDataAdd = call.argument("mpcData");
+                String mpcDataAdd = blobs.stringOf(call.argument("mpcData"));
                 String passcodeAdd = call.argument("passcode");
-                String deviceBackup = call.argument("deviceBackup");
-                computeAddDeviceMPCOperation(mpcDataAdd, passcodeAdd, deviceBackup, result);
+                if (call.hasArgument("deviceBackupPath")) {
+                    String deviceBackupPath = call.argument("deviceBackupPath");
+                    computeAddDeviceMPCOperationFromFile(mpcDataAdd, passcodeAdd, deviceBackupPath, priority, orderedBy, result);
+                } else {
+                    String deviceBackup = blobs.stringOf(call.argument("deviceBackup"));
+                    computeAddDeviceMPCOperation(mpcDataAdd, passcodeAdd, deviceBackup, priority, orderedBy, result);
+                }
                 break;
             case "resetPasscode":
                 String newPasscode = call.argument("newPasscode");
-                resetPasscode(newPasscode, result);
+                resetPasscode(newPasscode, priority, result);
                 break;
             default:
                 result.notImplemented();
@@ -85,6 +127,30 @@ public class MPCSdkHandler implements MethodCallHandler {
         }
     }
 
+    /**
+     * Sets the key service handler whose cached DeviceGroups completed AddDevice computations invalidate.
+     */
+    void setKeyServiceHandler(MPCKeyServiceHandler keyServiceHandler) {
+        this.keyServiceHandler = keyServiceHandler;
+    }
+
+    /**
+     * Returns the MPCSdk, or null if it has not been initialized.
+     */
+    com.coinbase.waassdk.MPCSdk getSdk() {
+        return sdk;
+    }
+
+    /**
+     * Closes the MPCSdk, stopping its work and releasing its Go client.
+     */
+    void close() {
+        if (sdk != null) {
+            sdk.close();
+            sdk = null;
+        }
+    }
+
     private boolean failIfUnitialized(Result result) {
         if (sdk == null) {
             result.error(mpcSdkErr, uninitializedErr, null);
@@ -104,7 +170,7 @@ public class MPCSdkHandler implements MethodCallHandler {
             return;
         }
         try {
-            sdk = new com.coinbase.waassdk.MPCSdk(this.applicationContext, isSimulator, this.executor);
+            sdk = new com.coinbase.waassdk.MPCSdk(this.applicationContext, isSimulator, this.scheduler);
             result.success(true);
         } catch (Exception e) {
             result.error("INIT_ERROR", "initialize MPCSdk service failed", e.getMessage());
@@ -147,13 +213,14 @@ public class MPCSdkHandler implements MethodCallHandler {
     /**
      * ComputeMPCOperation computes an MPC operation, given mpcData from the response of ListMPCOperations API on
      * MPCKeyService. Resolves with the string "success" on success; rejects with an error otherwise.
+     * If `orderedBy` is set, the operation runs after, and never alongside, the other MPC operations of that DeviceGroup.
      */
-    public void computeMPCOperation(String mpcData, Result result) {
+    public void computeMPCOperation(String mpcData, WaasPriority priority, String orderedBy, Result result) {
         if (failIfUnitialized(result)) {
             return;
         }
 
-        WaasPromise.resolve(sdk.computeMPCOperation(mpcData), result, executor);
+        WaasPromise.resolve(sdk.orderedBy(orderedBy).computeMPCOperation(mpcData, priority), result);
     }
 
 
@@ -162,12 +229,28 @@ public class MPCSdkHandler implements MethodCallHandler {
      * exporting private keys that back EVM addresses. Resolves with ExportPrivateKeysResponse object on success;
      * rejects with an error otherwise.
      */
-    public void exportPrivateKeys(String mpcKeyExportMetadata, String passcode, Result result) {
+    public void exportPrivateKeys(String mpcKeyExportMetadata, String passcode, WaasPriority priority, Result result) {
         if (failIfUnitialized(result)) {
             return;
         }
 
-        WaasPromise.resolveMap(sdk.exportPrivateKeys(mpcKeyExportMetadata, passcode), result, Utils::convertJsonToArray, executor);
+        WaasPromise.resolve(sdk.exportPrivateKeys(mpcKeyExportMetadata, passcode, priority), result);
+    }
+
+    /**
+     * Same as exportPrivateKeys, but writes the ExportPrivateKeysResponse JSON to the file at `path` rather than
+     * sending it over the channel. Resolves with the number of bytes written.
+     */
+    public void exportPrivateKeysToFile(String mpcKeyExportMetadata, String passcode, String path, WaasPriority priority, Result result) {
+        if (failIfUnitialized(result)) {
+            return;
+        }
+
+        File file = appFileOf(path, result);
+        if (file == null) {
+            return;
+        }
+        WaasPromise.resolve(sdk.exportPrivateKeys(mpcKeyExportMetadata, passcode, file, priority), result);
     }
 
 
@@ -175,36 +258,57 @@ public class MPCSdkHandler implements MethodCallHandler {
      * Computes an MPC operation of type PrepareDeviceArchive, given mpcData from the response of ListMPCOperations API on
      * MPCKeyService and passcode of the Device. Resolves with the string "success" on success; rejects with an error otherwise.
      */
-    public void computePrepareDeviceArchiveMPCOperation(String mpcData, String passcode, Result result) {
+    public void computePrepareDeviceArchiveMPCOperation(String mpcData, String passcode, WaasPriority priority, String orderedBy, Result result) {
         if (failIfUnitialized(result)) {
             return;
         }
 
-        WaasPromise.resolve(sdk.computePrepareDeviceArchiveMPCOperation(mpcData, passcode), result, executor);
+        WaasPromise.resolve(sdk.orderedBy(orderedBy).computePrepareDeviceArchiveMPCOperation(mpcData, passcode, priority), result);
     }
 
     /**
      * Computes an MPC operation of type PrepareDeviceBackup, given mpcData from the response of ListMPCOperations API on
      * MPCKeyService and passcode of the Device. Resolves with the string "success" on success; rejects with an error otherwise.
      */
-    public void computePrepareDeviceBackupMPCOperation(String mpcData, String passcode, Result result) {
+    public void computePrepareDeviceBackupMPCOperation(String mpcData, String passcode, WaasPriority priority, String orderedBy, Result result) {
         if (failIfUnitialized(result)) {
             return;
         }
 
-        WaasPromise.resolve(sdk.computePrepareDeviceBackupMPCOperation(mpcData, passcode), result, executor);
+        WaasPromise.resolve(sdk.orderedBy(orderedBy).computePrepareDeviceBackupMPCOperation(mpcData, passcode, priority), result);
     }
 
     /**
      * Exports device backup for the Device. The device backup is only available after the Device has computed PrepareDeviceBackup operation successfully.
-     * Resolves with backup data as a hex-encoded string on success; rejects with an error otherwise.
+     * Resolves with backup data as a hex-encoded string on success, or with the handle of the string kept natively if
+     * `asBlob` is set; rejects with an error otherwise.
      */
-    public void exportDeviceBackup(Result result) {
+    public void exportDeviceBackup(WaasPriority priority, boolean asBlob, Result result) {
         if (failIfUnitialized(result)) {
             return;
         }
 
-        WaasPromise.resolve(sdk.exportDeviceBackup(), result, executor);
+        if (asBlob) {
+            WaasPromise.resolveMap(sdk.exportDeviceBackup(priority), result, blobs::put);
+        } else {
+            WaasPromise.resolve(sdk.exportDeviceBackup(priority), result);
+        }
+    }
+
+    /**
+     * Same as exportDeviceBackup, but writes the backup to the file at `path` as raw bytes rather than sending it over
+     * the channel. Resolves with the number of bytes written.
+     */
+    public void exportDeviceBackupToFile(String path, WaasPriority priority, Result result) {
+        if (failIfUnitialized(result)) {
+            return;
+        }
+
+        File file = appFileOf(path, result);
+        if (file == null) {
+            return;
+        }
+        WaasPromise.resolve(sdk.exportDeviceBackup(file, priority), result);
     }
 
 
@@ -212,12 +316,74 @@ public class MPCSdkHandler implements MethodCallHandler {
      * Computes an MPC operation of type AddDevice, given mpcData from the response of ListMPCOperations API on
      * MPCKeyService, passcode of the Device and deviceBackup created with PrepareDeviceBackup operation. Resolves with the string "success" on success; rejects with an error otherwise.
      */
-    public void computeAddDeviceMPCOperation(String mpcData, String passcode, String deviceBackup, Result result) {
+    public void computeAddDeviceMPCOperation(String mpcData, String passcode, String deviceBackup, WaasPriority priority, String orderedBy, Result result) {
         if (failIfUnitialized(result)) {
             return;
         }
 
-        WaasPromise.resolve(sdk.computeAddDeviceMPCOperation(mpcData, passcode, deviceBackup), result, executor);
+        WaasPromise.resolve(addingDevice(orderedBy, sdk.orderedBy(orderedBy).computeAddDeviceMPCOperation(mpcData, passcode, deviceBackup, priority)), result);
+    }
+
+    /**
+     * Same as computeAddDeviceMPCOperation, but reads the deviceBackup from the file at `deviceBackupPath` written by
+     * exportDeviceBackupToFile.
+     */
+    public void computeAddDeviceMPCOperationFromFile(String mpcData, String passcode, String deviceBackupPath, WaasPriority priority, String orderedBy, Result result) {
+        if (failIfUnitialized(result)) {
+            return;
+        }
+
+        File file = appFileOf(deviceBackupPath, result);
+        if (file == null) {
+            return;
+        }
+        WaasPromise.resolve(addingDevice(orderedBy, sdk.orderedBy(orderedBy).computeAddDeviceMPCOperation(mpcData, passcode, file, priority)), result);
+    }
+
+    /**
+     * Resolves `path` to a file in the app's private files or cache directory; a relative path is taken relative to
+     * the files directory. Rejects `result` and returns null if `path` is missing or leads outside both directories,
+     * so that backups and private keys are never written where other apps can read them.
+     */
+    private File appFileOf(String path, Result result) {
+        if (path == null) {
+            result.error(mpcSdkErr, "path is required", null);
+            return null;
+        }
+        File filesDir = applicationContext.getFilesDir();
+        File file = new File(path).isAbsolute() ? new File(path) : new File(filesDir, path);
+        try {
+            String canonical = file.getCanonicalPath();
+            for (File dir : new File[]{filesDir, applicationContext.getCacheDir()}) {
+                if (canonical.startsWith(dir.getCanonicalPath() + File.separator)) {
+                    return new File(canonical);
+                }
+            }
+        } catch (IOException e) {
+            result.error(mpcSdkErr, "invalid path " + path + " : " + e.getMessage(), null);
+            return null;
+        }
+        result.error(mpcSdkErr, path + " is not in the app's files or cache directory", null);
+        return null;
+    }
+
+    // Invalidates the cached DeviceGroup `deviceGroup` once the AddDevice computation `future` completes; every cached
+    // DeviceGroup if the computation was not ordered by a DeviceGroup, as then it is not known which one it changed.
+    private WaasFuture<Void> addingDevice(String deviceGroup, WaasFuture<Void> future) {
+        future.addCallback(new WaasFuture.Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                MPCKeyServiceHandler keys = keyServiceHandler;
+                if (keys != null) {
+                    keys.invalidateDeviceGroup(deviceGroup);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+            }
+        });
+        return future;
     }
 
     /**
@@ -227,10 +393,10 @@ public class MPCSdkHandler implements MethodCallHandler {
      * This function can be used when/if the end user forgets their old passcode.
      * It resolves with the string "passcode reset" on success; a rejection otherwise.
      */
-    public void resetPasscode(String newPasscode, Result result) {
+    public void resetPasscode(String newPasscode, WaasPriority priority, Result result) {
         if (failIfUnitialized(result)) {
             return;
         }
-        WaasPromise.resolve(sdk.resetPasscode(newPasscode), result, executor);
+        WaasPromise.resolve(sdk.resetPasscode(newPasscode, priority), result);
     }
 }
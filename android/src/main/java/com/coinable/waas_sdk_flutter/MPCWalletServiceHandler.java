@@ -1,11 +1,12 @@
 package com.coinable.waas_sdk_flutter;
 
+import com.coinbase.waassdk.MetadataSnapshot;
+import com.coinbase.waassdk.WaasDeadline;
 import com.coinbase.waassdk.WaasNetwork;
+import com.coinbase.waassdk.WaasScheduler;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel.Result;
@@ -19,29 +20,43 @@ public class MPCWalletServiceHandler implements MethodCallHandler {
     // The error message for calls made without initializing SDK.
     private final String uninitializedErr = "MPCWalletService must be initialized";
 
-    ExecutorService executor;
+    private final WaasScheduler scheduler;
 
-    MPCWalletServiceHandler() {
-        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    // Tracks calls made with a cancellation token.
+    private final CancellationRegistry cancellations;
+
+    // Keeps the MPCWallets and Addresses resolved across restarts.
+    private final MetadataSnapshot snapshot;
+
+    MPCWalletServiceHandler(WaasScheduler scheduler, CancellationRegistry cancellations, MetadataSnapshot snapshot) {
+        this.scheduler = scheduler;
+        this.cancellations = cancellations;
+        this.snapshot = snapshot;
     }
 
     @Override
     public void onMethodCall(MethodCall call, Result result) {
+        // The optional deadline of the call, shared by every step of the flow it belongs to.
+        WaasDeadline deadline = Utils.deadlineOf(call);
+
         switch (call.method) {
             case "initialize":
                 initialize(call.argument("apiKeyName"), call.argument("privateKey"), call.argument("proxyUrl"), result);
                 break;
             case "createMPCWallet":
-                createMPCWallet(call.argument("parent"), call.argument("device"), result);
+                createMPCWallet(call.argument("parent"), call.argument("device"), deadline, result);
                 break;
             case "waitPendingMPCWallet":
-                waitPendingMPCWallet(call.argument("operation"), result);
+                waitPendingMPCWallet(call.argument("operation"), deadline, call.argument("cancellationToken"), result);
                 break;
             case "generateAddress":
-                generateAddress(call.argument("mpcWallet"), call.argument("network"), result);
+                generateAddress(call.argument("mpcWallet"), call.argument("network"), deadline, result);
                 break;
             case "getAddress":
-                getAddress(call.argument("name"), result);
+                getAddress(call.argument("name"), deadline, result);
+                break;
+            case "getAddressCacheStats":
+                getAddressCacheStats(result);
                 break;
             default:
                 result.notImplemented();
@@ -49,6 +64,16 @@ public class MPCWalletServiceHandler implements MethodCallHandler {
         }
     }
 
+    /**
+     * Closes the MPCWalletService, stopping its work and releasing its Go client.
+     */
+    void close() {
+        if (walletsClient != null) {
+            walletsClient.close();
+            walletsClient = null;
+        }
+    }
+
     private boolean failIfUninitialized(Result result) {
         if (walletsClient == null) {
             result.error(walletsErr, uninitializedErr, null);
@@ -69,7 +94,8 @@ public class MPCWalletServiceHandler implements MethodCallHandler {
         }
 
         try {
-            walletsClient = new com.coinbase.waassdk.MPCWalletService(apiKeyName, privateKey, proxyUrl, executor);
+            walletsClient = new com.coinbase.waassdk.MPCWalletService(apiKeyName, privateKey, proxyUrl, scheduler);
+            walletsClient.primeAddresses(snapshot.getAddresses());
             result.success(null);
         } catch (Exception e) {
             result.error(walletsErr,"initialize MPC wallet service failed : ", e);
@@ -80,60 +106,67 @@ public class MPCWalletServiceHandler implements MethodCallHandler {
      * Creates an MPCWallet with the given parameters.  Resolves with the response on success; rejects with an error
      * otherwise.
      */
-    public void createMPCWallet(String parent, String device, Result result) {
+    public void createMPCWallet(String parent, String device, WaasDeadline deadline, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
 
-        WaasPromise.resolveMap(walletsClient.createMPCWallet(parent, device), result, (response) -> {
+        WaasPromise.resolveMap(walletsClient.withDeadline(deadline).createMPCWallet(parent, device), result, (response) -> {
             Map<String, Object> map = new HashMap<>();
             map.put("DeviceGroup", response.getDeviceGroup());
             map.put("Operation", response.getOperation());
             return map;
-        }, executor);
+        });
     }
 
     /**
      * Waits for a pending MPCWallet with the given operation name. Resolves with the MPCWallet object on success;
      * rejects with an error otherwise.
      */
-    public void waitPendingMPCWallet(String operation, Result result) {
+    public void waitPendingMPCWallet(String operation, WaasDeadline deadline, Number cancellationToken, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
 
-        WaasPromise.resolveMap(walletsClient.waitPendingMPCWallet(operation), result, (wallet) -> {
+        WaasPromise.resolveMap(cancellations.track(cancellationToken, snapshot.recording(walletsClient.withDeadline(deadline).waitPendingMPCWallet(operation))), result, (wallet) -> {
             Map<String, Object> map = new HashMap<>();
             map.put("Name", wallet.getName());
             map.put("DeviceGroup", wallet.getDeviceGroup());
             return map;
-        }, executor);
+        });
     }
 
     /**
      * Generates an Address within an MPCWallet. Resolves with the Address object on success;
      * rejects with an error otherwise.
      */
-    public void generateAddress(String mpcWallet, String network, Result result) {
+    public void generateAddress(String mpcWallet, String network, WaasDeadline deadline, Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
 
-        WaasPromise.resolveMap(walletsClient.generateAddress(mpcWallet, WaasNetwork.fromNetworkString(network)), result, (address) ->
-                        Utils.convertJsonToMap(address.toJSON())
-                , executor);
+        WaasPromise.resolve(snapshot.recording(walletsClient.withDeadline(deadline).generateAddress(mpcWallet, WaasNetwork.fromNetworkString(network))), result);
     }
 
     /**
      * Gets an Address with the given name. Resolves with the Address object on success; rejects with an error otherwise.
      */
-    public void getAddress(String name, Result result) {
+    public void getAddress(String name, WaasDeadline deadline, Result result) {
+        if (failIfUninitialized(result)) {
+            return;
+        }
+
+        WaasPromise.resolve(snapshot.recording(walletsClient.withDeadline(deadline).getAddress(name)), result);
+    }
+
+    /**
+     * Resolves with the hits, misses and size of the Address cache behind getAddress.
+     */
+    public void getAddressCacheStats(Result result) {
         if (failIfUninitialized(result)) {
             return;
         }
 
-        WaasPromise.resolveMap(walletsClient.getAddress(name), result, (address) ->
-                        Utils.convertJsonToMap(address.toJSON())
-                , executor);
+        result.success(walletsClient.getAddressCacheStats());
     }
 }
@@ -0,0 +1,153 @@
+package com.coinable.waas_sdk_flutter;
+
+import com.coinbase.waassdk.DeviceGroupPoller;
+import com.coinbase.waassdk.WaasException;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.flutter.plugin.common.EventChannel;
+
+/**
+ * Pushes the pending operations of watched DeviceGroups to Dart over a single EventChannel.
+ *
+ * Dart listens to the channel once, then starts a watch per DeviceGroup with
+ * "watchPendingOperations", passing an id of its choosing. Every event carries the id of its
+ * watch, so watches of many DeviceGroups share the stream:
+ * {"watchId": 1, "kind": "signatures", "operations": [...]}, or, if a poll failed,
+ * {"watchId": 1, "kind": "signatures", "errorCode": "E_MPC_KEY_SERVICE", "errorMessage": "..."}.
+ * A failed poll is retried, so errors do not end the watch. A watch ended by stopping its
+ * DeviceGroup's poller sends a last {"watchId": 1, "done": true}.
+ *
+ * Watches, and the sink, are only touched on the platform thread.
+ */
+class PendingOperationsStream implements EventChannel.StreamHandler {
+    private final ResultDispatcher dispatcher;
+
+    // The sink of the Dart listener; null while no one listens.
+    private EventChannel.EventSink sink;
+    private final Map<Long, Watch> watches = new HashMap<>();
+
+    PendingOperationsStream(ResultDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void onListen(Object arguments, EventChannel.EventSink events) {
+        sink = events;
+    }
+
+    @Override
+    public void onCancel(Object arguments) {
+        sink = null;
+        // No one receives the events anymore.
+        unwatchAll();
+    }
+
+    /**
+     * Starts pushing the pending operations of the given kinds from `poller` under `watchId`,
+     * replacing any previous watch with that id. Only new or changed operations are pushed, unless
+     * `includeAll` is set.
+     */
+    void watch(long watchId, DeviceGroupPoller poller, Set<DeviceGroupPoller.Kind> kinds, boolean includeAll) {
+        unwatch(watchId);
+        Watch watch = new Watch(watchId, poller);
+        watches.put(watchId, watch);
+        poller.subscribe(kinds, watch, includeAll);
+    }
+
+    /**
+     * Stops the watch with the given id. Returns whether it was watching.
+     */
+    boolean unwatch(long watchId) {
+        Watch watch = watches.remove(watchId);
+        if (watch == null) {
+            return false;
+        }
+        watch.stop();
+        return true;
+    }
+
+    /**
+     * Stops the watches of `deviceGroup`, telling Dart they are done.
+     */
+    void endWatches(String deviceGroup) {
+        List<Watch> ended = new ArrayList<>();
+        for (Watch watch : watches.values()) {
+            if (watch.poller.getDeviceGroup().equals(deviceGroup)) {
+                ended.add(watch);
+            }
+        }
+        for (Watch watch : ended) {
+            unwatch(watch.id);
+            Map<String, Object> event = new HashMap<>();
+            event.put("watchId", watch.id);
+            event.put("done", true);
+            dispatcher.dispatch(() -> {
+                if (sink != null) {
+                    sink.success(event);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops every watch.
+     */
+    void unwatchAll() {
+        List<Watch> stopped = new ArrayList<>(watches.values());
+        watches.clear();
+        for (Watch watch : stopped) {
+            watch.stop();
+        }
+    }
+
+    private void push(Watch watch, Map<String, Object> event) {
+        dispatcher.dispatch(() -> {
+            // Drop events of watches stopped while the event was queued.
+            if (sink != null && watches.get(watch.id) == watch) {
+                sink.success(event);
+            }
+        });
+    }
+
+    private class Watch implements DeviceGroupPoller.Listener {
+        final long id;
+        final DeviceGroupPoller poller;
+
+        Watch(long id, DeviceGroupPoller poller) {
+            this.id = id;
+            this.poller = poller;
+        }
+
+        void stop() {
+            poller.unsubscribe(this);
+        }
+
+        @Override
+        public void onPendingOperations(DeviceGroupPoller.Kind kind, List<Object> operations) {
+            Map<String, Object> event = newEvent(kind);
+            event.put("operations", operations);
+            push(this, event);
+        }
+
+        @Override
+        public void onError(DeviceGroupPoller.Kind kind, Throwable error) {
+            Map<String, Object> event = newEvent(kind);
+            event.put("errorCode", error instanceof WaasException ? ((WaasException) error).getErrorType() : "EXECUTION_ERROR");
+            event.put("errorMessage", error.getMessage());
+            push(this, event);
+        }
+
+        private Map<String, Object> newEvent(DeviceGroupPoller.Kind kind) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("watchId", id);
+            event.put("kind", kind.getKey());
+            return event;
+        }
+    }
+}
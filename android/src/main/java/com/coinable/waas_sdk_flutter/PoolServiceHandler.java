@@ -1,11 +1,7 @@
  package com.coinable.waas_sdk_flutter;
 
-import com.waassdkinternal.v1.Pool;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import com.coinbase.waassdk.WaasDeadline;
+import com.coinbase.waassdk.WaasScheduler;
 
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel.Result;
@@ -16,23 +12,26 @@ public class PoolServiceHandler implements MethodCallHandler {
 
     private final String uninitializedErr = "pool service must be initialized";
 
-    private final ExecutorService executor;
+    private final WaasScheduler scheduler;
 
     // The handle to the Go PoolService client.
     com.coinbase.waassdk.PoolService poolClient;
 
-    PoolServiceHandler() {
-        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    PoolServiceHandler(WaasScheduler scheduler) {
+        this.scheduler = scheduler;
     }
 
     @Override
     public void onMethodCall(MethodCall call, Result result) {
+        // The optional deadline of the call, shared by every step of the flow it belongs to.
+        WaasDeadline deadline = Utils.deadlineOf(call);
+
         switch (call.method) {
             case "initialize":
                 initialize(call.argument("apiKeyName"), call.argument("privateKey"), call.argument("proxyUrl"), result);
                 break;
             case "createPool":
-                createPool(call.argument("displayName"), call.argument("poolID"), result);
+                createPool(call.argument("displayName"), call.argument("poolID"), deadline, result);
                 break;
             default:
                 result.notImplemented();
@@ -40,6 +39,16 @@ public class PoolServiceHandler implements MethodCallHandler {
         }
     }
 
+    /**
+     * Closes the PoolService, releasing its Go client.
+     */
+    void close() {
+        if (poolClient != null) {
+            poolClient.close();
+            poolClient = null;
+        }
+    }
+
     /**
      * Initializes the PoolService with the given Cloud API Key parameters. Resolves on success;
      * rejects with an error otherwise.
@@ -51,7 +60,7 @@ public class PoolServiceHandler implements MethodCallHandler {
         }
 
         try {
-            poolClient = new com.coinbase.waassdk.PoolService(apiKeyName, privateKey, proxyUrl, executor);
+            poolClient = new com.coinbase.waassdk.PoolService(apiKeyName, privateKey, proxyUrl, scheduler);
             result.success(null);
         } catch (Exception e) {
             result.error(poolsErr,"initialize pool failed : ", e);
@@ -62,17 +71,12 @@ public class PoolServiceHandler implements MethodCallHandler {
      * Creates a Pool with the given parameters.  Resolves with the created Pool object on success; rejects with an error
      * otherwise.
      */
-    public void createPool(String displayName, String poolID, Result result) {
+    public void createPool(String displayName, String poolID, WaasDeadline deadline, Result result) {
         if (poolClient == null) {
             result.error(poolsErr, uninitializedErr, null);
             return;
         }
 
-        WaasPromise.resolveMap(poolClient.createPool(displayName, poolID), result, (Pool pool) -> {
-            Map<String, Object> outMap = new HashMap<>();
-            outMap.put("name", pool.getName());
-            outMap.put("displayName", pool.getDisplayName());
-            return outMap;
-        }, executor);
+        WaasPromise.resolve(poolClient.withDeadline(deadline).createPool(displayName, poolID), result);
     }
 }
@@ -0,0 +1,88 @@
+package com.coinable.waas_sdk_flutter;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.flutter.plugin.common.MethodChannel.Result;
+
+/**
+ * Delivers Flutter results on the platform thread.
+ *
+ * Flutter requires `Result` methods to be invoked on the platform thread, while the Waas services
+ * complete on scheduler threads. Completions are queued and delivered together in a single Looper
+ * message, so a burst of results finishing within the same frame costs one main-thread hop instead
+ * of one per result.
+ */
+class ResultDispatcher {
+    private final Handler handler;
+    private final Looper looper;
+
+    private final Object lock = new Object();
+    // Deliveries waiting for the next drain; guarded by `lock`.
+    private List<Runnable> pending = new ArrayList<>();
+    // Whether a drain message is currently posted; guarded by `lock`.
+    private boolean drainPosted;
+
+    private final Runnable drain = this::drain;
+
+    ResultDispatcher() {
+        this.looper = Looper.getMainLooper();
+        this.handler = new Handler(looper);
+    }
+
+    /**
+     * Returns a Result which forwards to `result` on the platform thread.
+     */
+    Result wrap(Result result) {
+        return new Result() {
+            @Override
+            public void success(Object output) {
+                dispatch(() -> result.success(output));
+            }
+
+            @Override
+            public void error(String errorCode, String errorMessage, Object errorDetails) {
+                dispatch(() -> result.error(errorCode, errorMessage, errorDetails));
+            }
+
+            @Override
+            public void notImplemented() {
+                dispatch(result::notImplemented);
+            }
+        };
+    }
+
+    /**
+     * Runs `delivery` on the platform thread. Deliveries made from the platform thread while nothing
+     * is queued run immediately; all others are coalesced into the next drain.
+     */
+    void dispatch(Runnable delivery) {
+        synchronized (lock) {
+            boolean runInline = !drainPosted && Looper.myLooper() == looper;
+            if (!runInline) {
+                pending.add(delivery);
+                if (!drainPosted) {
+                    drainPosted = true;
+                    handler.post(drain);
+                }
+                return;
+            }
+        }
+        delivery.run();
+    }
+
+    private void drain() {
+        List<Runnable> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new ArrayList<>();
+            drainPosted = false;
+        }
+        for (Runnable delivery : batch) {
+            delivery.run();
+        }
+    }
+}
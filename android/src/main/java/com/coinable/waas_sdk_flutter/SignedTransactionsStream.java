@@ -0,0 +1,133 @@
+package com.coinable.waas_sdk_flutter;
+
+import com.coinbase.waassdk.SignTransactionBatch;
+import com.coinbase.waassdk.SignedTransactionResult;
+import com.coinbase.waassdk.WaasException;
+import com.coinbase.waassdk.WaasFuture;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.EventChannel;
+
+/**
+ * Pushes the results of signTransactions batches to Dart over a single EventChannel, as each
+ * transaction of a batch completes.
+ *
+ * Dart listens to the channel once, then starts a batch with "signTransactions", passing an id of
+ * its choosing. Every event carries the id of its batch and the index of its transaction:
+ * {"batchId": 1, "index": 0, "RawTransaction": "...", "TransactionHash": "...", "Timings": {...}},
+ * or, if the transaction failed, {"batchId": 1, "index": 0, "errorCode": "...", "errorMessage": "..."}.
+ * Once every transaction is done, a last {"batchId": 1, "done": true} is sent.
+ *
+ * Batches, and the sink, are only touched on the platform thread.
+ */
+class SignedTransactionsStream implements EventChannel.StreamHandler {
+    private final ResultDispatcher dispatcher;
+
+    // The sink of the Dart listener; null while no one listens.
+    private EventChannel.EventSink sink;
+    private final Map<Long, WaasFuture<Void>> batches = new HashMap<>();
+
+    SignedTransactionsStream(ResultDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void onListen(Object arguments, EventChannel.EventSink events) {
+        sink = events;
+    }
+
+    @Override
+    public void onCancel(Object arguments) {
+        sink = null;
+        // No one receives the results anymore.
+        cancelAll();
+    }
+
+    /**
+     * Returns the listener which pushes the results of the batch `batchId`.
+     */
+    SignTransactionBatch.Listener listener(long batchId) {
+        return new SignTransactionBatch.Listener() {
+            @Override
+            public void onSigned(int index, SignedTransactionResult result) {
+                Map<String, Object> event = MPCKeyServiceHandler.signedTransactionToMap(result);
+                event.put("batchId", batchId);
+                event.put("index", index);
+                push(event);
+            }
+
+            @Override
+            public void onFailed(int index, Throwable error) {
+                Map<String, Object> event = new HashMap<>();
+                event.put("batchId", batchId);
+                event.put("index", index);
+                event.put("errorCode", error instanceof WaasException ? ((WaasException) error).getErrorType() : "EXECUTION_ERROR");
+                event.put("errorMessage", error.getMessage());
+                push(event);
+            }
+        };
+    }
+
+    /**
+     * Tracks the batch `batchId` so that it can be cancelled, and tells Dart once it is done.
+     */
+    void track(long batchId, WaasFuture<Void> batch) {
+        batches.put(batchId, batch);
+        batch.addCallback(new WaasFuture.Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                done();
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                done();
+            }
+
+            private void done() {
+                Map<String, Object> event = new HashMap<>();
+                event.put("batchId", batchId);
+                event.put("done", true);
+                dispatcher.dispatch(() -> {
+                    if (batches.get(batchId) == batch) {
+                        batches.remove(batchId);
+                    }
+                    if (sink != null) {
+                        sink.success(event);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Cancels the batch with the given id. Returns whether it was running.
+     */
+    boolean cancel(long batchId) {
+        WaasFuture<Void> batch = batches.remove(batchId);
+        return batch != null && batch.cancel(true);
+    }
+
+    /**
+     * Cancels every batch.
+     */
+    void cancelAll() {
+        List<WaasFuture<Void>> running = new ArrayList<>(batches.values());
+        batches.clear();
+        for (WaasFuture<Void> batch : running) {
+            batch.cancel(true);
+        }
+    }
+
+    private void push(Map<String, Object> event) {
+        dispatcher.dispatch(() -> {
+            if (sink != null) {
+                sink.success(event);
+            }
+        });
+    }
+}
@@ -1,5 +1,7 @@
 package com.coinable.waas_sdk_flutter;
 
+import com.coinbase.waassdk.WaasDeadline;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -9,9 +11,21 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.flutter.plugin.common.MethodCall;
 
 public class Utils {
 
+    /**
+     * Returns the deadline of a call from its optional "timeoutMillis" argument, the budget Dart has
+     * left for the call; null if the call has no deadline.
+     */
+    public static WaasDeadline deadlineOf(MethodCall call) {
+        Number timeoutMillis = call.argument("timeoutMillis");
+        return timeoutMillis == null ? null : WaasDeadline.after(timeoutMillis.longValue(), TimeUnit.MILLISECONDS);
+    }
+
     public static Map<String, Object> convertJsonToMap(JSONObject jsonObject) throws JSONException {
         Map<String, Object> map = new HashMap<>();
 
@@ -0,0 +1,99 @@
+package com.coinable.waas_sdk_flutter;
+
+import com.coinbase.waassdk.Address;
+import com.waassdkinternal.v1.DeviceGroup;
+import com.waassdkinternal.v1.Pool;
+import com.waassdkinternal.v1.Signature;
+import com.waassdkinternal.v1.SignedTransaction;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import io.flutter.plugin.common.StandardMessageCodec;
+import io.flutter.plugin.common.StandardMethodCodec;
+
+/**
+ * The message codec of the plugin's method channels. Writes the SDK objects the services resolve
+ * with straight to the message, as a type tag followed by their fields in a fixed order, rather
+ * than copying them into maps first; everything else is written as by {@link StandardMessageCodec}.
+ * Blob handles are written, and read back, as a tag followed by their id.
+ *
+ * WaasMessageCodec in lib/waas_message_codec.dart reads them back into the maps Dart has always
+ * received, so the tags and field orders below must match it.
+ */
+class WaasMessageCodec extends StandardMessageCodec {
+    static final WaasMessageCodec INSTANCE = new WaasMessageCodec();
+
+    /**
+     * The method codec of the service channels.
+     */
+    static final StandardMethodCodec methodCodec = new StandardMethodCodec(INSTANCE);
+
+    // Above the tags of StandardMessageCodec.
+    private static final byte addressType = (byte) 128;
+    private static final byte signatureType = (byte) 129;
+    private static final byte signedTransactionType = (byte) 130;
+    private static final byte deviceGroupType = (byte) 131;
+    private static final byte poolType = (byte) 132;
+    private static final byte blobType = (byte) 133;
+
+    // The tag of a UTF-8 string in StandardMessageCodec.
+    private static final byte stringType = 7;
+
+    @Override
+    protected void writeValue(ByteArrayOutputStream stream, Object value) {
+        if (value instanceof Address) {
+            Address address = (Address) value;
+            stream.write(addressType);
+            writeValue(stream, address.name);
+            writeValue(stream, address.address);
+            writeValue(stream, address.mpcKeys);
+            writeValue(stream, address.wallet);
+        } else if (value instanceof Signature) {
+            Signature signature = (Signature) value;
+            stream.write(signatureType);
+            writeValue(stream, signature.getName());
+            writeValue(stream, signature.getPayload());
+            writeValue(stream, signature.getSignedPayload());
+        } else if (value instanceof SignedTransaction) {
+            SignedTransaction signedTransaction = (SignedTransaction) value;
+            stream.write(signedTransactionType);
+            writeValue(stream, signedTransaction.getRawTransaction());
+            writeValue(stream, signedTransaction.getTransactionHash());
+        } else if (value instanceof DeviceGroup) {
+            DeviceGroup deviceGroup = (DeviceGroup) value;
+            stream.write(deviceGroupType);
+            writeValue(stream, deviceGroup.getName());
+            writeValue(stream, deviceGroup.getMPCKeyExportMetadata());
+            writeUtf8(stream, deviceGroup.getDevices());
+        } else if (value instanceof Pool) {
+            Pool pool = (Pool) value;
+            stream.write(poolType);
+            writeValue(stream, pool.getName());
+            writeValue(stream, pool.getDisplayName());
+        } else if (value instanceof BlobRegistry.Handle) {
+            stream.write(blobType);
+            writeValue(stream, ((BlobRegistry.Handle) value).id);
+        } else {
+            super.writeValue(stream, value);
+        }
+    }
+
+    @Override
+    protected Object readValueOfType(byte type, ByteBuffer buffer) {
+        if (type == blobType) {
+            return new BlobRegistry.Handle(((Number) readValue(buffer)).longValue());
+        }
+        return super.readValueOfType(type, buffer);
+    }
+
+    // Writes UTF-8 bytes as a string, without decoding them into a String first.
+    private static void writeUtf8(ByteArrayOutputStream stream, byte[] utf8) {
+        if (utf8 == null) {
+            stream.write(0);
+            return;
+        }
+        stream.write(stringType);
+        writeBytes(stream, utf8);
+    }
+}
@@ -1,11 +1,10 @@
 package com.coinable.waas_sdk_flutter;
 
 import com.coinbase.waassdk.WaasException;
+import com.coinbase.waassdk.WaasFuture;
 import io.flutter.plugin.common.MethodChannel.Result;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.CancellationException;
 
 @FunctionalInterface
 interface CheckedFunction<T, R> {
@@ -18,44 +17,51 @@ interface CheckedFunction<T, R> {
 public class WaasPromise {
     /**
      * Ties the result of the future<>result together, and applies `mapper` to the result before resolving.
+     * The result is resolved from the future's completion callback, so no thread is parked waiting on it.
      *
      * @param <T> The return type of the future.
-     * @param future The java future, representing an operation from the native SDK.
+     * @param future The Waas future, representing an operation from the native SDK.
      * @param result The Flutter result to resolve.
      * @param mapper An optional function to apply to the result of `future`
-     * @param executor The executor to resolve the future on.
      */
-    static <T> void resolveMap(Future<T> future, Result result, CheckedFunction<T, Object> mapper, ExecutorService executor) {
-        executor.submit(() -> {
-            try {
-                T res = future.get();
+    static <T> void resolveMap(WaasFuture<T> future, Result result, CheckedFunction<T, Object> mapper) {
+        future.addCallback(new WaasFuture.Callback<T>() {
+            @Override
+            public void onSuccess(T res) {
                 Object output = res;
-                if (mapper != null) {
-                    output = mapper.apply(res);
+                try {
+                    if (mapper != null) {
+                        output = mapper.apply(res);
+                    }
+                } catch (Exception exc) {
+                    result.error("GENERAL_ERROR", exc.getMessage(), null);
+                    return;
                 }
                 result.success(output);
-            } catch (ExecutionException e) {
-                Throwable cause = e.getCause();
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
                 if (cause instanceof WaasException) {
                     result.error(((WaasException) cause).getErrorType(), cause.getMessage(), null);
+                } else if (cause instanceof CancellationException) {
+                    result.error("E_CANCELLED", "the call was cancelled", null);
+                } else if (cause instanceof InterruptedException) {
+                    result.error("GENERAL_ERROR", cause.getMessage(), null);
                 } else {
                     result.error("EXECUTION_ERROR", cause.getMessage(), null);
                 }
-            } catch (Exception exc) {
-                result.error("GENERAL_ERROR", exc.getMessage(), null);
             }
         });
     }
 
     /**
-     * Ties the result of the Future<T> to the associated Result.
+     * Ties the result of the WaasFuture<T> to the associated Result.
      *
-     * @param executor The executor that Waas will wait for the future to resolve on.
-     * @param future   A Future from the WaasSdk.
+     * @param future   A WaasFuture from the WaasSdk.
      * @param result   A Flutter result to fulfill.
      */
-    static <T> void resolve(Future<T> future, Result result, ExecutorService executor) {
-        resolveMap(future, result, null, executor);
+    static <T> void resolve(WaasFuture<T> future, Result result) {
+        resolveMap(future, result, null);
     }
 }
-
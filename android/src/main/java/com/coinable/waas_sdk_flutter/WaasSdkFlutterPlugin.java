@@ -4,7 +4,18 @@ import android.content.Context;
 
 import androidx.annotation.NonNull;
 
+import com.coinbase.waassdk.MetadataSnapshot;
+import com.coinbase.waassdk.WaasPriority;
+import com.coinbase.waassdk.WaasScheduler;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
+import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
@@ -18,43 +29,254 @@ public class WaasSdkFlutterPlugin implements FlutterPlugin, MethodCallHandler {
   /// when the Flutter Engine is detached from the Activity
   private Context applicationContext;
 
+  // The scheduler shared by every service handler of this plugin.
+  private WaasScheduler scheduler;
+  // Delivers the handlers' results on the platform thread.
+  private ResultDispatcher dispatcher;
+  // In-flight calls which Dart may cancel by token.
+  private CancellationRegistry cancellations;
+  // Pushes the pending operations of watched DeviceGroups.
+  private PendingOperationsStream pendingOperations;
+  // Pushes the results of signTransactions batches.
+  private SignedTransactionsStream signedTransactions;
+  // Payloads kept on the native side for Dart, by handle.
+  private BlobRegistry blobs;
+  // The metadata kept across restarts, so that Dart can render before the services answer.
+  private MetadataSnapshot snapshot;
+
+  private MPCSdkHandler mpcSdkHandler;
+  private MPCKeyServiceHandler mpcKeyServiceHandler;
+  private PoolServiceHandler poolServiceHandler;
+  private MPCWalletServiceHandler mpcWalletServiceHandler;
+
   private MethodChannel channel;
   private MethodChannel mpcSdkChannel;
   private MethodChannel mpcKeyServiceChannel;
   private MethodChannel poolServiceChannel;
   private MethodChannel mpcWalletServiceChannel;
+  private EventChannel pendingOperationsChannel;
+  private EventChannel signedTransactionsChannel;
+
+  // The file of the metadata snapshot, in the same directory as the Go SDK's home directory.
+  private static final String snapshotFileName = "waas_metadata.snapshot";
 
   @Override
   public void onAttachedToEngine(@NonNull FlutterPluginBinding flutterPluginBinding) {
     this.applicationContext = flutterPluginBinding.getApplicationContext();
+    this.scheduler = new WaasScheduler();
+    this.dispatcher = new ResultDispatcher();
+    this.cancellations = new CancellationRegistry();
+    this.blobs = new BlobRegistry(BlobRegistry.defaultMaxBytes);
+    this.snapshot = MetadataSnapshot.load(new File(applicationContext.getFilesDir(), snapshotFileName), scheduler);
 
-    channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter");
+    channel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter", WaasMessageCodec.methodCodec);
     channel.setMethodCallHandler(this);
 
-    mpcSdkChannel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/mpc_sdk");
-    mpcSdkChannel.setMethodCallHandler(new MPCSdkHandler(applicationContext));
+    mpcSdkChannel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/mpc_sdk", WaasMessageCodec.methodCodec);
+    mpcSdkHandler = new MPCSdkHandler(applicationContext, scheduler, blobs);
+    mpcSdkChannel.setMethodCallHandler(guarded("MPCSdk", mpcSdkHandler));
 
-    mpcKeyServiceChannel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/mpc_key_service");
-    mpcKeyServiceChannel.setMethodCallHandler(new MPCKeyServiceHandler());
+    pendingOperationsChannel = new EventChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/pending_operations");
+    pendingOperations = new PendingOperationsStream(dispatcher);
+    pendingOperationsChannel.setStreamHandler(pendingOperations);
 
-    poolServiceChannel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/pool_service");
-    poolServiceChannel.setMethodCallHandler(new PoolServiceHandler());
+    signedTransactionsChannel = new EventChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/signed_transactions");
+    signedTransactions = new SignedTransactionsStream(dispatcher);
+    signedTransactionsChannel.setStreamHandler(signedTransactions);
+
+    mpcKeyServiceChannel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/mpc_key_service", WaasMessageCodec.methodCodec);
+    mpcKeyServiceHandler = new MPCKeyServiceHandler(scheduler, cancellations, pendingOperations, signedTransactions, mpcSdkHandler, blobs, snapshot);
+    mpcSdkHandler.setKeyServiceHandler(mpcKeyServiceHandler);
+    mpcKeyServiceChannel.setMethodCallHandler(guarded(MPCKeyServiceHandler.NAME, mpcKeyServiceHandler));
+
+    poolServiceChannel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/pool_service", WaasMessageCodec.methodCodec);
+    poolServiceHandler = new PoolServiceHandler(scheduler);
+    poolServiceChannel.setMethodCallHandler(guarded("PoolService", poolServiceHandler));
+
+    mpcWalletServiceChannel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/mpc_wallet_service", WaasMessageCodec.methodCodec);
+    mpcWalletServiceHandler = new MPCWalletServiceHandler(scheduler, cancellations, snapshot);
+    mpcWalletServiceChannel.setMethodCallHandler(guarded("MPCWalletService", mpcWalletServiceHandler));
+  }
 
-    mpcWalletServiceChannel = new MethodChannel(flutterPluginBinding.getBinaryMessenger(), "waas_sdk_flutter/mpc_wallet_service");
-    mpcWalletServiceChannel.setMethodCallHandler(new MPCWalletServiceHandler());
+  /**
+   * Wraps the handler of `service` so that calls beyond its admission limits are rejected with
+   * E_OVERLOADED, and every result it produces is delivered on the platform thread.
+   */
+  private MethodCallHandler guarded(String service, MethodCallHandler handler) {
+    AdmissionControl admission = new AdmissionControl(service, dispatcher);
+    return (call, result) -> admission.submit(call, dispatcher.wrap(result), handler);
   }
 
   @Override
   public void onMethodCall(@NonNull MethodCall call, @NonNull Result result) {
     if (call.method.equals("getPlatformVersion")) {
       result.success("Android " + android.os.Build.VERSION.RELEASE);
+    } else if (call.method.equals("getSchedulerStats")) {
+      getSchedulerStats(result);
+    } else if (call.method.equals("getConcurrencyLimits")) {
+      getConcurrencyLimits(result);
+    } else if (call.method.equals("setClientIdleTimeout")) {
+      setClientIdleTimeout(call.argument("timeoutMillis"), result);
+    } else if (call.method.equals("cancel")) {
+      cancel(call.argument("cancellationToken"), result);
+    } else if (call.method.equals("createBlob")) {
+      createBlob(call.argument("value"), result);
+    } else if (call.method.equals("releaseBlob")) {
+      releaseBlob(call.argument("blob"), result);
+    } else if (call.method.equals("getMetadataSnapshot")) {
+      getMetadataSnapshot(result);
     } else {
       result.notImplemented();
     }
   }
 
+  /**
+   * Cancels the in-flight call made with the given cancellation token. The cancelled call rejects
+   * with E_CANCELLED, and any Go poll it was blocked in is stopped.
+   * Resolves with whether a call was cancelled.
+   */
+  private void cancel(Number cancellationToken, Result result) {
+    if (cancellations == null) {
+      result.success(false);
+      return;
+    }
+    result.success(cancellations.cancel(cancellationToken));
+  }
+
+  /**
+   * Keeps the given string, or map or list such as a transaction, on the native side. Resolves with
+   * its handle, which the calls taking such a payload accept in its place.
+   */
+  private void createBlob(Object value, Result result) {
+    if (blobs == null) {
+      result.error("UNINITIALIZED", "plugin is not attached to an engine", null);
+      return;
+    }
+    if (value == null) {
+      result.error("INVALID_ARGUMENT", "value must not be null", null);
+      return;
+    }
+    try {
+      result.success(blobs.put(value));
+    } catch (Exception e) {
+      result.error("INVALID_ARGUMENT", e.getMessage(), null);
+    }
+  }
+
+  /**
+   * Releases the payload of the given handle. Resolves with whether it was still held.
+   */
+  private void releaseBlob(BlobRegistry.Handle blob, Result result) {
+    result.success(blobs != null && blob != null && blobs.release(blob.id));
+  }
+
+  /**
+   * Resolves with the metadata kept from previous runs, and updated as calls resolve: the registered
+   * Device, MPCWallets, Addresses and DeviceGroups, e.g. {"Device": "...", "MPCWallets": [{"Name": ...,
+   * "DeviceGroup": ...}], "Addresses": [...], "DeviceGroups": [...]}. Read from memory, without a
+   * call to the services.
+   */
+  private void getMetadataSnapshot(Result result) {
+    if (snapshot == null) {
+      result.error("UNINITIALIZED", "plugin is not attached to an engine", null);
+      return;
+    }
+    result.success(snapshot.toMap());
+  }
+
+  /**
+   * Resolves with the queue-wait times of the scheduler, keyed by lane and then by priority,
+   * e.g. {"compute": {"high": {"count": 3, "averageWaitMillis": 1.5, "maxWaitMillis": 4.0}}}.
+   */
+  private void getSchedulerStats(Result result) {
+    if (scheduler == null) {
+      result.error("UNINITIALIZED", "plugin is not attached to an engine", null);
+      return;
+    }
+    Map<String, Object> lanes = new HashMap<>();
+    for (WaasScheduler.Lane lane : WaasScheduler.Lane.values()) {
+      Map<String, Object> priorities = new HashMap<>();
+      for (Map.Entry<WaasPriority, WaasScheduler.QueueWaitStats> entry : scheduler.queueWaitStats(lane).entrySet()) {
+        WaasScheduler.QueueWaitStats stats = entry.getValue();
+        Map<String, Object> statsMap = new HashMap<>();
+        statsMap.put("count", stats.getCount());
+        statsMap.put("averageWaitMillis", stats.getAverageWaitMillis());
+        statsMap.put("maxWaitMillis", stats.getMaxWaitMillis());
+        priorities.put(entry.getKey().name().toLowerCase(Locale.ROOT), statsMap);
+      }
+      lanes.put(lane.name().toLowerCase(Locale.ROOT), priorities);
+    }
+    result.success(lanes);
+  }
+
+  /**
+   * Sets how long a service's Go client may go unused before it is released; 0 keeps clients
+   * until the engine detaches. Released clients are recreated by the next call.
+   */
+  private void setClientIdleTimeout(Number timeoutMillis, Result result) {
+    if (scheduler == null) {
+      result.error("UNINITIALIZED", "plugin is not attached to an engine", null);
+      return;
+    }
+    if (timeoutMillis == null || timeoutMillis.longValue() < 0) {
+      result.error("INVALID_ARGUMENT", "timeoutMillis must not be negative", null);
+      return;
+    }
+    scheduler.setClientIdleTimeout(timeoutMillis.longValue(), TimeUnit.MILLISECONDS);
+    result.success(null);
+  }
+
+  /**
+   * Resolves with the number of calls each scheduler lane currently runs at once, keyed by lane,
+   * e.g. {"poll": 3, "wait": 6, "compute": 8, "rpc": 5}. The RPC limit adapts to the observed latency,
+   * and the POLL lane, which is not bounded, reports the polls it is running.
+   */
+  private void getConcurrencyLimits(Result result) {
+    if (scheduler == null) {
+      result.error("UNINITIALIZED", "plugin is not attached to an engine", null);
+      return;
+    }
+    Map<String, Object> limits = new HashMap<>();
+    for (WaasScheduler.Lane lane : WaasScheduler.Lane.values()) {
+      limits.put(lane.name().toLowerCase(Locale.ROOT), scheduler.concurrencyLimit(lane));
+    }
+    result.success(limits);
+  }
+
+  /**
+   * Releases everything the plugin created on attach, so that re-attaching to a new engine does not
+   * leak threads or Go clients: cancels the calls Dart can still observe, stops the Go polls, closes
+   * every service, writes the metadata snapshot and shuts the scheduler down.
+   */
   @Override
   public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
     channel.setMethodCallHandler(null);
+    mpcSdkChannel.setMethodCallHandler(null);
+    mpcKeyServiceChannel.setMethodCallHandler(null);
+    poolServiceChannel.setMethodCallHandler(null);
+    mpcWalletServiceChannel.setMethodCallHandler(null);
+    pendingOperationsChannel.setStreamHandler(null);
+    signedTransactionsChannel.setStreamHandler(null);
+
+    cancellations.cancelAll();
+    mpcKeyServiceHandler.close();
+    mpcWalletServiceHandler.close();
+    poolServiceHandler.close();
+    mpcSdkHandler.close();
+    snapshot.flush();
+    scheduler.shutdownNow();
+    blobs.clear();
+
+    mpcSdkHandler = null;
+    mpcKeyServiceHandler = null;
+    poolServiceHandler = null;
+    mpcWalletServiceHandler = null;
+    pendingOperations = null;
+    signedTransactions = null;
+    cancellations = null;
+    blobs = null;
+    snapshot = null;
+    dispatcher = null;
+    scheduler = null;
   }
 }
@@ -0,0 +1,132 @@
+package com.coinbase.waassdk;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses the poll interval of a {@link DeviceGroupPoller}.
+ *
+ * While nothing is pending, the interval backs off exponentially from the minimum to the maximum,
+ * so idle devices poll, and drain their batteries, less and less. After an operation has been
+ * initiated, e.g. by {@link MPCKeyService#createSignatureFromTx(String, org.json.JSONObject)}, the
+ * poller bursts: it polls at the burst interval for the burst duration, as the operation is
+ * expected to appear shortly. Finding operations resets the interval to the minimum.
+ *
+ * Every interval is randomized by up to +/-`jitter` of itself, so that a fleet of devices does not
+ * poll in lockstep.
+ */
+public final class AdaptivePollPolicy {
+  // How many Go poll cycles a poll may run without finding anything before the interval backs off.
+  static final int idleCycles = 4;
+
+  private final long minIntervalMillis;
+  private final long maxIntervalMillis;
+  private final double jitter;
+  private final long burstIntervalMillis;
+  private final long burstDurationMillis;
+
+  /**
+   * @param minIntervalMillis   The interval while operations are found.
+   * @param maxIntervalMillis   The interval the backoff stops at.
+   * @param jitter              The fraction, in [0, 1), by which every interval is randomized.
+   * @param burstIntervalMillis The interval right after an operation has been initiated.
+   * @param burstDurationMillis How long to poll at the burst interval.
+   */
+  public AdaptivePollPolicy(long minIntervalMillis, long maxIntervalMillis, double jitter,
+                            long burstIntervalMillis, long burstDurationMillis) {
+    if (minIntervalMillis <= 0 || maxIntervalMillis < minIntervalMillis || jitter < 0 || jitter >= 1
+      || burstIntervalMillis <= 0 || burstDurationMillis < 0) {
+      throw new IllegalArgumentException("invalid poll policy");
+    }
+    this.minIntervalMillis = minIntervalMillis;
+    this.maxIntervalMillis = maxIntervalMillis;
+    this.jitter = jitter;
+    this.burstIntervalMillis = burstIntervalMillis;
+    this.burstDurationMillis = burstDurationMillis;
+  }
+
+  /**
+   * Returns the default policy for a caller-supplied `pollInterval`: backs off from it up to 30
+   * seconds with +/-20% jitter, and bursts at up to 250 milliseconds for 30 seconds.
+   */
+  public static AdaptivePollPolicy from(long pollIntervalMillis) {
+    long min = Math.max(1, pollIntervalMillis);
+    return new AdaptivePollPolicy(min, Math.max(min, 30_000), 0.2, Math.min(min, 250), 30_000);
+  }
+
+  /**
+   * Returns a policy which always polls at `pollIntervalMillis`, without backoff, jitter or burst.
+   */
+  public static AdaptivePollPolicy fixed(long pollIntervalMillis) {
+    long interval = Math.max(1, pollIntervalMillis);
+    return new AdaptivePollPolicy(interval, interval, 0, interval, 0);
+  }
+
+  Backoff newBackoff() {
+    return new Backoff();
+  }
+
+  /**
+   * The interval state of one polled kind. Not thread-safe; guarded by the poller.
+   */
+  final class Backoff {
+    private long intervalMillis = minIntervalMillis;
+    private long burstUntilNanos;
+    private boolean bursting;
+
+    /**
+     * Returns the interval to poll at now, before jitter.
+     */
+    long baseIntervalMillis() {
+      if (bursting && System.nanoTime() - burstUntilNanos < 0) {
+        return Math.min(burstIntervalMillis, intervalMillis);
+      }
+      bursting = false;
+      return intervalMillis;
+    }
+
+    /**
+     * Returns the interval to poll at now, with jitter.
+     */
+    long nextIntervalMillis() {
+      long base = baseIntervalMillis();
+      if (jitter == 0) {
+        return base;
+      }
+      double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+      return Math.max(1, Math.round(base * factor));
+    }
+
+    /**
+     * Records that a poll found operations.
+     */
+    void onOperations() {
+      intervalMillis = minIntervalMillis;
+    }
+
+    /**
+     * Records that a poll found nothing for a while. Returns whether the interval grew.
+     */
+    boolean onIdle() {
+      // Ends an expired burst.
+      baseIntervalMillis();
+      if (bursting || intervalMillis >= maxIntervalMillis) {
+        return false;
+      }
+      intervalMillis = Math.min(maxIntervalMillis, intervalMillis * 2);
+      return true;
+    }
+
+    /**
+     * Starts a burst. Returns whether it shortens the current interval.
+     */
+    boolean burst() {
+      if (burstDurationMillis == 0) {
+        return false;
+      }
+      long before = baseIntervalMillis();
+      bursting = true;
+      burstUntilNanos = System.nanoTime() + burstDurationMillis * 1_000_000L;
+      return baseIntervalMillis() < before;
+    }
+  }
+}
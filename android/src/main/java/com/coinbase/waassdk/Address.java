@@ -6,6 +6,7 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents a derived address on a blockchain.
@@ -62,6 +63,37 @@ public class Address {
     );
   }
 
+  /**
+   * Builds an Address from its JSON as decoded by {@link JsonDecoder}.
+   */
+  public static Address fromMap(Map<String, Object> map) throws JSONException {
+    return new Address(
+      getString(map, "Name"),
+      getString(map, "Address"),
+      toStringList(map.get("MPCKeys")),
+      getString(map, "MPCWallet")
+    );
+  }
+
+  private static String getString(Map<String, Object> map, String key) throws JSONException {
+    Object value = map.get(key);
+    if (!(value instanceof String)) {
+      throw new JSONException("Address[" + key + "] is not a string.");
+    }
+    return (String) value;
+  }
+
+  private static List<String> toStringList(Object value) throws JSONException {
+    if (!(value instanceof List)) {
+      throw new JSONException("Address[MPCKeys] is not an array.");
+    }
+    List<String> stringList = new ArrayList<>();
+    for (Object key : (List<?>) value) {
+      stringList.add(String.valueOf(key));
+    }
+    return stringList;
+  }
+
   public JSONObject toJSON() throws JSONException {
     JSONObject obj = new JSONObject();
     obj.put("Name", name);
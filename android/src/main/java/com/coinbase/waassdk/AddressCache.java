@@ -0,0 +1,217 @@
+package com.coinbase.waassdk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of the Addresses of an {@link MPCWalletService}, keyed by resource name.
+ *
+ * Addresses do not change once generated, so a cached Address is served until it expires after
+ * `ttl`, or until it is the least recently used beyond `maxEntries`. Concurrent lookups of an
+ * Address which is not cached share one request: the first lookup sends it, under its own deadline,
+ * and the others wait for its outcome. Each lookup gets its own future; cancelling it only cancels
+ * the request once no other lookup waits for it.
+ */
+final class AddressCache {
+  static final int defaultMaxEntries = 256;
+  static final long defaultTtlMillis = TimeUnit.MINUTES.toMillis(10);
+
+  /**
+   * Sends the request for an Address which is not cached.
+   */
+  interface Loader {
+    WaasFuture<Address> load();
+  }
+
+  private static final class Entry {
+    final Address address;
+    // When the entry expires, in System.nanoTime() units.
+    final long expiresAtNanos;
+
+    Entry(Address address, long expiresAtNanos) {
+      this.address = address;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+  }
+
+  private final int maxEntries;
+  private final long ttlNanos;
+
+  // Guarded by this.
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Lookup> inFlight = new HashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  AddressCache(int maxEntries, long ttl, TimeUnit unit) {
+    this.maxEntries = maxEntries;
+    this.ttlNanos = unit.toNanos(ttl);
+  }
+
+  /**
+   * Returns the Address named `name`, from the cache, from the request in flight for it, or else
+   * from a request sent with `loader`.
+   */
+  WaasFuture<Address> get(String name, Loader loader) {
+    Lookup lookup;
+    Join join = new Join();
+    boolean send = false;
+    synchronized (this) {
+      Entry entry = entries.get(name);
+      if (entry != null && System.nanoTime() - entry.expiresAtNanos < 0) {
+        hits.incrementAndGet();
+        join.resolve(entry.address);
+        return join;
+      }
+      if (entry != null) {
+        entries.remove(name);
+      }
+      lookup = inFlight.get(name);
+      if (lookup == null) {
+        lookup = new Lookup(name);
+        inFlight.put(name, lookup);
+        send = true;
+        misses.incrementAndGet();
+      } else {
+        hits.incrementAndGet();
+      }
+      lookup.waiters.add(join);
+    }
+    Lookup joined = lookup;
+    join.onCancel(() -> leave(joined, join));
+    if (send) {
+      try {
+        lookup.request = loader.load();
+      } catch (RuntimeException e) {
+        lookup.onFailure(e);
+        return join;
+      }
+      lookup.request.addCallback(lookup);
+    }
+    return join;
+  }
+
+  /**
+   * Caches `address`, e.g. one just generated.
+   */
+  synchronized void put(Address address) {
+    entries.put(address.name, new Entry(address, System.nanoTime() + ttlNanos));
+    while (entries.size() > maxEntries) {
+      String eldest = entries.keySet().iterator().next();
+      entries.remove(eldest);
+    }
+  }
+
+  /**
+   * Drops every cached Address. Requests in flight still complete their lookups.
+   */
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of cached Addresses, including expired ones not yet dropped.
+   */
+  synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the number of lookups served without a request of their own: from the cache, or by
+   * waiting for a request in flight.
+   */
+  long hits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of lookups which sent a request.
+   */
+  long misses() {
+    return misses.get();
+  }
+
+  // Stops `join` waiting for `lookup`, cancelling the request if nothing else waits for it.
+  private void leave(Lookup lookup, Join join) {
+    WaasFuture<Address> abandoned = null;
+    synchronized (this) {
+      if (!lookup.waiters.remove(join) || !lookup.waiters.isEmpty()) {
+        return;
+      }
+      if (inFlight.get(lookup.name) == lookup) {
+        inFlight.remove(lookup.name);
+        abandoned = lookup.request;
+      }
+    }
+    if (abandoned != null) {
+      abandoned.cancel(true);
+    }
+  }
+
+  /**
+   * A request in flight and the lookups waiting for it.
+   */
+  private final class Lookup implements WaasFuture.Callback<Address> {
+    final String name;
+    // Guarded by the cache.
+    final List<Join> waiters = new ArrayList<>();
+    volatile WaasFuture<Address> request;
+
+    Lookup(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public void onSuccess(Address address) {
+      for (Join join : finish(address)) {
+        join.resolve(address);
+      }
+    }
+
+    @Override
+    public void onFailure(Throwable error) {
+      for (Join join : finish(null)) {
+        join.reject(error);
+      }
+    }
+
+    private List<Join> finish(Address address) {
+      synchronized (AddressCache.this) {
+        if (inFlight.get(name) == this) {
+          inFlight.remove(name);
+        }
+        if (address != null) {
+          put(address);
+        }
+        List<Join> waiting = new ArrayList<>(waiters);
+        waiters.clear();
+        return waiting;
+      }
+    }
+  }
+
+  /**
+   * The future of one lookup, completed by the cache.
+   */
+  private static final class Join extends WaasFuture<Address> {
+    Join() {
+      super(() -> {
+        throw new IllegalStateException("completed by the cache");
+      });
+    }
+
+    void resolve(Address address) {
+      set(address);
+    }
+
+    void reject(Throwable error) {
+      setException(error);
+    }
+  }
+}
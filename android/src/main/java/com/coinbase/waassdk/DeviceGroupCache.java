@@ -0,0 +1,102 @@
+package com.coinbase.waassdk;
+
+import com.waassdkinternal.v1.DeviceGroup;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded cache of the DeviceGroups of an {@link MPCKeyService}, keyed by name.
+ *
+ * The operations of this client which change a DeviceGroup's membership or backups, e.g. addDevice
+ * or a completed AddDevice computation, invalidate its entry. As other Devices may change the
+ * DeviceGroup too, entries also expire after `ttl`.
+ *
+ * Every invalidation starts a new generation; a lookup only caches what it fetched if no
+ * invalidation happened since it started, so that a lookup racing an operation cannot cache the
+ * DeviceGroup as it was before.
+ */
+final class DeviceGroupCache {
+  static final int defaultMaxEntries = 64;
+  static final long defaultTtlMillis = TimeUnit.MINUTES.toMillis(1);
+
+  private static final class Entry {
+    final DeviceGroup deviceGroup;
+    // When the entry expires, in System.nanoTime() units.
+    final long expiresAtNanos;
+
+    Entry(DeviceGroup deviceGroup, long expiresAtNanos) {
+      this.deviceGroup = deviceGroup;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+  }
+
+  private final int maxEntries;
+  private final long ttlNanos;
+
+  // Guarded by this.
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long generation;
+
+  DeviceGroupCache(int maxEntries, long ttl, TimeUnit unit) {
+    this.maxEntries = maxEntries;
+    this.ttlNanos = unit.toNanos(ttl);
+  }
+
+  /**
+   * Returns the cached DeviceGroup `name`, or null if it is not cached or has expired.
+   */
+  synchronized DeviceGroup get(String name) {
+    Entry entry = entries.get(name);
+    if (entry == null) {
+      return null;
+    }
+    if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+      entries.remove(name);
+      return null;
+    }
+    return entry.deviceGroup;
+  }
+
+  /**
+   * Returns the current generation, to be passed to {@link #put} with what a lookup fetches.
+   */
+  synchronized long generation() {
+    return generation;
+  }
+
+  /**
+   * Caches `deviceGroup` as fetched by a lookup started in `generation`, unless it has been
+   * invalidated since.
+   */
+  synchronized void put(String name, DeviceGroup deviceGroup, long generation) {
+    if (generation != this.generation) {
+      return;
+    }
+    entries.put(name, new Entry(deviceGroup, System.nanoTime() + ttlNanos));
+    while (entries.size() > maxEntries) {
+      entries.remove(entries.keySet().iterator().next());
+    }
+  }
+
+  /**
+   * Drops the DeviceGroup `resource` belongs to, e.g. the DeviceGroup itself or one of its MPCKeys;
+   * a null resource drops every DeviceGroup.
+   */
+  synchronized void invalidate(String resource) {
+    generation++;
+    if (resource == null) {
+      entries.clear();
+      return;
+    }
+    Iterator<String> names = entries.keySet().iterator();
+    while (names.hasNext()) {
+      String name = names.next();
+      if (resource.equals(name) || resource.startsWith(name + "/")) {
+        names.remove();
+      }
+    }
+  }
+}
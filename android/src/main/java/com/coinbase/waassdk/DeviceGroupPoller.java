@@ -0,0 +1,512 @@
+package com.coinbase.waassdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the pending operations of one DeviceGroup, for any combination of operation kinds,
+ * on behalf of any number of listeners.
+ *
+ * Listeners interested in the same kind share a single Go poll: however many callers watch the
+ * DeviceGroup, at most one poll per kind is in flight and pins a thread. Results are dispatched
+ * by kind to the listeners of that kind. Unless it subscribed with `includeAll`, a listener only
+ * receives the operations which are new or have changed since it last received them, as
+ * remembered by a bounded {@link SeenOperations} of its own, so the same pending operation is not
+ * handed to it twice. While a kind has listeners, its poll is re-armed after
+ * each result; once its last listener leaves, the poll is stopped.
+ *
+ * Each kind is polled at the interval its {@link AdaptivePollPolicy} chooses. As a Go poll only
+ * returns once it finds operations, a poll that has found nothing for a few cycles, or that a
+ * burst should speed up, is stopped and restarted at the new interval. The restart waits for the
+ * stopped poll to return, since stopping a Go poll stops every poll of its kind.
+ *
+ * The Go client offers only blocking, per-kind polls, so kinds cannot share one request.
+ *
+ * Obtain pollers from {@link MPCKeyService#pollerFor(String, AdaptivePollPolicy)}.
+ */
+public class DeviceGroupPoller {
+
+  /**
+   * The kinds of pending operations a DeviceGroup can have.
+   */
+  public enum Kind {
+    /** CreateDeviceGroupOperations, see {@link MPCKeyService#pollForPendingDeviceGroup(String, int)}. */
+    DEVICE_GROUP("deviceGroup"),
+    /** CreateSignatureOperations, see {@link MPCKeyService#pollForPendingSignatures(String, int)}. */
+    SIGNATURES("signatures"),
+    /** DeviceArchiveOperations, see {@link MPCKeyService#pollForPendingDeviceArchives(String, int)}. */
+    DEVICE_ARCHIVES("deviceArchives"),
+    /** DeviceBackupOperations, see {@link MPCKeyService#pollForPendingDeviceBackups(String, int)}. */
+    DEVICE_BACKUPS("deviceBackups"),
+    /** AddDeviceOperations, see {@link MPCKeyService#pollForPendingDevices(String, int)}. */
+    DEVICES("devices");
+
+    private final String key;
+
+    Kind(String key) {
+      this.key = key;
+    }
+
+    /**
+     * Returns the name of the kind as used by the Flutter API, e.g. "deviceArchives".
+     */
+    public String getKey() {
+      return key;
+    }
+
+    /**
+     * Returns the kind with the given key.
+     */
+    public static Kind fromKey(String key) throws WaasException {
+      for (Kind kind : values()) {
+        if (kind.key.equals(key)) {
+          return kind;
+        }
+      }
+      throw new WaasException("invalid pending operation kind : ", key);
+    }
+  }
+
+  /**
+   * Receives the pending operations of the kinds it subscribed to. Called on the thread which
+   * completed the poll; implementations must not block.
+   */
+  public interface Listener {
+    void onPendingOperations(Kind kind, List<Object> operations);
+
+    void onError(Kind kind, Throwable error);
+  }
+
+  private final MPCKeyService service;
+  private final String deviceGroup;
+  private final AdaptivePollPolicy policy;
+
+  private final Map<Kind, List<Listener>> listeners = new EnumMap<>(Kind.class);
+  // The operations delivered to each listener which only receives new ones.
+  private final Map<Listener, SeenOperations> seen = new IdentityHashMap<>();
+  // The operations handed out by next(), shared by its calls, so that successive calls do not
+  // return the same operation twice.
+  private final SeenOperations nextSeen = new SeenOperations(SeenOperations.defaultCapacity);
+  // The poll state per kind, kept while the poller lives so that backoff survives restarts.
+  private final Map<Kind, Slot> slots = new EnumMap<>(Kind.class);
+  private boolean closed;
+
+  private static final class Slot {
+    final AdaptivePollPolicy.Backoff backoff;
+    // The poll in flight; null if none.
+    WaasFuture<List<Object>> poll;
+    // The interval, before jitter, the poll in flight was started with.
+    long armedIntervalMillis;
+    // Whether the poll in flight is being stopped, to restart it or because no one listens.
+    boolean stopping;
+    // The last operations found, to tell whether anything changed.
+    List<Object> lastOperations;
+
+    Slot(AdaptivePollPolicy.Backoff backoff) {
+      this.backoff = backoff;
+    }
+  }
+
+  DeviceGroupPoller(MPCKeyService service, String deviceGroup, AdaptivePollPolicy policy) {
+    this.service = service;
+    this.deviceGroup = deviceGroup;
+    this.policy = policy;
+  }
+
+  /**
+   * Returns the DeviceGroup this poller watches.
+   */
+  public String getDeviceGroup() {
+    return deviceGroup;
+  }
+
+  /**
+   * Starts delivering the pending operations of the given kinds to `listener`, only those which
+   * are new or have changed since it last received them.
+   */
+  public void subscribe(Set<Kind> kinds, Listener listener) {
+    subscribe(kinds, listener, false);
+  }
+
+  /**
+   * Same as {@link #subscribe(Set, Listener)}, but if `includeAll` is set, `listener` receives
+   * every pending operation found, e.g. to resynchronize its state.
+   */
+  public void subscribe(Set<Kind> kinds, Listener listener, boolean includeAll) {
+    subscribe(kinds, listener, includeAll ? null : new SeenOperations(SeenOperations.defaultCapacity));
+  }
+
+  private void subscribe(Set<Kind> kinds, Listener listener, SeenOperations listenerSeen) {
+    synchronized (this) {
+      if (listenerSeen == null) {
+        seen.remove(listener);
+      } else if (!seen.containsKey(listener)) {
+        seen.put(listener, listenerSeen);
+      }
+      for (Kind kind : kinds) {
+        List<Listener> kindListeners = listeners.get(kind);
+        if (kindListeners == null) {
+          kindListeners = new ArrayList<>();
+          listeners.put(kind, kindListeners);
+        }
+        kindListeners.add(listener);
+      }
+    }
+    for (Kind kind : kinds) {
+      arm(kind);
+    }
+  }
+
+  /**
+   * Stops delivering to `listener`, and stops the polls of kinds no one listens to anymore.
+   */
+  public void unsubscribe(Listener listener) {
+    List<Kind> abandoned = new ArrayList<>();
+    synchronized (this) {
+      for (Kind kind : Kind.values()) {
+        List<Listener> kindListeners = listeners.get(kind);
+        if (kindListeners != null && kindListeners.remove(listener) && kindListeners.isEmpty()) {
+          listeners.remove(kind);
+          if (markStopping(kind)) {
+            abandoned.add(kind);
+          }
+        }
+      }
+      if (!isSubscribed(listener)) {
+        seen.remove(listener);
+      }
+    }
+    for (Kind kind : abandoned) {
+      stop(kind);
+    }
+  }
+
+  /**
+   * Returns a future which resolves with the first pending operations of any of the given kinds,
+   * keyed by kind. Cancelling it unsubscribes without affecting other listeners.
+   *
+   * Unless `includeAll` is set, the future only resolves with operations which no earlier call
+   * has returned, or which have changed since, so that repeated calls do not hand out the same
+   * operation twice. With `includeAll`, it resolves with every pending operation found.
+   */
+  public WaasFuture<Map<Kind, List<Object>>> next(Set<Kind> kinds, boolean includeAll) {
+    return next(kinds, includeAll, null);
+  }
+
+  /**
+   * Same as {@link #next(Set, boolean)}, but fails with {@link WaasDeadlineExceededException},
+   * unsubscribing, if no operation has been found by `deadline`. The polls themselves are shared
+   * with the other listeners and keep running. A null deadline places no limit on the wait.
+   */
+  public WaasFuture<Map<Kind, List<Object>>> next(Set<Kind> kinds, boolean includeAll, WaasDeadline deadline) {
+    Next next = new Next();
+    next.onCancel(() -> unsubscribe(next));
+    subscribe(kinds, next, includeAll ? null : nextSeen);
+    service.scheduler.armDeadline(next, deadline);
+    return next;
+  }
+
+  /**
+   * Polls `kind` at the policy's burst interval for a while, as an operation of that kind is
+   * expected shortly.
+   */
+  public void burst(Kind kind) {
+    boolean restart;
+    synchronized (this) {
+      Slot slot = slot(kind);
+      restart = slot.backoff.burst()
+        && slot.armedIntervalMillis > slot.backoff.baseIntervalMillis()
+        && markStopping(kind);
+    }
+    if (restart) {
+      stop(kind);
+    }
+  }
+
+  /**
+   * Returns whether `resource`, e.g. an MPCKey, belongs to the DeviceGroup this poller watches.
+   */
+  boolean watches(String resource) {
+    return resource != null && (resource.equals(deviceGroup) || resource.startsWith(deviceGroup + "/"));
+  }
+
+  /**
+   * Stops all polls and drops all listeners, cancelling the futures returned by
+   * {@link #next(Set, boolean)}. Other DeviceGroups' polls are not affected.
+   */
+  public void close() {
+    List<WaasFuture<List<Object>>> abandoned = new ArrayList<>();
+    Set<Next> waiting = new HashSet<>();
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      for (List<Listener> kindListeners : listeners.values()) {
+        for (Listener listener : kindListeners) {
+          if (listener instanceof Next) {
+            waiting.add((Next) listener);
+          }
+        }
+      }
+      listeners.clear();
+      seen.clear();
+      for (Slot slot : slots.values()) {
+        if (slot.poll != null) {
+          abandoned.add(slot.poll);
+          slot.poll = null;
+        }
+      }
+    }
+    for (WaasFuture<List<Object>> future : abandoned) {
+      future.cancel(true);
+    }
+    for (Next next : waiting) {
+      next.cancel(false);
+    }
+    service.onPollerClosed(this);
+  }
+
+  private boolean isSubscribed(Listener listener) {
+    for (List<Listener> kindListeners : listeners.values()) {
+      for (Listener subscribed : kindListeners) {
+        if (subscribed == listener) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private Slot slot(Kind kind) {
+    Slot slot = slots.get(kind);
+    if (slot == null) {
+      slot = new Slot(policy.newBackoff());
+      slots.put(kind, slot);
+    }
+    return slot;
+  }
+
+  // Marks the poll of `kind` as being stopped; returns whether the caller should stop it.
+  private boolean markStopping(Kind kind) {
+    Slot slot = slots.get(kind);
+    if (slot == null || slot.poll == null || slot.stopping) {
+      return false;
+    }
+    slot.stopping = true;
+    return true;
+  }
+
+  private void arm(Kind kind) {
+    WaasFuture<List<Object>> future;
+    long intervalMillis;
+    synchronized (this) {
+      if (closed || !listeners.containsKey(kind)) {
+        return;
+      }
+      Slot slot = slot(kind);
+      if (slot.poll != null) {
+        return;
+      }
+      slot.armedIntervalMillis = slot.backoff.baseIntervalMillis();
+      intervalMillis = slot.backoff.nextIntervalMillis();
+      try {
+        future = poll(kind, (int) Math.min(Integer.MAX_VALUE, intervalMillis));
+      } catch (RejectedExecutionException e) {
+        // The scheduler has shut down.
+        closed = true;
+        return;
+      }
+      slot.poll = future;
+    }
+    future.addCallback(new WaasFuture.Callback<List<Object>>() {
+      @Override
+      public void onSuccess(List<Object> operations) {
+        deliver(kind, future, operations, null);
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+        deliver(kind, future, null, error);
+      }
+    });
+    scheduleIdleCheck(kind, future, intervalMillis);
+  }
+
+  private void scheduleIdleCheck(Kind kind, WaasFuture<List<Object>> future, long intervalMillis) {
+    service.scheduler.schedule(() -> checkIdle(kind, future), intervalMillis * AdaptivePollPolicy.idleCycles, TimeUnit.MILLISECONDS);
+  }
+
+  // Backs off a poll which has found nothing for a while, restarting it if its interval changed.
+  private void checkIdle(Kind kind, WaasFuture<List<Object>> future) {
+    boolean restart;
+    long intervalMillis;
+    synchronized (this) {
+      Slot slot = slots.get(kind);
+      if (closed || slot == null || slot.poll != future || slot.stopping) {
+        return;
+      }
+      slot.backoff.onIdle();
+      intervalMillis = slot.backoff.baseIntervalMillis();
+      restart = intervalMillis != slot.armedIntervalMillis && markStopping(kind);
+    }
+    if (restart) {
+      stop(kind);
+    } else {
+      scheduleIdleCheck(kind, future, intervalMillis);
+    }
+  }
+
+  private WaasFuture<List<Object>> poll(Kind kind, int pollInterval) {
+    switch (kind) {
+      case DEVICE_GROUP:
+        return service.pollForPendingDeviceGroup(deviceGroup, pollInterval);
+      case SIGNATURES:
+        return service.pollForPendingSignatures(deviceGroup, pollInterval);
+      case DEVICE_ARCHIVES:
+        return service.pollForPendingDeviceArchives(deviceGroup, pollInterval);
+      case DEVICE_BACKUPS:
+        return service.pollForPendingDeviceBackups(deviceGroup, pollInterval);
+      default:
+        return service.pollForPendingDevices(deviceGroup, pollInterval);
+    }
+  }
+
+  // Stops the Go poll of `kind`, which then returns and is handled by deliver().
+  private void stop(Kind kind) {
+    try {
+      switch (kind) {
+        case DEVICE_GROUP:
+          service.stopPollingPendingDeviceGroup();
+          break;
+        case SIGNATURES:
+          service.stopPollingForPendingSignatures();
+          break;
+        case DEVICE_ARCHIVES:
+          service.stopPollingForPendingDeviceArchives();
+          break;
+        case DEVICE_BACKUPS:
+          service.stopPollingForPendingDeviceBackups();
+          break;
+        default:
+          service.stopPollingForPendingDevices();
+          break;
+      }
+    } catch (RejectedExecutionException e) {
+      // The scheduler has shut down; MPCKeyService.close() stops any running poll.
+    }
+  }
+
+  private void deliver(Kind kind, WaasFuture<List<Object>> future, List<Object> operations, Throwable error) {
+    List<Listener> targets = new ArrayList<>();
+    List<List<Object>> batches = new ArrayList<>();
+    long delayMillis;
+    synchronized (this) {
+      Slot slot = slots.get(kind);
+      if (slot == null || slot.poll != future) {
+        // Closed after the poll completed.
+        return;
+      }
+      slot.poll = null;
+      if (error instanceof CancellationException) {
+        // Cancelled from outside, e.g. by the scheduler shutting down.
+        return;
+      }
+      boolean stopped = slot.stopping;
+      slot.stopping = false;
+      List<Listener> kindListeners = listeners.get(kind);
+      if (kindListeners == null) {
+        kindListeners = Collections.emptyList();
+      }
+      if (error == null && operations != null && !operations.isEmpty()) {
+        if (operations.equals(slot.lastOperations)) {
+          // The same operations are still pending; nothing new to poll faster for.
+          slot.backoff.onIdle();
+        } else {
+          slot.backoff.onOperations();
+          slot.lastOperations = operations;
+        }
+        for (Listener listener : kindListeners) {
+          if (listener instanceof Next && ((Next) listener).claimed) {
+            continue;
+          }
+          SeenOperations listenerSeen = seen.get(listener);
+          List<Object> batch = listenerSeen == null ? operations : listenerSeen.filterNew(operations);
+          if (!batch.isEmpty()) {
+            claim(listener);
+            targets.add(listener);
+            batches.add(batch);
+          }
+        }
+      } else if (error != null && !stopped) {
+        // Back off from a failing service as from an idle one.
+        slot.backoff.onIdle();
+        for (Listener listener : kindListeners) {
+          if (!(listener instanceof Next && ((Next) listener).claimed)) {
+            claim(listener);
+            targets.add(listener);
+          }
+        }
+      }
+      // A stopped poll returns empty-handed or with an error, neither of which is news.
+      delayMillis = stopped ? 0 : slot.backoff.nextIntervalMillis();
+    }
+    for (int i = 0; i < targets.size(); i++) {
+      if (error == null) {
+        targets.get(i).onPendingOperations(kind, batches.get(i));
+      } else {
+        targets.get(i).onError(kind, error);
+      }
+    }
+    if (delayMillis == 0) {
+      arm(kind);
+    } else if (!service.scheduler.schedule(() -> arm(kind), delayMillis, TimeUnit.MILLISECONDS)) {
+      close();
+    }
+  }
+
+  // Marks a one-shot listener as completed by the delivery being prepared, so that a concurrent
+  // delivery of another kind neither completes it again nor marks operations as handed out to it.
+  private static void claim(Listener listener) {
+    if (listener instanceof Next) {
+      ((Next) listener).claimed = true;
+    }
+  }
+
+  /**
+   * The one-shot listener behind {@link #next(Set, boolean)}.
+   */
+  private class Next extends WaasFuture<Map<Kind, List<Object>>> implements Listener {
+    // Whether a delivery has been prepared for this listener; guarded by the poller.
+    boolean claimed;
+
+    Next() {
+      super(() -> {
+        throw new IllegalStateException("completed by the poller");
+      });
+    }
+
+    @Override
+    public void onPendingOperations(Kind kind, List<Object> operations) {
+      unsubscribe(this);
+      Map<Kind, List<Object>> result = new EnumMap<>(Kind.class);
+      result.put(kind, operations);
+      set(result);
+    }
+
+    @Override
+    public void onError(Kind kind, Throwable error) {
+      unsubscribe(this);
+      setException(error);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.coinbase.waassdk;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes the exports of {@link MPCSdk}, e.g. device backups and private keys, to files, and reads
+ * device backups back, through NIO file channels in fixed-size chunks.
+ *
+ * The Go SDK hands out a device backup as a hex-encoded String, twice the size of the backup; it is
+ * written as raw bytes, decoded one chunk at a time, so that no second full-size copy is made.
+ * Files are written next to their destination first and renamed into place, so that a failed
+ * export never leaves a truncated backup behind.
+ */
+final class ExportFiles {
+  // The size of the chunks written and read.
+  static final int chunkSize = 64 << 10;
+
+  private static final char[] hexDigits = "0123456789abcdef".toCharArray();
+
+  private ExportFiles() {
+  }
+
+  /**
+   * Decodes the hex string `hex` and writes the bytes to `file`. Returns the number of bytes written.
+   *
+   * @throws IOException If `hex` is not an even number of hex digits, or the file cannot be written.
+   */
+  static long writeHex(String hex, File file) throws IOException {
+    if (hex.length() % 2 != 0) {
+      throw new IOException("odd hex length " + hex.length());
+    }
+    File partial = partialOf(file);
+    try (FileOutputStream out = new FileOutputStream(partial); FileChannel channel = out.getChannel()) {
+      ByteBuffer chunk = ByteBuffer.allocate(chunkSize);
+      for (int i = 0; i < hex.length(); i += 2) {
+        chunk.put((byte) (digit(hex, i) << 4 | digit(hex, i + 1)));
+        if (!chunk.hasRemaining()) {
+          drain(chunk, channel);
+        }
+      }
+      drain(chunk, channel);
+      out.getFD().sync();
+    } catch (IOException e) {
+      partial.delete();
+      throw e;
+    }
+    commit(partial, file);
+    return hex.length() / 2;
+  }
+
+  /**
+   * Writes `data` to `file`. Returns the number of bytes written.
+   */
+  static long write(byte[] data, File file) throws IOException {
+    File partial = partialOf(file);
+    try (FileOutputStream out = new FileOutputStream(partial); FileChannel channel = out.getChannel()) {
+      for (int offset = 0; offset < data.length; offset += chunkSize) {
+        ByteBuffer chunk = ByteBuffer.wrap(data, offset, Math.min(chunkSize, data.length - offset));
+        while (chunk.hasRemaining()) {
+          channel.write(chunk);
+        }
+      }
+      out.getFD().sync();
+    } catch (IOException e) {
+      partial.delete();
+      throw e;
+    }
+    commit(partial, file);
+    return data.length;
+  }
+
+  /**
+   * Reads `file` back into the hex string the Go SDK takes as a device backup.
+   */
+  static String readHex(File file) throws IOException {
+    try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE / 2) {
+        throw new IOException("backup of " + size + " bytes is too large");
+      }
+      char[] hex = new char[(int) size * 2];
+      int length = 0;
+      ByteBuffer chunk = ByteBuffer.allocate(chunkSize);
+      while (channel.read(chunk) > 0) {
+        chunk.flip();
+        while (chunk.hasRemaining() && length < hex.length) {
+          int b = chunk.get() & 0xff;
+          hex[length++] = hexDigits[b >> 4];
+          hex[length++] = hexDigits[b & 0xf];
+        }
+        if (chunk.hasRemaining()) {
+          throw new IOException(file + " grew while being read");
+        }
+        chunk.clear();
+      }
+      return new String(hex, 0, length);
+    }
+  }
+
+  private static int digit(String hex, int index) throws IOException {
+    int digit = Character.digit(hex.charAt(index), 16);
+    if (digit < 0) {
+      throw new IOException("invalid hex digit at " + index);
+    }
+    return digit;
+  }
+
+  private static void drain(ByteBuffer chunk, FileChannel channel) throws IOException {
+    chunk.flip();
+    while (chunk.hasRemaining()) {
+      channel.write(chunk);
+    }
+    chunk.clear();
+  }
+
+  private static File partialOf(File file) {
+    return new File(file.getPath() + ".partial");
+  }
+
+  private static void commit(File partial, File file) throws IOException {
+    if (!partial.renameTo(file)) {
+      partial.delete();
+      throw new IOException("cannot move the export to " + file);
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package com.coinbase.waassdk;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds a Go client which is released once no call has used it for the scheduler's client idle
+ * timeout, and lazily recreated by the next call. Releasing the Java reference lets gomobile drop
+ * the Go object, together with its connections and buffers.
+ *
+ * Calls must bracket their use of the client with {@link #acquire()} and {@link #release()};
+ * {@link #get()} is only valid in between.
+ *
+ * @param <T> The type of the Go client.
+ */
+class IdleClient<T> {
+
+  /**
+   * Creates the Go client.
+   */
+  interface Factory<T> {
+    T create() throws Exception;
+  }
+
+  /**
+   * Uses the live client, see {@link #ifLive(Action)}.
+   */
+  interface Action<T> {
+    void run(T client);
+  }
+
+  private final Factory<T> factory;
+  private final WaasScheduler scheduler;
+
+  // The live client; null while released.
+  private T client;
+  // The number of calls between acquire and release.
+  private int users;
+  private long lastUsedNanos;
+  private boolean checkScheduled;
+  private boolean closed;
+
+  /**
+   * @param client  The initial client, typically created eagerly to surface configuration errors.
+   * @param factory Recreates the client after it has been released.
+   */
+  IdleClient(T client, Factory<T> factory, WaasScheduler scheduler) {
+    this.client = client;
+    this.factory = factory;
+    this.scheduler = scheduler;
+    this.lastUsedNanos = System.nanoTime();
+    scheduleCheck(scheduler.clientIdleTimeoutNanos());
+  }
+
+  /**
+   * Marks the start of a call, recreating the client if it was released.
+   *
+   * @throws WaasException If the client has been closed or cannot be recreated.
+   */
+  synchronized T acquire() throws WaasException {
+    if (closed) {
+      throw new WaasException("client closed : ", "the service has been closed");
+    }
+    if (client == null) {
+      try {
+        client = factory.create();
+      } catch (Exception e) {
+        throw new WaasException("recreate client failed : ", e.getMessage());
+      }
+    }
+    users++;
+    return client;
+  }
+
+  /**
+   * Marks the end of a call started with {@link #acquire()}.
+   */
+  synchronized void release() {
+    users--;
+    lastUsedNanos = System.nanoTime();
+    if (users == 0) {
+      scheduleCheck(scheduler.clientIdleTimeoutNanos());
+    }
+  }
+
+  /**
+   * Returns the client acquired by the current call.
+   */
+  synchronized T get() {
+    return client;
+  }
+
+  /**
+   * Returns whether a client is currently live.
+   */
+  synchronized boolean isLive() {
+    return client != null;
+  }
+
+  /**
+   * Runs `action` with the client if one is live, holding the client so that it cannot be released
+   * meanwhile. Does not recreate a released client, nor count as a use of it. Returns whether
+   * `action` ran.
+   */
+  synchronized boolean ifLive(Action<T> action) {
+    if (client == null) {
+      return false;
+    }
+    action.run(client);
+    return true;
+  }
+
+  /**
+   * Releases the client for good; later calls fail.
+   */
+  synchronized void close() {
+    closed = true;
+    client = null;
+  }
+
+  /**
+   * Runs `callable` between {@link #acquire()} and {@link #release()}.
+   */
+  <V> Callable<V> using(Callable<V> callable) {
+    return () -> {
+      acquire();
+      try {
+        return callable.call();
+      } finally {
+        release();
+      }
+    };
+  }
+
+  private void scheduleCheck(long delayNanos) {
+    if (checkScheduled || client == null || delayNanos <= 0) {
+      return;
+    }
+    checkScheduled = scheduler.schedule(this::releaseIfIdle, delayNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private synchronized void releaseIfIdle() {
+    checkScheduled = false;
+    if (client == null || users > 0) {
+      return;
+    }
+    long timeoutNanos = scheduler.clientIdleTimeoutNanos();
+    long idleNanos = System.nanoTime() - lastUsedNanos;
+    if (timeoutNanos > 0 && idleNanos >= timeoutNanos) {
+      client = null;
+    } else {
+      scheduleCheck(timeoutNanos - idleNanos);
+    }
+  }
+}
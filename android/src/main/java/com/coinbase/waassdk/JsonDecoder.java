@@ -0,0 +1,321 @@
+package com.coinbase.waassdk;
+
+import org.json.JSONException;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the UTF-8 JSON returned by the Go client straight into the structures the Flutter
+ * message codec sends as they are: objects become {@link HashMap}s, arrays {@link ArrayList}s,
+ * and numbers {@link Integer}s, {@link Long}s, {@link BigInteger}s or {@link Double}s.
+ *
+ * Reads the bytes once, front to back, like a pull parser: no intermediate String of the whole
+ * payload is built, nor an org.json tree to be copied afterwards. Strings without escapes are
+ * decoded directly from their bytes.
+ */
+public final class JsonDecoder {
+  // Deeper documents are rejected rather than risking the stack of a Go callback thread.
+  private static final int maxDepth = 512;
+
+  private final byte[] bytes;
+  private int pos;
+
+  private JsonDecoder(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * Decodes a JSON document of any type; JSON null decodes to null.
+   *
+   * @throws JSONException If the bytes are not a single well-formed JSON document.
+   */
+  public static Object decode(byte[] json) throws JSONException {
+    if (json == null) {
+      throw new JSONException("no JSON document");
+    }
+    JsonDecoder decoder = new JsonDecoder(json);
+    Object value = decoder.readValue(0);
+    decoder.skipWhitespace();
+    if (decoder.pos != json.length) {
+      throw decoder.syntaxError("unexpected trailing data");
+    }
+    return value;
+  }
+
+  /**
+   * Decodes a JSON array.
+   *
+   * @throws JSONException If the bytes are not a well-formed JSON array.
+   */
+  @SuppressWarnings("unchecked")
+  public static List<Object> decodeArray(byte[] json) throws JSONException {
+    Object value = decode(json);
+    if (!(value instanceof List)) {
+      throw new JSONException("expected a JSON array");
+    }
+    return (List<Object>) value;
+  }
+
+  /**
+   * Decodes a JSON object.
+   *
+   * @throws JSONException If the bytes are not a well-formed JSON object.
+   */
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> decodeObject(byte[] json) throws JSONException {
+    Object value = decode(json);
+    if (!(value instanceof Map)) {
+      throw new JSONException("expected a JSON object");
+    }
+    return (Map<String, Object>) value;
+  }
+
+  private Object readValue(int depth) throws JSONException {
+    skipWhitespace();
+    if (pos == bytes.length) {
+      throw syntaxError("unexpected end of data");
+    }
+    switch (bytes[pos]) {
+      case '{':
+        return readObject(depth + 1);
+      case '[':
+        return readArray(depth + 1);
+      case '"':
+        return readString();
+      case 't':
+        expectLiteral("true");
+        return Boolean.TRUE;
+      case 'f':
+        expectLiteral("false");
+        return Boolean.FALSE;
+      case 'n':
+        expectLiteral("null");
+        return null;
+      default:
+        return readNumber();
+    }
+  }
+
+  private Map<String, Object> readObject(int depth) throws JSONException {
+    checkDepth(depth);
+    pos++;
+    Map<String, Object> object = new HashMap<>();
+    skipWhitespace();
+    if (consume('}')) {
+      return object;
+    }
+    do {
+      skipWhitespace();
+      if (pos == bytes.length || bytes[pos] != '"') {
+        throw syntaxError("expected a key");
+      }
+      String key = readString();
+      skipWhitespace();
+      if (!consume(':')) {
+        throw syntaxError("expected ':'");
+      }
+      object.put(key, readValue(depth));
+      skipWhitespace();
+    } while (consume(','));
+    if (!consume('}')) {
+      throw syntaxError("expected ',' or '}'");
+    }
+    return object;
+  }
+
+  private List<Object> readArray(int depth) throws JSONException {
+    checkDepth(depth);
+    pos++;
+    List<Object> array = new ArrayList<>();
+    skipWhitespace();
+    if (consume(']')) {
+      return array;
+    }
+    do {
+      array.add(readValue(depth));
+      skipWhitespace();
+    } while (consume(','));
+    if (!consume(']')) {
+      throw syntaxError("expected ',' or ']'");
+    }
+    return array;
+  }
+
+  private String readString() throws JSONException {
+    int start = ++pos;
+    // The common case: no escapes, so the string is exactly the bytes up to the closing quote.
+    while (pos < bytes.length) {
+      byte b = bytes[pos];
+      if (b == '"') {
+        return new String(bytes, start, pos++ - start, StandardCharsets.UTF_8);
+      }
+      if (b == '\\') {
+        break;
+      }
+      if (b >= 0 && b < 0x20) {
+        throw syntaxError("unescaped control character in string");
+      }
+      pos++;
+    }
+    StringBuilder builder = new StringBuilder(pos - start + 16);
+    int run = start;
+    while (pos < bytes.length) {
+      byte b = bytes[pos];
+      if (b == '"') {
+        builder.append(new String(bytes, run, pos++ - run, StandardCharsets.UTF_8));
+        return builder.toString();
+      }
+      if (b >= 0 && b < 0x20) {
+        throw syntaxError("unescaped control character in string");
+      }
+      if (b != '\\') {
+        pos++;
+        continue;
+      }
+      builder.append(new String(bytes, run, pos - run, StandardCharsets.UTF_8));
+      if (++pos == bytes.length) {
+        break;
+      }
+      switch (bytes[pos++]) {
+        case '"':
+          builder.append('"');
+          break;
+        case '\\':
+          builder.append('\\');
+          break;
+        case '/':
+          builder.append('/');
+          break;
+        case 'b':
+          builder.append('\b');
+          break;
+        case 'f':
+          builder.append('\f');
+          break;
+        case 'n':
+          builder.append('\n');
+          break;
+        case 'r':
+          builder.append('\r');
+          break;
+        case 't':
+          builder.append('\t');
+          break;
+        case 'u':
+          builder.append(readHexChar());
+          break;
+        default:
+          pos--;
+          throw syntaxError("invalid escape");
+      }
+      run = pos;
+    }
+    throw syntaxError("unterminated string");
+  }
+
+  private char readHexChar() throws JSONException {
+    if (pos + 4 > bytes.length) {
+      throw syntaxError("truncated unicode escape");
+    }
+    int c = 0;
+    for (int i = 0; i < 4; i++) {
+      int digit = Character.digit(bytes[pos++], 16);
+      if (digit < 0) {
+        pos--;
+        throw syntaxError("invalid unicode escape");
+      }
+      c = (c << 4) | digit;
+    }
+    return (char) c;
+  }
+
+  private Number readNumber() throws JSONException {
+    int start = pos;
+    boolean integral = true;
+    consume('-');
+    if (!readDigits()) {
+      throw syntaxError("unexpected character");
+    }
+    if (consume('.')) {
+      integral = false;
+      if (!readDigits()) {
+        throw syntaxError("expected a digit");
+      }
+    }
+    if (consume('e') || consume('E')) {
+      integral = false;
+      if (!consume('+')) {
+        consume('-');
+      }
+      if (!readDigits()) {
+        throw syntaxError("expected a digit");
+      }
+    }
+    // Numbers are ASCII, so their bytes are their chars.
+    String text = new String(bytes, start, pos - start, StandardCharsets.US_ASCII);
+    if (!integral) {
+      return Double.parseDouble(text);
+    }
+    int digits = text.length() - (text.charAt(0) == '-' ? 1 : 0);
+    if (digits <= 9) {
+      return Integer.parseInt(text);
+    }
+    if (digits <= 18) {
+      long value = Long.parseLong(text);
+      return value == (int) value ? (Number) (int) value : (Number) value;
+    }
+    BigInteger value = new BigInteger(text);
+    return value.bitLength() < 64 ? (Number) value.longValue() : (Number) value;
+  }
+
+  // Reads a run of digits; returns whether there was any.
+  private boolean readDigits() {
+    int start = pos;
+    while (pos < bytes.length && bytes[pos] >= '0' && bytes[pos] <= '9') {
+      pos++;
+    }
+    return pos > start;
+  }
+
+  private void expectLiteral(String literal) throws JSONException {
+    for (int i = 0; i < literal.length(); i++) {
+      if (pos == bytes.length || bytes[pos] != literal.charAt(i)) {
+        throw syntaxError("unexpected character");
+      }
+      pos++;
+    }
+  }
+
+  private boolean consume(char c) {
+    if (pos < bytes.length && bytes[pos] == c) {
+      pos++;
+      return true;
+    }
+    return false;
+  }
+
+  private void skipWhitespace() {
+    while (pos < bytes.length) {
+      byte b = bytes[pos];
+      if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        return;
+      }
+      pos++;
+    }
+  }
+
+  private void checkDepth(int depth) throws JSONException {
+    if (depth > maxDepth) {
+      throw syntaxError("nested too deeply");
+    }
+  }
+
+  private JSONException syntaxError(String message) {
+    return new JSONException(message + " at byte " + pos);
+  }
+}
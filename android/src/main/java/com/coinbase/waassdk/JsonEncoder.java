@@ -0,0 +1,199 @@
+package com.coinbase.waassdk;
+
+import org.json.JSONException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the structures received from the Flutter message codec, e.g. a transaction, straight to
+ * the UTF-8 JSON the Go client takes: maps become objects, lists arrays, and null, Booleans,
+ * Strings and Numbers their JSON counterparts.
+ *
+ * Writes into a single byte buffer in one pass, with no intermediate org.json tree or String.
+ * Integers, including {@link Long}s and {@link BigInteger}s beyond the range of a double, e.g. wei
+ * amounts, are written exactly; doubles without a fractional part are written as integers, as
+ * org.json did.
+ */
+public final class JsonEncoder {
+  private static final byte[] hex = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+  // Whole doubles up to this magnitude are written as integers, without an exponent.
+  private static final double maxPlainDouble = 1e15;
+
+  private byte[] buffer = new byte[256];
+  private int length;
+
+  private JsonEncoder() {
+  }
+
+  /**
+   * Encodes `value` as UTF-8 JSON.
+   *
+   * @throws JSONException If `value` contains something other than maps with String keys, lists,
+   *                       Strings, Numbers, Booleans and null, or a non-finite number.
+   */
+  public static byte[] encode(Object value) throws JSONException {
+    JsonEncoder encoder = new JsonEncoder();
+    encoder.writeValue(value);
+    return Arrays.copyOf(encoder.buffer, encoder.length);
+  }
+
+  private void writeValue(Object value) throws JSONException {
+    if (value == null) {
+      writeAscii("null");
+    } else if (value instanceof String) {
+      writeString((String) value);
+    } else if (value instanceof Boolean) {
+      writeAscii(value.toString());
+    } else if (value instanceof Number) {
+      writeNumber((Number) value);
+    } else if (value instanceof Map) {
+      writeObject((Map<?, ?>) value);
+    } else if (value instanceof List) {
+      writeArray((List<?>) value);
+    } else {
+      throw new JSONException("Unsupported value type: " + value.getClass().getName());
+    }
+  }
+
+  private void writeObject(Map<?, ?> object) throws JSONException {
+    writeByte('{');
+    boolean first = true;
+    for (Map.Entry<?, ?> entry : object.entrySet()) {
+      if (!(entry.getKey() instanceof String)) {
+        throw new JSONException("Unsupported key type: " + String.valueOf(entry.getKey()));
+      }
+      if (!first) {
+        writeByte(',');
+      }
+      first = false;
+      writeString((String) entry.getKey());
+      writeByte(':');
+      writeValue(entry.getValue());
+    }
+    writeByte('}');
+  }
+
+  private void writeArray(List<?> array) throws JSONException {
+    writeByte('[');
+    for (int i = 0; i < array.size(); i++) {
+      if (i > 0) {
+        writeByte(',');
+      }
+      writeValue(array.get(i));
+    }
+    writeByte(']');
+  }
+
+  private void writeNumber(Number number) throws JSONException {
+    if (number instanceof Integer || number instanceof Long || number instanceof Short
+      || number instanceof Byte || number instanceof BigInteger) {
+      writeAscii(number.toString());
+      return;
+    }
+    if (number instanceof BigDecimal) {
+      writeAscii(((BigDecimal) number).toString());
+      return;
+    }
+    double value = number.doubleValue();
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw new JSONException("Non-finite number: " + value);
+    }
+    if (value == Math.rint(value) && Math.abs(value) < maxPlainDouble) {
+      writeAscii(Long.toString((long) value));
+    } else {
+      writeAscii(Double.toString(value));
+    }
+  }
+
+  private void writeString(String string) {
+    ensureCapacity(string.length() + 2);
+    buffer[length++] = '"';
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        if (c == '"' || c == '\\') {
+          writeByte('\\');
+          writeByte(c);
+        } else if (c < 0x20) {
+          writeControl(c);
+        } else {
+          writeByte(c);
+        }
+      } else if (c < 0x800) {
+        ensureCapacity(2);
+        buffer[length++] = (byte) (0xc0 | (c >> 6));
+        buffer[length++] = (byte) (0x80 | (c & 0x3f));
+      } else if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, string.charAt(++i));
+        ensureCapacity(4);
+        buffer[length++] = (byte) (0xf0 | (codePoint >> 18));
+        buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+        buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+        buffer[length++] = (byte) (0x80 | (codePoint & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        // A lone surrogate has no UTF-8 encoding; escaped, it survives as the same char.
+        writeUnicodeEscape(c);
+      } else {
+        ensureCapacity(3);
+        buffer[length++] = (byte) (0xe0 | (c >> 12));
+        buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buffer[length++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+    writeByte('"');
+  }
+
+  private void writeControl(char c) {
+    switch (c) {
+      case '\b':
+        writeAscii("\\b");
+        break;
+      case '\f':
+        writeAscii("\\f");
+        break;
+      case '\n':
+        writeAscii("\\n");
+        break;
+      case '\r':
+        writeAscii("\\r");
+        break;
+      case '\t':
+        writeAscii("\\t");
+        break;
+      default:
+        writeUnicodeEscape(c);
+    }
+  }
+
+  private void writeUnicodeEscape(char c) {
+    ensureCapacity(6);
+    buffer[length++] = '\\';
+    buffer[length++] = 'u';
+    buffer[length++] = hex[(c >> 12) & 0xf];
+    buffer[length++] = hex[(c >> 8) & 0xf];
+    buffer[length++] = hex[(c >> 4) & 0xf];
+    buffer[length++] = hex[c & 0xf];
+  }
+
+  private void writeAscii(String ascii) {
+    ensureCapacity(ascii.length());
+    for (int i = 0; i < ascii.length(); i++) {
+      buffer[length++] = (byte) ascii.charAt(i);
+    }
+  }
+
+  private void writeByte(int b) {
+    ensureCapacity(1);
+    buffer[length++] = (byte) b;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (length + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+    }
+  }
+}
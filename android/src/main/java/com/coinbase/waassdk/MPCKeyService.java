@@ -7,13 +7,18 @@ import com.waassdkinternal.v1.DeviceGroup;
 import com.waassdkinternal.v1.Signature;
 import com.waassdkinternal.v1.SignedTransaction;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -29,10 +34,32 @@ public class MPCKeyService {
 
   // The URL of the MPCKeyService when running in "direct mode".
   public static final String mpcKeyServiceWaaSUrl = "https://api.developer.coinbase.com/waas/mpc_keys";
-  // The handle to the Go MPCKeyService client.
-  com.waassdkinternal.v1.MPCKeyService keyClient;
+  // The handle to the Go MPCKeyService client, released while idle.
+  IdleClient<com.waassdkinternal.v1.MPCKeyService> keyClient;
 
-  ExecutorService executor;
+  WaasScheduler scheduler;
+
+  // The deadline applied to every call made through this instance, or null for none.
+  WaasDeadline deadline;
+
+  // Creates Go clients: pollers get one each, so that their polls and stop calls are scoped to
+  // their DeviceGroup.
+  IdleClient.Factory<com.waassdkinternal.v1.MPCKeyService> clientFactory;
+
+  // The open pollers by DeviceGroup, shared by all views of this service.
+  Map<String, DeviceGroupPoller> pollers = new ConcurrentHashMap<>();
+
+  // Per DeviceGroup, when the last signTransaction pipeline queued will have claimed its pending
+  // Signature. Shared by all views of this service.
+  Map<String, WaasFuture<?>> signings = new HashMap<>();
+
+  // Per DeviceGroup, which pending Signatures are accounted for, so that a signTransaction pipeline
+  // does not take one it did not create. Shared by all views of this service.
+  Map<String, SignatureClaims> signatureClaims = new HashMap<>();
+
+  // The DeviceGroups looked up, shared by all views of this service.
+  DeviceGroupCache deviceGroups = new DeviceGroupCache(DeviceGroupCache.defaultMaxEntries,
+    DeviceGroupCache.defaultTtlMillis, TimeUnit.MILLISECONDS);
 
   /**
    * Initializes the MPCKeyService with the given Cloud API Key parameters or proxy URL.
@@ -42,7 +69,7 @@ public class MPCKeyService {
    *       call our endpoints via a proxy service. This API will change in the future
    *       to accommodate proxy services better.
    */
-  public MPCKeyService(String apiKeyName, String privateKey, String proxyUrl, ExecutorService executor) throws WaasException {
+  public MPCKeyService(String apiKeyName, String privateKey, String proxyUrl, WaasScheduler scheduler) throws WaasException {
     Boolean insecure;
 
     String mpcKeyServiceUrl;
@@ -56,24 +83,133 @@ public class MPCKeyService {
     }
 
     try {
-      keyClient = newMPCKeyService(mpcKeyServiceUrl, apiKeyName, privateKey);
-      this.executor = executor;
+      String url = mpcKeyServiceUrl;
+      this.scheduler = scheduler;
+      clientFactory = () -> newMPCKeyService(url, apiKeyName, privateKey);
+      keyClient = new IdleClient<>(newMPCKeyService(url, apiKeyName, privateKey), clientFactory, scheduler);
     } catch (Exception e) {
       throw new WaasException("Error initializing mpckey-service: ", e.getMessage());
     }
   }
 
-  private <T> Future<T> call(Callable<T> callable) {
-    return executor.submit(callable);
+  /**
+   * Initializes the MPCKeyService, running all calls on the given executor.
+   */
+  public MPCKeyService(String apiKeyName, String privateKey, String proxyUrl, ExecutorService executor) throws WaasException {
+    this(apiKeyName, privateKey, proxyUrl, new WaasScheduler(executor));
+  }
+
+  private MPCKeyService(MPCKeyService service, WaasDeadline deadline) {
+    this.keyClient = service.keyClient;
+    this.clientFactory = service.clientFactory;
+    this.scheduler = service.scheduler;
+    this.pollers = service.pollers;
+    this.signings = service.signings;
+    this.signatureClaims = service.signatureClaims;
+    this.deviceGroups = service.deviceGroups;
+    this.deadline = deadline;
+  }
+
+  /**
+   * Returns a view of this service whose calls fail with {@link WaasDeadlineExceededException}
+   * if they do not complete by `deadline`. All calls made through the view draw on the same
+   * remaining budget. A null deadline returns this service.
+   */
+  public MPCKeyService withDeadline(WaasDeadline deadline) {
+    return deadline == null ? this : new MPCKeyService(this, deadline);
+  }
+
+  private <T> WaasFuture<T> call(WaasScheduler.Lane lane, WaasPriority priority, Callable<T> callable) {
+    WaasFuture<T> future = new WaasFuture<>(keyClient.using(callable), priority);
+    scheduler.execute(lane, future, deadline);
+    return future;
+  }
+
+  // Runs a request to the backend on the RPC lane, which adapts its limit to the request's latency.
+  private <T> WaasFuture<T> request(WaasPriority priority, Callable<T> callable) {
+    WaasFuture<T> future = new WaasFuture<>(keyClient.using(callable), priority).asNetworkCall();
+    scheduler.execute(WaasScheduler.Lane.RPC, future, deadline);
+    return future;
+  }
+
+  /**
+   * Runs a blocking poll on the POLL lane. Cancelling the returned future, or its deadline
+   * passing, also runs `stop`, which stops the Go client's poll so that the thread is released
+   * right away. The stop call itself is not subject to the deadline, and is skipped if the
+   * client has been released, as then no poll can be running.
+   */
+  private <T> WaasFuture<T> poll(WaasPriority priority, IdleClient.Action<com.waassdkinternal.v1.MPCKeyService> stop, Callable<T> callable) {
+    WaasFuture<T> future = new WaasFuture<>(keyClient.using(callable), priority);
+    future.onCancel(() -> {
+      try {
+        scheduler.execute(WaasScheduler.Lane.RPC, new WaasFuture<Void>(() -> {
+          keyClient.ifLive(stop);
+          return null;
+        }, WaasPriority.HIGH));
+      } catch (RejectedExecutionException e) {
+        // The scheduler has shut down; close() stops any running poll.
+      }
+    });
+    scheduler.execute(WaasScheduler.Lane.POLL, future, deadline);
+    return future;
+  }
+
+  /**
+   * Makes the pollers of the DeviceGroup `resource` belongs to burst for `kind` once `future`
+   * succeeds, as the operation it initiated is about to appear.
+   */
+  private <T> WaasFuture<T> expecting(String resource, DeviceGroupPoller.Kind kind, WaasFuture<T> future) {
+    future.addCallback(new WaasFuture.Callback<T>() {
+      @Override
+      public void onSuccess(T result) {
+        for (DeviceGroupPoller poller : pollers.values()) {
+          if (poller.watches(resource)) {
+            poller.burst(kind);
+          }
+        }
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Drops the cached DeviceGroup `deviceGroup` now, as the operation `future` initiates is about to
+   * change it, and again once `future` succeeds, so that lookups made meanwhile are not kept.
+   */
+  private <T> WaasFuture<T> changing(String deviceGroup, WaasFuture<T> future) {
+    deviceGroups.invalidate(deviceGroup);
+    future.addCallback(new WaasFuture.Callback<T>() {
+      @Override
+      public void onSuccess(T result) {
+        deviceGroups.invalidate(deviceGroup);
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+      }
+    });
+    return future;
   }
 
   /**
    * Registers the current Device. Resolves with the Device object on success; rejects with an error otherwise.
    */
-  public Future<Device> registerDevice() {
-    return call(() -> {
+  public WaasFuture<Device> registerDevice() {
+    return registerDevice(WaasPriority.NORMAL);
+  }
+
+  /**
+   * Same as {@link #registerDevice()}, but scheduled with the given priority rather than {@link WaasPriority#NORMAL}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<Device> registerDevice(WaasPriority priority) {
+    return request(priority != null ? priority : WaasPriority.NORMAL, () -> {
       try {
-        return keyClient.registerDevice();
+        return keyClient.get().registerDevice();
       } catch (Exception e) {
         throw new WaasException("registerDevice failed : ", e.getMessage());
       }
@@ -85,13 +221,21 @@ public class MPCKeyService {
    * Only one DeviceGroup can be polled at a time; thus, this function must return (by calling either
    * stopPollingForPendingDeviceGroup or computeMPCOperation) before another call is made to this function.
    * Resolves with a list of the pending CreateDeviceGroupOperations on success; rejects with an error otherwise.
+   * Cancelling the returned future stops the poll.
    */
-  public Future<JSONArray> pollForPendingDeviceGroup(String deviceGroup, int pollInterval) {
-    return call(() -> {
+  public WaasFuture<List<Object>> pollForPendingDeviceGroup(String deviceGroup, int pollInterval) {
+    return pollForPendingDeviceGroup(deviceGroup, pollInterval, WaasPriority.NORMAL);
+  }
+
+  /**
+   * Same as {@link #pollForPendingDeviceGroup(String, int)}, but scheduled with the given priority rather than {@link WaasPriority#NORMAL}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<List<Object>> pollForPendingDeviceGroup(String deviceGroup, int pollInterval, WaasPriority priority) {
+    return poll(priority != null ? priority : WaasPriority.NORMAL, client -> client.stopPollingPendingDeviceGroup(new ResponseReceiver()), () -> {
       try {
-        byte[] pendingDeviceGroupData = keyClient.pollPendingDeviceGroup(deviceGroup, pollInterval);
-        String pendingDeviceGroupDataBytesToStrings = new String(pendingDeviceGroupData, StandardCharsets.UTF_8);
-        return new JSONArray(pendingDeviceGroupDataBytesToStrings);
+        byte[] pendingDeviceGroupData = keyClient.get().pollPendingDeviceGroup(deviceGroup, pollInterval);
+        return JsonDecoder.decodeArray(pendingDeviceGroupData);
       } catch (Exception e) {
         throw new WaasException("pollForPendingDeviceGroup failed : ", e.getMessage());
       }
@@ -104,11 +248,11 @@ public class MPCKeyService {
    * Resolves with string "stopped polling for pending DeviceGroup" if polling is stopped successfully;
    * resolves with the empty string otherwise.
    */
-  public Future<String> stopPollingPendingDeviceGroup() {
-    return call(() -> {
+  public WaasFuture<String> stopPollingPendingDeviceGroup() {
+    return call(WaasScheduler.Lane.RPC, WaasPriority.HIGH, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
-        keyClient.stopPollingPendingDeviceGroup(receiver);
+        keyClient.get().stopPollingPendingDeviceGroup(receiver);
         return receiver.get();
       } catch (Exception e) {
         throw new WaasException("stopPollingPendingDeviceGroup failed : ", e.getMessage());
@@ -120,16 +264,52 @@ public class MPCKeyService {
    * Initiates an operation to create a Signature resource from the given transaction.
    * Resolves with the string "success" on successful initiation; rejects with an error otherwise.
    */
-  public Future<String> createSignatureFromTx(String parent, JSONObject serializedTx) {
-    return call(() -> {
+  public WaasFuture<String> createSignatureFromTx(String parent, JSONObject serializedTx) {
+    return createSignatureFromTx(parent, serializedTx, WaasPriority.HIGH);
+  }
+
+  /**
+   * Same as {@link #createSignatureFromTx(String, JSONObject)}, but scheduled with the given priority rather than {@link WaasPriority#HIGH}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<String> createSignatureFromTx(String parent, JSONObject serializedTx, WaasPriority priority) {
+    return createSignatureFromTx(parent, serializedTx.toString().getBytes(StandardCharsets.UTF_8), priority);
+  }
+
+  /**
+   * Same as {@link #createSignatureFromTx(String, JSONObject)}, but takes the transaction as UTF-8 JSON, e.g. as
+   * encoded by {@link JsonEncoder}, which keeps integers beyond the range of a double exact.
+   */
+  public WaasFuture<String> createSignatureFromTx(String parent, byte[] serializedTx) {
+    return createSignatureFromTx(parent, serializedTx, WaasPriority.HIGH);
+  }
+
+  /**
+   * Same as {@link #createSignatureFromTx(String, byte[])}, but scheduled with the given priority rather than {@link WaasPriority#HIGH}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<String> createSignatureFromTx(String parent, byte[] serializedTx, WaasPriority priority) {
+    WaasFuture<String> future = expecting(parent, DeviceGroupPoller.Kind.SIGNATURES, request(priority != null ? priority : WaasPriority.HIGH, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
-        keyClient.createTxSignature(parent, serializedTx.toString().getBytes(StandardCharsets.UTF_8), receiver);
+        keyClient.get().createTxSignature(parent, serializedTx, receiver);
         return receiver.get();
       } catch (Exception e) {
         throw new WaasException("createSignatureFromTx failed : ", e.getMessage());
       }
+    }));
+    future.addCallback(new WaasFuture.Callback<String>() {
+      @Override
+      public void onSuccess(String result) {
+        int keys = parent.indexOf("/mpcKeys/");
+        signatureClaimsOf(keys < 0 ? parent : parent.substring(0, keys)).created();
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+      }
     });
+    return future;
   }
 
   /**
@@ -137,13 +317,21 @@ public class MPCKeyService {
    * Only one DeviceGroup can be polled at a time; thus, this function must return (by calling either
    * stopPollingForPendingSignatures or processPendingSignature before another call is made to this function.
    * Resolves with a list of the pending Signatures on success; rejects with an error otherwise.
+   * Cancelling the returned future stops the poll.
    */
-  public Future<JSONArray> pollForPendingSignatures(String deviceGroup, int pollInterval) {
-    return call(() -> {
+  public WaasFuture<List<Object>> pollForPendingSignatures(String deviceGroup, int pollInterval) {
+    return pollForPendingSignatures(deviceGroup, pollInterval, WaasPriority.HIGH);
+  }
+
+  /**
+   * Same as {@link #pollForPendingSignatures(String, int)}, but scheduled with the given priority rather than {@link WaasPriority#HIGH}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<List<Object>> pollForPendingSignatures(String deviceGroup, int pollInterval, WaasPriority priority) {
+    return poll(priority != null ? priority : WaasPriority.HIGH, client -> client.stopPollingPendingSignatures(new ResponseReceiver()), () -> {
       try {
-        byte[] pendingSeedsData = keyClient.pollPendingSignatures(deviceGroup, pollInterval);
-        String pendingSeedsDataBytesToStrings = new String(pendingSeedsData, StandardCharsets.UTF_8);
-        return new JSONArray(pendingSeedsDataBytesToStrings);
+        byte[] pendingSeedsData = keyClient.get().pollPendingSignatures(deviceGroup, pollInterval);
+        return JsonDecoder.decodeArray(pendingSeedsData);
       } catch (Exception e) {
         throw new WaasException("pollForPendingSignatures failed : ", e.getMessage());
       }
@@ -156,11 +344,11 @@ public class MPCKeyService {
    * Resolves with string "stopped polling for pending Signatures" if polling is stopped successfully;
    * resolves with the empty string otherwise.
    */
-  public Future<String> stopPollingForPendingSignatures() {
-    return call(() -> {
+  public WaasFuture<String> stopPollingForPendingSignatures() {
+    return call(WaasScheduler.Lane.RPC, WaasPriority.HIGH, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
-        keyClient.stopPollingPendingSignatures(receiver);
+        keyClient.get().stopPollingPendingSignatures(receiver);
         return receiver.get();
       } catch (Exception e) {
         throw new WaasException("stopPollingPendingSignatures failed : ", e.getMessage());
@@ -172,10 +360,19 @@ public class MPCKeyService {
    * Waits for a pending Signature with the given operation name. Resolves with the Signature object on success;
    * rejects with an error otherwise.
    */
-  public Future<Signature> waitPendingSignature(String operation) {
-    return call(() -> {
+  public WaasFuture<Signature> waitPendingSignature(String operation) {
+    return waitPendingSignature(operation, WaasPriority.HIGH);
+  }
+
+  /**
+   * Same as {@link #waitPendingSignature(String)}, but scheduled with the given priority rather than {@link WaasPriority#HIGH}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<Signature> waitPendingSignature(String operation, WaasPriority priority) {
+    waitedOn(operation);
+    return call(WaasScheduler.Lane.WAIT, priority != null ? priority : WaasPriority.HIGH, () -> {
       try {
-        return keyClient.waitPendingSignature(operation);
+        return keyClient.get().waitPendingSignature(operation);
       } catch (Exception e) {
         throw new WaasException("waitPendingSignature failed : ", e.getMessage());
       }
@@ -186,43 +383,241 @@ public class MPCKeyService {
    * Gets the signed transaction using the given inputs.
    * Resolves with the SignedTransaction on success; rejects with an error otherwise.
    */
-  public Future<SignedTransaction> getSignedTransaction(JSONObject serializedTx, Signature signature) {
-    return call(() -> {
+  public WaasFuture<SignedTransaction> getSignedTransaction(JSONObject serializedTx, Signature signature) {
+    return getSignedTransaction(serializedTx, signature, WaasPriority.HIGH);
+  }
+
+  /**
+   * Same as {@link #getSignedTransaction(JSONObject, Signature)}, but scheduled with the given priority rather than {@link WaasPriority#HIGH}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<SignedTransaction> getSignedTransaction(JSONObject serializedTx, Signature signature, WaasPriority priority) {
+    return getSignedTransaction(serializedTx.toString().getBytes(StandardCharsets.UTF_8), signature, priority);
+  }
+
+  /**
+   * Same as {@link #getSignedTransaction(JSONObject, Signature)}, but takes the transaction as UTF-8 JSON, e.g. as
+   * encoded by {@link JsonEncoder}.
+   */
+  public WaasFuture<SignedTransaction> getSignedTransaction(byte[] serializedTx, Signature signature) {
+    return getSignedTransaction(serializedTx, signature, WaasPriority.HIGH);
+  }
+
+  /**
+   * Same as {@link #getSignedTransaction(byte[], Signature)}, but scheduled with the given priority rather than {@link WaasPriority#HIGH}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<SignedTransaction> getSignedTransaction(byte[] serializedTx, Signature signature, WaasPriority priority) {
+    return call(WaasScheduler.Lane.RPC, priority != null ? priority : WaasPriority.HIGH, () -> {
       try {
-        return keyClient.getSignedTransaction(serializedTx.toString().getBytes(StandardCharsets.UTF_8), signature);
+        return keyClient.get().getSignedTransaction(serializedTx, signature);
       } catch (Exception e) {
         throw new WaasException("getSignedTransaction failed : ", e.getMessage());
       }
     });
   }
 
+  /**
+   * Returns which pending Signatures of `deviceGroup` are accounted for.
+   */
+  SignatureClaims signatureClaimsOf(String deviceGroup) {
+    synchronized (signatureClaims) {
+      SignatureClaims claims = signatureClaims.get(deviceGroup);
+      if (claims == null) {
+        claims = new SignatureClaims(SeenOperations.defaultCapacity);
+        signatureClaims.put(deviceGroup, claims);
+      }
+      return claims;
+    }
+  }
+
+  // Accounts for the Signature operation `operation`, which its creator is about to wait on. The
+  // operation does not name its DeviceGroup; unless a pipeline has claimed it, it can only be that of
+  // the one DeviceGroup with Signatures outstanding, if there is a single one.
+  private void waitedOn(String operation) {
+    List<SignatureClaims> contested = new ArrayList<>();
+    synchronized (signatureClaims) {
+      for (SignatureClaims claims : signatureClaims.values()) {
+        if (claims.accounts(operation)) {
+          return;
+        }
+        if (claims.hasOutstanding()) {
+          contested.add(claims);
+        }
+      }
+    }
+    if (contested.size() == 1) {
+      contested.get(0).waitedOn(operation);
+    }
+  }
+
+  /**
+   * Signs `serializedTx`, the transaction as UTF-8 JSON, with the MPCKey `parent` of `deviceGroup` in a single call, running
+   * createSignatureFromTx, the poll for the pending Signature, computeMPCOperation on `mpcSdk`,
+   * waitPendingSignature and getSignedTransaction back to back on the Java side.
+   * The pending Signature is awaited through {@link #pollerFor(String, int)}, which bursts once
+   * the Signature has been created.
+   *
+   * The Go API does not tell which pending Signature belongs to which transaction, so the
+   * pipelines of a DeviceGroup create their Signatures and take the new pending Signature one
+   * after the other; their MPC computations and everything after run in parallel, as do
+   * pipelines of different DeviceGroups. A pipeline fails rather than take a pending Signature it
+   * cannot tell apart from those created by other callers of createSignatureFromTx, or left by
+   * pipelines which failed. Resolves with the SignedTransaction and the time each stage took;
+   * rejects with the error of the failed stage otherwise. Cancelling the returned
+   * future cancels the stage in flight, and this instance's deadline bounds the whole pipeline,
+   * including its time queued.
+   */
+  public WaasFuture<SignedTransactionResult> signTransaction(MPCSdk mpcSdk, String deviceGroup, String parent, byte[] serializedTx, int pollInterval) {
+    return signTransaction(mpcSdk, deviceGroup, parent, serializedTx, pollInterval, WaasPriority.HIGH);
+  }
+
+  /**
+   * Same as {@link #signTransaction(MPCSdk, String, String, byte[], int)}, but every stage is scheduled with
+   * the given priority rather than {@link WaasPriority#HIGH}. A null priority selects the default.
+   */
+  public WaasFuture<SignedTransactionResult> signTransaction(MPCSdk mpcSdk, String deviceGroup, String parent, byte[] serializedTx, int pollInterval, WaasPriority priority) {
+    SignTransactionPipeline pipeline = new SignTransactionPipeline(this, mpcSdk, deviceGroup, parent, serializedTx, pollInterval,
+      priority != null ? priority : WaasPriority.HIGH);
+    // A pipeline whose deadline has already passed fails here, and start() skips it.
+    scheduler.armDeadline(pipeline, deadline);
+    WaasFuture<?> previous;
+    synchronized (signings) {
+      previous = signings.put(deviceGroup, pipeline.claimed);
+    }
+    pipeline.claimed.addCallback(new WaasFuture.Callback<Void>() {
+      @Override
+      public void onSuccess(Void result) {
+        synchronized (signings) {
+          signings.remove(deviceGroup, pipeline.claimed);
+        }
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+      }
+    });
+    // A pipeline which fails or is cancelled before claiming a Signature lets the next one go.
+    pipeline.addCallback(new WaasFuture.Callback<SignedTransactionResult>() {
+      @Override
+      public void onSuccess(SignedTransactionResult result) {
+        pipeline.claimed.run();
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+        pipeline.claimed.run();
+      }
+    });
+    if (previous == null) {
+      pipeline.start();
+    } else {
+      previous.addCallback(new WaasFuture.Callback<Object>() {
+        @Override
+        public void onSuccess(Object result) {
+          pipeline.start();
+        }
+
+        @Override
+        public void onFailure(Throwable error) {
+          pipeline.start();
+        }
+      });
+    }
+    return pipeline;
+  }
+
+  /**
+   * Signs every transaction of `serializedTxs` with the MPCKey `parent` of `deviceGroup`, each
+   * as by {@link #signTransaction(MPCSdk, String, String, byte[], int)}, keeping at most
+   * `parallelism` of them in flight so that their MPC computations run on several cores at once.
+   * Reports each transaction's SignedTransaction or error to `listener` as it completes, by its
+   * index in `serializedTxs`. The returned future resolves once all transactions are done, even if
+   * some failed; cancelling it cancels the rest of the batch. This instance's deadline bounds
+   * every transaction.
+   */
+  public SignTransactionBatch signTransactions(MPCSdk mpcSdk, String deviceGroup, String parent, List<byte[]> serializedTxs,
+                                              int pollInterval, int parallelism, SignTransactionBatch.Listener listener) {
+    return signTransactions(mpcSdk, deviceGroup, parent, serializedTxs, pollInterval, parallelism, WaasPriority.HIGH, listener);
+  }
+
+  /**
+   * Same as {@link #signTransactions(MPCSdk, String, String, List, int, int, SignTransactionBatch.Listener)}, but
+   * every stage is scheduled with the given priority rather than {@link WaasPriority#HIGH}. A null priority selects the default.
+   */
+  public SignTransactionBatch signTransactions(MPCSdk mpcSdk, String deviceGroup, String parent, List<byte[]> serializedTxs,
+                                              int pollInterval, int parallelism, WaasPriority priority, SignTransactionBatch.Listener listener) {
+    SignTransactionBatch batch = new SignTransactionBatch(this, mpcSdk, deviceGroup, parent, serializedTxs, pollInterval, parallelism,
+      priority != null ? priority : WaasPriority.HIGH, listener);
+    batch.advance();
+    return batch;
+  }
+
   /**
    * Gets a DeviceGroup with the given name. Resolves with the DeviceGroup object on success; rejects with an error otherwise.
+   *
+   * DeviceGroups are cached once looked up, until an operation of this service changes them, e.g. addDevice, or
+   * {@link #invalidateDeviceGroup(String)} is called; entries also expire after a minute, as other Devices may change
+   * the DeviceGroup as well.
+   */
+  public WaasFuture<DeviceGroup> getDeviceGroup(String name) {
+    return getDeviceGroup(name, WaasPriority.NORMAL);
+  }
+
+  /**
+   * Same as {@link #getDeviceGroup(String)}, but scheduled with the given priority rather than {@link WaasPriority#NORMAL}.
+   * A null priority selects the default.
    */
-  public Future<DeviceGroup> getDeviceGroup(String name) {
-    return call(() -> {
+  public WaasFuture<DeviceGroup> getDeviceGroup(String name, WaasPriority priority) {
+    WaasPriority effective = priority != null ? priority : WaasPriority.NORMAL;
+    DeviceGroup cached = deviceGroups.get(name);
+    if (cached != null) {
+      WaasFuture<DeviceGroup> future = new WaasFuture<>(() -> cached, effective);
+      future.run();
+      return future;
+    }
+    long generation = deviceGroups.generation();
+    return request(effective, () -> {
       try {
-        return keyClient.getDeviceGroup(name);
+        DeviceGroup deviceGroup = keyClient.get().getDeviceGroup(name);
+        deviceGroups.put(name, deviceGroup, generation);
+        return deviceGroup;
       } catch (Exception e) {
         throw new WaasException("getDeviceGroup failed : ", e.getMessage());
       }
     });
   }
 
+  /**
+   * Drops the cached DeviceGroup `deviceGroup`, e.g. once an AddDevice operation computed by {@link MPCSdk} has
+   * completed; a null DeviceGroup drops every cached DeviceGroup.
+   */
+  public void invalidateDeviceGroup(String deviceGroup) {
+    deviceGroups.invalidate(deviceGroup);
+  }
+
   /**
    * Initiates an operation to prepare device archive for MPCKey export. Resolves with the operation name on successful initiation; rejects with
    * an error otherwise.
    */
-  public Future<String> prepareDeviceArchive(String deviceGroup, String device) {
-    return call(() -> {
+  public WaasFuture<String> prepareDeviceArchive(String deviceGroup, String device) {
+    return prepareDeviceArchive(deviceGroup, device, WaasPriority.LOW);
+  }
+
+  /**
+   * Same as {@link #prepareDeviceArchive(String, String)}, but scheduled with the given priority rather than {@link WaasPriority#LOW}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<String> prepareDeviceArchive(String deviceGroup, String device, WaasPriority priority) {
+    return changing(deviceGroup, request(priority != null ? priority : WaasPriority.LOW, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
-        keyClient.prepareDeviceArchive(deviceGroup, device, receiver);
+        keyClient.get().prepareDeviceArchive(deviceGroup, device, receiver);
         return receiver.get();
       } catch (Exception e) {
         throw new WaasException("prepareDeviceArchive failed : ", e.getMessage());
       }
-    });
+    }));
   }
 
   /**
@@ -230,13 +625,21 @@ public class MPCKeyService {
    * Only one DeviceGroup can be polled at a time; thus, this function must return (by calling either
    * stopPollingForDeviceArchives or computePrepareDeviceArchiveMPCOperation) before another call is made to this function.
    * Resolves with a list of the pending DeviceArchives on success; rejects with an error otherwise.
+   * Cancelling the returned future stops the poll.
+   */
+  public WaasFuture<List<Object>> pollForPendingDeviceArchives(String deviceGroup, int pollInterval) {
+    return pollForPendingDeviceArchives(deviceGroup, pollInterval, WaasPriority.LOW);
+  }
+
+  /**
+   * Same as {@link #pollForPendingDeviceArchives(String, int)}, but scheduled with the given priority rather than {@link WaasPriority#LOW}.
+   * A null priority selects the default.
    */
-  public Future<JSONArray> pollForPendingDeviceArchives(String deviceGroup, int pollInterval) {
-    return call(() -> {
+  public WaasFuture<List<Object>> pollForPendingDeviceArchives(String deviceGroup, int pollInterval, WaasPriority priority) {
+    return poll(priority != null ? priority : WaasPriority.LOW, client -> client.stopPollingPendingDeviceArchives(new ResponseReceiver()), () -> {
       try {
-        byte[] pendingDeviceArchiveData = keyClient.pollPendingDeviceArchives(deviceGroup, pollInterval);
-        String pendingDeviceArchiveDataBytesToStrings = new String(pendingDeviceArchiveData, StandardCharsets.UTF_8);
-        return new JSONArray(pendingDeviceArchiveDataBytesToStrings);
+        byte[] pendingDeviceArchiveData = keyClient.get().pollPendingDeviceArchives(deviceGroup, pollInterval);
+        return JsonDecoder.decodeArray(pendingDeviceArchiveData);
       } catch (Exception e) {
         throw new WaasException("pollForPendingDeviceArchives failed : ", e.getMessage());
       }
@@ -248,11 +651,11 @@ public class MPCKeyService {
    * screen changes, etc. This function is a no-op if the SDK is not currently polling for a pending DeviceArchiveOperation.
    * Resolves with string "stopped polling for pending Device Archives" if polling is stopped successfully; resolves with the empty string otherwise.
    */
-  public Future<String> stopPollingForPendingDeviceArchives() {
-    return call(() -> {
+  public WaasFuture<String> stopPollingForPendingDeviceArchives() {
+    return call(WaasScheduler.Lane.RPC, WaasPriority.HIGH, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
-        keyClient.stopPollingPendingDeviceArchives(receiver);
+        keyClient.get().stopPollingPendingDeviceArchives(receiver);
         return receiver.get();
       } catch (Exception e) {
         throw new WaasException("stopPollingForPendingDeviceArchives failed : ", e.getMessage());
@@ -266,13 +669,21 @@ public class MPCKeyService {
    * Only one DeviceBackup can be polled at a time; thus, this function must return (by calling either
    * stopPollingForDeviceBackups or computePrepareDeviceBackupMPCOperation) before another call is made to this function.
    * Resolves with a list of the pending DeviceBackups on success; rejects with an error otherwise.
+   * Cancelling the returned future stops the poll.
    */
-  public Future<JSONArray> pollForPendingDeviceBackups(String deviceGroup, int pollInterval) {
-    return call(() -> {
+  public WaasFuture<List<Object>> pollForPendingDeviceBackups(String deviceGroup, int pollInterval) {
+    return pollForPendingDeviceBackups(deviceGroup, pollInterval, WaasPriority.LOW);
+  }
+
+  /**
+   * Same as {@link #pollForPendingDeviceBackups(String, int)}, but scheduled with the given priority rather than {@link WaasPriority#LOW}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<List<Object>> pollForPendingDeviceBackups(String deviceGroup, int pollInterval, WaasPriority priority) {
+    return poll(priority != null ? priority : WaasPriority.LOW, client -> client.stopPollingPendingDeviceBackups(new ResponseReceiver()), () -> {
       try {
-        byte[] pendingDeviceBackupData = keyClient.pollPendingDeviceBackups(deviceGroup, pollInterval);
-        String pendingDeviceBackupDataBytesToStrings = new String(pendingDeviceBackupData, StandardCharsets.UTF_8);
-        return new JSONArray(pendingDeviceBackupDataBytesToStrings);
+        byte[] pendingDeviceBackupData = keyClient.get().pollPendingDeviceBackups(deviceGroup, pollInterval);
+        return JsonDecoder.decodeArray(pendingDeviceBackupData);
       } catch (Exception e) {
         throw new WaasException("pollForPendingDeviceBackups failed : ", e.getMessage());
       }
@@ -284,11 +695,11 @@ public class MPCKeyService {
    * screen changes, etc. This function is a no-op if the SDK is not currently polling for a pending DeviceBackup.
    * Resolves with string "stopped polling for pending Device Backups" if polling is stopped successfully; resolves with the empty string otherwise.
    */
-  public Future<String> stopPollingForPendingDeviceBackups() {
-    return call(() -> {
+  public WaasFuture<String> stopPollingForPendingDeviceBackups() {
+    return call(WaasScheduler.Lane.RPC, WaasPriority.HIGH, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
-        keyClient.stopPollingPendingDeviceBackups(receiver);
+        keyClient.get().stopPollingPendingDeviceBackups(receiver);
         return receiver.get();
       } catch (Exception e) {
         throw new WaasException("stopPollingForPendingDeviceBackups failed : ", e.getMessage());
@@ -301,32 +712,48 @@ public class MPCKeyService {
    * Initiates an operation to prepare device backup to add new Devices to the DeviceGroup. Resolves with the operation name on successful initiation; rejects with
    * an error otherwise.
    */
-  public Future<String> prepareDeviceBackup(String deviceGroup, String device) {
-    return call(() -> {
+  public WaasFuture<String> prepareDeviceBackup(String deviceGroup, String device) {
+    return prepareDeviceBackup(deviceGroup, device, WaasPriority.LOW);
+  }
+
+  /**
+   * Same as {@link #prepareDeviceBackup(String, String)}, but scheduled with the given priority rather than {@link WaasPriority#LOW}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<String> prepareDeviceBackup(String deviceGroup, String device, WaasPriority priority) {
+    return changing(deviceGroup, expecting(deviceGroup, DeviceGroupPoller.Kind.DEVICE_BACKUPS, request(priority != null ? priority : WaasPriority.LOW, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
-        keyClient.prepareDeviceBackup(deviceGroup, device, receiver);
+        keyClient.get().prepareDeviceBackup(deviceGroup, device, receiver);
         return receiver.get();
       } catch (Exception e) {
         throw new WaasException("prepareDeviceBackup failed : ", e.getMessage());
       }
-    });
+    })));
   }
 
   /**
    * Initiates an operation to add a Device to the DeviceGroup. Resolves with the operation name on successful initiation; rejects with
    * an error otherwise.
    */
-  public Future<String> addDevice(String deviceGroup, String device) {
-    return call(() -> {
+  public WaasFuture<String> addDevice(String deviceGroup, String device) {
+    return addDevice(deviceGroup, device, WaasPriority.NORMAL);
+  }
+
+  /**
+   * Same as {@link #addDevice(String, String)}, but scheduled with the given priority rather than {@link WaasPriority#NORMAL}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<String> addDevice(String deviceGroup, String device, WaasPriority priority) {
+    return changing(deviceGroup, expecting(deviceGroup, DeviceGroupPoller.Kind.DEVICES, request(priority != null ? priority : WaasPriority.NORMAL, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
-        keyClient.addDevice(deviceGroup, device, receiver);
+        keyClient.get().addDevice(deviceGroup, device, receiver);
         return receiver.get();
       } catch (Exception e) {
         throw new WaasException("addDevice failed : ", e.getMessage());
       }
-    });
+    })));
   }
 
 
@@ -335,13 +762,21 @@ public class MPCKeyService {
    * Only one Device can be polled at a time; thus, this function must return (by calling either
    * stopPollingForDevices or computeAddDeviceMPCOperation) before another call is made to this function.
    * Resolves with a list of the pending Devices on success; rejects with an error otherwise.
+   * Cancelling the returned future stops the poll.
+   */
+  public WaasFuture<List<Object>> pollForPendingDevices(String deviceGroup, int pollInterval) {
+    return pollForPendingDevices(deviceGroup, pollInterval, WaasPriority.NORMAL);
+  }
+
+  /**
+   * Same as {@link #pollForPendingDevices(String, int)}, but scheduled with the given priority rather than {@link WaasPriority#NORMAL}.
+   * A null priority selects the default.
    */
-  public Future<JSONArray> pollForPendingDevices(String deviceGroup, int pollInterval) {
-    return call(() -> {
+  public WaasFuture<List<Object>> pollForPendingDevices(String deviceGroup, int pollInterval, WaasPriority priority) {
+    return poll(priority != null ? priority : WaasPriority.NORMAL, client -> client.stopPollingPendingDevices(new ResponseReceiver()), () -> {
       try {
-        byte[] pendingDeviceData = keyClient.pollPendingDevices(deviceGroup, pollInterval);
-        String pendingDeviceDataBytesToStrings = new String(pendingDeviceData, StandardCharsets.UTF_8);
-        return new JSONArray(pendingDeviceDataBytesToStrings);
+        byte[] pendingDeviceData = keyClient.get().pollPendingDevices(deviceGroup, pollInterval);
+        return JsonDecoder.decodeArray(pendingDeviceData);
       } catch (Exception e) {
         throw new WaasException("pollForPendingDevices failed : ", e.getMessage());
       }
@@ -353,16 +788,102 @@ public class MPCKeyService {
    * screen changes, etc. This function is a no-op if the SDK is not currently polling for a pending Device.
    * Resolves with string "stopped polling for pending Devices" if polling is stopped successfully; resolves with the empty string otherwise.
    */
-  public Future<String> stopPollingForPendingDevices() {
-    return call(() -> {
+  public WaasFuture<String> stopPollingForPendingDevices() {
+    return call(WaasScheduler.Lane.RPC, WaasPriority.HIGH, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
-        keyClient.stopPollingPendingDevices(receiver);
+        keyClient.get().stopPollingPendingDevices(receiver);
         return receiver.get();
       } catch (Exception e) {
         throw new WaasException("stopPollingForPendingDevices failed : ", e.getMessage());
       }
     });
   }
-}
 
+  /**
+   * Returns the poller which watches the pending operations of `deviceGroup`, of any kind, on
+   * behalf of any number of listeners, sharing one poll per kind between them; creates it if the
+   * DeviceGroup is not watched yet.
+   *
+   * Unlike the pollForPending methods, pollers can watch any number of DeviceGroups at once: each
+   * polls through a Go client of its own, created lazily and released while idle, and all share
+   * the scheduler's POLL lane. Their polls are not subject to this instance's deadline.
+   *
+   * A new poller's interval adapts as described by {@link AdaptivePollPolicy#from(long)},
+   * starting from `pollInterval`; an existing poller keeps its policy. Stop the poller with
+   * {@link #stopPolling(String)}, or {@link DeviceGroupPoller#close()}, once no longer needed.
+   */
+  public DeviceGroupPoller pollerFor(String deviceGroup, int pollInterval) {
+    return pollerFor(deviceGroup, AdaptivePollPolicy.from(pollInterval));
+  }
+
+  /**
+   * Same as {@link #pollerFor(String, int)}, but a new poller polls as `policy` chooses.
+   */
+  public DeviceGroupPoller pollerFor(String deviceGroup, AdaptivePollPolicy policy) {
+    synchronized (pollers) {
+      DeviceGroupPoller poller = pollers.get(deviceGroup);
+      if (poller == null) {
+        MPCKeyService view = new MPCKeyService(this, null);
+        view.keyClient = new IdleClient<>(null, clientFactory, scheduler);
+        poller = new DeviceGroupPoller(view, deviceGroup, policy);
+        pollers.put(deviceGroup, poller);
+      }
+      return poller;
+    }
+  }
+
+  /**
+   * Stops the poller of `deviceGroup`, if any, leaving the polls of other DeviceGroups running.
+   * Returns whether the DeviceGroup was being watched.
+   */
+  public boolean stopPolling(String deviceGroup) {
+    DeviceGroupPoller poller = pollers.get(deviceGroup);
+    if (poller == null) {
+      return false;
+    }
+    poller.close();
+    return true;
+  }
+
+  /**
+   * Called by a poller once it has closed, on the view it polls through. The view's Go client is
+   * released on the RPC lane, as stopping its polls calls into Go and the poller may be closed
+   * from the platform thread.
+   */
+  void onPollerClosed(DeviceGroupPoller poller) {
+    pollers.remove(poller.getDeviceGroup(), poller);
+    try {
+      scheduler.execute(WaasScheduler.Lane.RPC, new WaasFuture<Void>(() -> {
+        closeClient();
+        return null;
+      }, WaasPriority.HIGH));
+    } catch (RejectedExecutionException e) {
+      // The scheduler has shut down, so nothing else can run the stop calls.
+      closeClient();
+    }
+  }
+
+  /**
+   * Stops any running polls and releases the Go client. Calls made afterwards fail; calls still
+   * in flight may fail as well. Call this when the service is no longer needed.
+   */
+  public void close() {
+    for (DeviceGroupPoller poller : pollers.values()) {
+      poller.close();
+    }
+    deviceGroups.invalidate(null);
+    closeClient();
+  }
+
+  private void closeClient() {
+    keyClient.ifLive(client -> {
+      client.stopPollingPendingDeviceGroup(new ResponseReceiver());
+      client.stopPollingPendingSignatures(new ResponseReceiver());
+      client.stopPollingPendingDeviceArchives(new ResponseReceiver());
+      client.stopPollingPendingDeviceBackups(new ResponseReceiver());
+      client.stopPollingPendingDevices(new ResponseReceiver());
+    });
+    keyClient.close();
+  }
+}
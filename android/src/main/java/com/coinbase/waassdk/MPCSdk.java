@@ -4,12 +4,10 @@ import static com.waassdkinternal.v1.V1.newMPCSdk;
 
 import android.content.Context;
 
-import org.json.JSONArray;
-
-import java.nio.charset.StandardCharsets;
+import java.io.File;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 /**
  * Utility functions for computing mpc operations on an android device,
@@ -19,26 +17,65 @@ public class MPCSdk {
   // The config to be used for MPCSdk initialization.
   private static final String mpcSdkConfig = "default";
 
-  // The handle to the Go MPCSdk class.
-  com.waassdkinternal.v1.MPCSdk sdk;
+  // The handle to the Go MPCSdk class; null once closed.
+  volatile com.waassdkinternal.v1.MPCSdk sdk;
+
+  WaasScheduler scheduler;
+
+  // The instance this view was created from, whose handle is the one closed; this for the root.
+  private final MPCSdk root;
 
-  ExecutorService executor;
+  // The DeviceGroup whose calls this view's calls are ordered with, or null for none.
+  private final String deviceGroup;
 
   /**
    * Initializes the MPCSdk  with the given parameters.
    * Resolves on success; rejects with an error otherwise.
    */
-  public MPCSdk(Context context, Boolean isSimulator, ExecutorService executorService) throws WaasException {
+  public MPCSdk(Context context, Boolean isSimulator, WaasScheduler scheduler) throws WaasException {
+    this.root = this;
+    this.deviceGroup = null;
     try {
       sdk = newMPCSdk(mpcSdkConfig, isSimulator, Callbacks.get(context));
-      executor = executorService;
+      this.scheduler = scheduler;
     } catch (Exception e) {
       throw new WaasException("error initializing mpcsdk: ", e.getMessage());
     }
   }
 
-  private <T> Future<T> call(Callable<T> callable) {
-    return executor.submit(callable);
+  /**
+   * Initializes the MPCSdk, running all calls on the given executor.
+   */
+  public MPCSdk(Context context, Boolean isSimulator, ExecutorService executorService) throws WaasException {
+    this(context, isSimulator, new WaasScheduler(executorService));
+  }
+
+  private MPCSdk(MPCSdk service, String deviceGroup) {
+    this.root = service.root;
+    this.sdk = service.sdk;
+    this.scheduler = service.scheduler;
+    this.deviceGroup = deviceGroup;
+  }
+
+  /**
+   * Returns a view of this MPCSdk whose calls run one at a time, in order, with the calls made
+   * through every other view for the same `deviceGroup`, as operations of one DeviceGroup may race
+   * inside the Go SDK. Calls for different DeviceGroups still run in parallel, as many as the
+   * COMPUTE lane has threads. A null DeviceGroup returns this MPCSdk, whose calls are unordered.
+   */
+  public MPCSdk orderedBy(String deviceGroup) {
+    return deviceGroup == null ? this : new MPCSdk(root, deviceGroup);
+  }
+
+  private <T> WaasFuture<T> call(WaasScheduler.Lane lane, WaasPriority priority, Callable<T> callable) {
+    WaasFuture<T> future = new WaasFuture<>(() -> {
+      if (root.sdk == null) {
+        throw new WaasException("client closed : ", "the service has been closed");
+      }
+      return callable.call();
+    }, priority);
+    scheduler.execute(lane, deviceGroup, future, null);
+    return future;
   }
 
   /**
@@ -76,8 +113,16 @@ public class MPCSdk {
    * ComputeMPCOperation computes an MPC operation, given mpcData from the response of ListMPCOperations API on
    * MPCKeyService. Resolves on success; rejects with an error otherwise.
    */
-  public Future<Void> computeMPCOperation(String mpcData) {
-    return call(() -> {
+  public WaasFuture<Void> computeMPCOperation(String mpcData) {
+    return computeMPCOperation(mpcData, WaasPriority.HIGH);
+  }
+
+  /**
+   * Same as {@link #computeMPCOperation(String)}, but scheduled with the given priority rather than {@link WaasPriority#HIGH}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<Void> computeMPCOperation(String mpcData, WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.HIGH, () -> {
       try {
         sdk.computeMPCOperation(mpcData);
         return null;
@@ -93,12 +138,33 @@ public class MPCSdk {
    * exporting private keys that back EVM addresses. Resolves with ExportPrivateKeysResponse object on success;
    * rejects with an error otherwise.
    */
-  public Future<JSONArray> exportPrivateKeys(String mpcKeyExportMetadata, String passcode) {
-    return call(() -> {
+  public WaasFuture<List<Object>> exportPrivateKeys(String mpcKeyExportMetadata, String passcode) {
+    return exportPrivateKeys(mpcKeyExportMetadata, passcode, WaasPriority.LOW);
+  }
+
+  /**
+   * Same as {@link #exportPrivateKeys(String, String)}, but scheduled with the given priority rather than {@link WaasPriority#LOW}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<List<Object>> exportPrivateKeys(String mpcKeyExportMetadata, String passcode, WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.LOW, () -> {
       try {
         byte[] exportPrivateKeysData = sdk.exportPrivateKeys(mpcKeyExportMetadata, passcode);
-        String exportPrivateKeysDataBytesToStrings = new String(exportPrivateKeysData, StandardCharsets.UTF_8);
-        return new JSONArray(exportPrivateKeysDataBytesToStrings);
+        return JsonDecoder.decodeArray(exportPrivateKeysData);
+      } catch (Exception e) {
+        throw new WaasException("exportPrivateKeys failed : ", e.getMessage());
+      }
+    });
+  }
+
+  /**
+   * Same as {@link #exportPrivateKeys(String, String, WaasPriority)}, but writes the ExportPrivateKeysResponse to `file`
+   * as the UTF-8 JSON the Go SDK returns, without decoding it. Resolves with the number of bytes written.
+   */
+  public WaasFuture<Long> exportPrivateKeys(String mpcKeyExportMetadata, String passcode, File file, WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.LOW, () -> {
+      try {
+        return ExportFiles.write(sdk.exportPrivateKeys(mpcKeyExportMetadata, passcode), file);
       } catch (Exception e) {
         throw new WaasException("exportPrivateKeys failed : ", e.getMessage());
       }
@@ -110,8 +176,16 @@ public class MPCSdk {
    * Computes an MPC operation of type PrepareDeviceArchive, given mpcData from the response of ListMPCOperations API on
    * MPCKeyService and passcode of the Device. Resolves on success; rejects with an error otherwise.
    */
-  public Future<Void> computePrepareDeviceArchiveMPCOperation(String mpcData, String passcode) {
-    return call(() -> {
+  public WaasFuture<Void> computePrepareDeviceArchiveMPCOperation(String mpcData, String passcode) {
+    return computePrepareDeviceArchiveMPCOperation(mpcData, passcode, WaasPriority.LOW);
+  }
+
+  /**
+   * Same as {@link #computePrepareDeviceArchiveMPCOperation(String, String)}, but scheduled with the given priority rather than {@link WaasPriority#LOW}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<Void> computePrepareDeviceArchiveMPCOperation(String mpcData, String passcode, WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.LOW, () -> {
       try {
         sdk.computePrepareDeviceArchiveMPCOperation(mpcData, passcode);
         return null;
@@ -125,8 +199,16 @@ public class MPCSdk {
    * Computes an MPC operation of type PrepareDeviceBackup, given mpcData from the response of ListMPCOperations API on
    * MPCKeyService and passcode of the Device. Resolves on success; rejects with an error otherwise.
    */
-  public Future<Void> computePrepareDeviceBackupMPCOperation(String mpcData, String passcode) {
-    return call(() -> {
+  public WaasFuture<Void> computePrepareDeviceBackupMPCOperation(String mpcData, String passcode) {
+    return computePrepareDeviceBackupMPCOperation(mpcData, passcode, WaasPriority.LOW);
+  }
+
+  /**
+   * Same as {@link #computePrepareDeviceBackupMPCOperation(String, String)}, but scheduled with the given priority rather than {@link WaasPriority#LOW}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<Void> computePrepareDeviceBackupMPCOperation(String mpcData, String passcode, WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.LOW, () -> {
       try {
         sdk.computePrepareDeviceBackupMPCOperation(mpcData, passcode);
         return null;
@@ -140,8 +222,16 @@ public class MPCSdk {
    * Exports device backup for the Device. The device backup is only available after the Device has computed PrepareDeviceBackup operation successfully.
    * Resolves with backup data as a hex-encoded string on success; rejects with an error otherwise.
    */
-  public Future<String> exportDeviceBackup() {
-    return call(() -> {
+  public WaasFuture<String> exportDeviceBackup() {
+    return exportDeviceBackup(WaasPriority.LOW);
+  }
+
+  /**
+   * Same as {@link #exportDeviceBackup()}, but scheduled with the given priority rather than {@link WaasPriority#LOW}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<String> exportDeviceBackup(WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.LOW, () -> {
       try {
         ResponseReceiver receiver = new ResponseReceiver();
         sdk.exportDeviceBackup(receiver);
@@ -152,12 +242,36 @@ public class MPCSdk {
     });
   }
 
+  /**
+   * Same as {@link #exportDeviceBackup(WaasPriority)}, but writes the backup to `file` as raw bytes, half the size of
+   * the hex-encoded string. Resolves with the number of bytes written.
+   */
+  public WaasFuture<Long> exportDeviceBackup(File file, WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.LOW, () -> {
+      try {
+        ResponseReceiver receiver = new ResponseReceiver();
+        sdk.exportDeviceBackup(receiver);
+        return ExportFiles.writeHex(receiver.get(), file);
+      } catch (Exception e) {
+        throw new WaasException("exportDeviceBackup failed : ", e.getMessage());
+      }
+    });
+  }
+
   /**
    * Computes an MPC operation of type AddDevice, given mpcData from the response of ListMPCOperations API on
    * MPCKeyService, passcode of the Device and deviceBackup created with PrepareDeviceBackup operation. Resolves on success; rejects with an error otherwise.
    */
-  public Future<Void> computeAddDeviceMPCOperation(String mpcData, String passcode, String deviceBackup) {
-    return call(() -> {
+  public WaasFuture<Void> computeAddDeviceMPCOperation(String mpcData, String passcode, String deviceBackup) {
+    return computeAddDeviceMPCOperation(mpcData, passcode, deviceBackup, WaasPriority.NORMAL);
+  }
+
+  /**
+   * Same as {@link #computeAddDeviceMPCOperation(String, String, String)}, but scheduled with the given priority rather than {@link WaasPriority#NORMAL}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<Void> computeAddDeviceMPCOperation(String mpcData, String passcode, String deviceBackup, WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.NORMAL, () -> {
       try {
         sdk.computeAddDeviceMPCOperation(mpcData, passcode, deviceBackup);
         return null;
@@ -167,6 +281,21 @@ public class MPCSdk {
     });
   }
 
+  /**
+   * Same as {@link #computeAddDeviceMPCOperation(String, String, String, WaasPriority)}, but reads the deviceBackup
+   * from a file written by {@link #exportDeviceBackup(File, WaasPriority)}.
+   */
+  public WaasFuture<Void> computeAddDeviceMPCOperation(String mpcData, String passcode, File deviceBackup, WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.NORMAL, () -> {
+      try {
+        sdk.computeAddDeviceMPCOperation(mpcData, passcode, ExportFiles.readHex(deviceBackup));
+        return null;
+      } catch (Exception e) {
+        throw new WaasException("computeAddDeviceMPCOperation failed : ", e.getMessage());
+      }
+    });
+  }
+
   /**
    * Resets the passcode used to encrypt the backups and archives of the DeviceGroups containing this Device.
    * While there is no need to call bootstrapDevice again, it is the client's responsibility to call and participate in
@@ -174,8 +303,16 @@ public class MPCSdk {
    * This function can be used when/if the end user forgets their old passcode.
    * resolves on success; a rejection otherwise.
    */
-  public Future<Void> resetPasscode(String newPasscode) {
-    return call(() -> {
+  public WaasFuture<Void> resetPasscode(String newPasscode) {
+    return resetPasscode(newPasscode, WaasPriority.NORMAL);
+  }
+
+  /**
+   * Same as {@link #resetPasscode(String)}, but scheduled with the given priority rather than {@link WaasPriority#NORMAL}.
+   * A null priority selects the default.
+   */
+  public WaasFuture<Void> resetPasscode(String newPasscode, WaasPriority priority) {
+    return call(WaasScheduler.Lane.COMPUTE, priority != null ? priority : WaasPriority.NORMAL, () -> {
       try {
         sdk.resetPasscode(newPasscode);
         return null;
@@ -184,5 +321,12 @@ public class MPCSdk {
       }
     });
   }
-}
 
+  /**
+   * Releases the Go MPCSdk, for this instance and all its views. Calls made afterwards fail. Unlike the clients of the network
+   * services, the MPCSdk is not released while idle, as it holds no connections to reclaim.
+   */
+  public void close() {
+    root.sdk = null;
+  }
+}
@@ -5,12 +5,12 @@ import static com.waassdkinternal.v1.V1.newMPCWalletService;
 import com.waassdkinternal.v1.CreateMPCWalletResponse;
 import com.waassdkinternal.v1.MPCWallet;
 
-import org.json.JSONObject;
-
-import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Methods for creating and managing MPC wallets with Coinbase.
@@ -19,12 +19,43 @@ public class MPCWalletService {
   // The URL of the MPCWalletService when running in "direct mode".
   public static final String mpcWalletServiceWaaSUrl = "https://api.developer.coinbase.com/waas/mpc_wallets";
 
-  com.waassdkinternal.v1.MPCWalletService walletsClient;
+  IdleClient<com.waassdkinternal.v1.MPCWalletService> walletsClient;
+
+  WaasScheduler scheduler;
+
+  // The deadline applied to every call made through this instance, or null for none.
+  WaasDeadline deadline;
+
+  // The Addresses looked up or generated, shared with every view of this service.
+  final AddressCache addresses;
+
+  private MPCWalletService(MPCWalletService service, WaasDeadline deadline) {
+    this.walletsClient = service.walletsClient;
+    this.scheduler = service.scheduler;
+    this.addresses = service.addresses;
+    this.deadline = deadline;
+  }
+
+  /**
+   * Returns a view of this service whose calls fail with {@link WaasDeadlineExceededException}
+   * if they do not complete by `deadline`. All calls made through the view draw on the same
+   * remaining budget. A null deadline returns this service.
+   */
+  public MPCWalletService withDeadline(WaasDeadline deadline) {
+    return deadline == null ? this : new MPCWalletService(this, deadline);
+  }
 
-  ExecutorService executor;
+  private <T> WaasFuture<T> call(WaasScheduler.Lane lane, Callable<T> callable) {
+    WaasFuture<T> future = new WaasFuture<>(walletsClient.using(callable));
+    scheduler.execute(lane, future, deadline);
+    return future;
+  }
 
-  private <T> Future<T> call(Callable<T> callable) {
-    return executor.submit(callable);
+  // Runs a request to the backend on the RPC lane, which adapts its limit to the request's latency.
+  private <T> WaasFuture<T> request(Callable<T> callable) {
+    WaasFuture<T> future = new WaasFuture<>(walletsClient.using(callable)).asNetworkCall();
+    scheduler.execute(WaasScheduler.Lane.RPC, future, deadline);
+    return future;
   }
 
   /**
@@ -33,7 +64,8 @@ public class MPCWalletService {
    * NOTE: You should almost never include these credentials in your app, and instead
    *       delegate to a proxy server to perform these calls.
    */
-  public MPCWalletService(String apiKeyName, String privateKey, String proxyUrl, ExecutorService executor) throws WaasException {
+  public MPCWalletService(String apiKeyName, String privateKey, String proxyUrl, WaasScheduler scheduler) throws WaasException {
+    this.addresses = new AddressCache(AddressCache.defaultMaxEntries, AddressCache.defaultTtlMillis, TimeUnit.MILLISECONDS);
     Boolean insecure;
 
     String mpcWalletServiceUrl;
@@ -47,21 +79,30 @@ public class MPCWalletService {
     }
 
     try {
-      walletsClient = newMPCWalletService(mpcWalletServiceUrl, apiKeyName, privateKey);
-      this.executor = executor;
+      String url = mpcWalletServiceUrl;
+      walletsClient = new IdleClient<>(newMPCWalletService(url, apiKeyName, privateKey),
+        () -> newMPCWalletService(url, apiKeyName, privateKey), scheduler);
+      this.scheduler = scheduler;
     } catch (Exception e) {
       throw new WaasException("initialize MPC wallet service failed : ", e.getMessage());
     }
   }
 
+  /**
+   * Initializes the MPCWalletService, running all calls on the given executor.
+   */
+  public MPCWalletService(String apiKeyName, String privateKey, String proxyUrl, ExecutorService executor) throws WaasException {
+    this(apiKeyName, privateKey, proxyUrl, new WaasScheduler(executor));
+  }
+
   /**
    * Creates an MPCWallet with the given parameters.  Resolves on success; rejects with an error
    * otherwise.
    */
-  public Future<CreateMPCWalletResponse> createMPCWallet(String poolId, String device) {
-    return call(() -> {
+  public WaasFuture<CreateMPCWalletResponse> createMPCWallet(String poolId, String device) {
+    return request(() -> {
       try {
-        return walletsClient.createMPCWallet(poolId, device);
+        return walletsClient.get().createMPCWallet(poolId, device);
       } catch (Exception e) {
         throw new WaasException("createMPCWallet failed : ", e.getMessage());
       }
@@ -72,10 +113,10 @@ public class MPCWalletService {
    * Waits for a pending MPCWallet with the given operation name. Resolves with the MPCWallet object on success;
    * rejects with an error otherwise.
    */
-  public Future<MPCWallet> waitPendingMPCWallet(String operation) {
-    return call(() -> {
+  public WaasFuture<MPCWallet> waitPendingMPCWallet(String operation) {
+    return call(WaasScheduler.Lane.WAIT, () -> {
       try {
-        return walletsClient.waitPendingMPCWallet(operation);
+        return walletsClient.get().waitPendingMPCWallet(operation);
       } catch (Exception e) {
         throw new WaasException("waitPendingMPCWallet failed : ", e.getMessage());
       }
@@ -85,15 +126,16 @@ public class MPCWalletService {
 
 
   /**
-   * Generates an Address within an MPCWallet.
+   * Generates an Address within an MPCWallet, and caches it for {@link #getAddress(String)}.
    * Resolves with the Address object on success; rejects with an error otherwise.
    */
-  public Future<Address> generateAddress(String mpcWallet, WaasNetwork network) {
-    return call(() -> {
+  public WaasFuture<Address> generateAddress(String mpcWallet, WaasNetwork network) {
+    return request(() -> {
       try {
-        byte[] addressData = walletsClient.generateAddress(mpcWallet, network.toString());
-        String addressDataBytesToStrings = new String(addressData, StandardCharsets.UTF_8);
-        return Address.fromJSON(new JSONObject(addressDataBytesToStrings));
+        byte[] addressData = walletsClient.get().generateAddress(mpcWallet, network.toString());
+        Address address = Address.fromMap(JsonDecoder.decodeObject(addressData));
+        addresses.put(address);
+        return address;
       } catch (Exception e) {
         throw new WaasException("generateAddress failed : ", e.getMessage());
       }
@@ -102,17 +144,48 @@ public class MPCWalletService {
 
   /**
    * Gets an Address with the given name. Resolves with the Address object on success; rejects with an error otherwise.
+   *
+   * Addresses are served from a cache shared by every view of this service once looked up or generated, and
+   * concurrent lookups of the same Address share one request, see {@link #getAddressCacheStats()}.
    */
-  public Future<Address> getAddress(String name) {
-    return call(() -> {
+  public WaasFuture<Address> getAddress(String name) {
+    return addresses.get(name, () -> request(() -> {
       try {
-        byte[] addressData = walletsClient.getAddress(name);
-        String addressDataBytesToStrings = new String(addressData, StandardCharsets.UTF_8);
-        return Address.fromJSON(new JSONObject(addressDataBytesToStrings));
+        byte[] addressData = walletsClient.get().getAddress(name);
+        return Address.fromMap(JsonDecoder.decodeObject(addressData));
       } catch (Exception e) {
         throw new WaasException("getAddress failed : ", e.getMessage());
       }
-    });
+    }));
+  }
+
+  /**
+   * Caches `known` for {@link #getAddress(String)}, e.g. the Addresses of a {@link MetadataSnapshot}
+   * restored at startup. As Addresses do not change once generated, they are served like looked up ones.
+   */
+  public void primeAddresses(Collection<Address> known) {
+    for (Address address : known) {
+      addresses.put(address);
+    }
   }
-}
 
+  /**
+   * Returns the counters of the Address cache: "hits", the getAddress calls served without a request of their own,
+   * "misses", those which sent one, and "size", the number of Addresses cached.
+   */
+  public Map<String, Long> getAddressCacheStats() {
+    Map<String, Long> stats = new HashMap<>();
+    stats.put("hits", addresses.hits());
+    stats.put("misses", addresses.misses());
+    stats.put("size", (long) addresses.size());
+    return stats;
+  }
+
+  /**
+   * Releases the Go client. Calls made afterwards fail. Call this when the service is no longer needed.
+   */
+  public void close() {
+    walletsClient.close();
+    addresses.clear();
+  }
+}
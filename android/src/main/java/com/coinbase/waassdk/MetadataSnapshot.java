@@ -0,0 +1,326 @@
+package com.coinbase.waassdk;
+
+import com.waassdkinternal.v1.Device;
+import com.waassdkinternal.v1.DeviceGroup;
+import com.waassdkinternal.v1.MPCWallet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An on-disk snapshot of the non-secret metadata the services resolve with: the registered Device,
+ * MPCWallets, Addresses and the membership of DeviceGroups. Loaded when the plugin attaches, so that
+ * an app can render from it right after a restart while it refreshes the data in the background.
+ *
+ * Nothing secret is kept: no passcodes, backups, mpcData or MPCKeyExportMetadata. Each section keeps
+ * the `maxEntries` most recently recorded entries.
+ *
+ * The file holds a magic number, the format version and the length of the records which follow;
+ * a file of another version, or which does not parse, is ignored rather than failing the load.
+ * It is read through a read-only memory mapping, and rewritten as a whole, atomically, shortly
+ * after the metadata changes.
+ */
+public final class MetadataSnapshot {
+  // "WSNP".
+  private static final int magic = 0x57534e50;
+  private static final int version = 1;
+  private static final int headerSize = 12;
+
+  private static final byte deviceRecord = 1;
+  private static final byte walletRecord = 2;
+  private static final byte addressRecord = 3;
+  private static final byte deviceGroupRecord = 4;
+
+  static final int maxEntries = 256;
+  // How long changes are batched before the file is rewritten.
+  private static final long flushDelayMillis = 1000;
+
+  private final File file;
+  private final WaasScheduler scheduler;
+  // Held across encoding and writing the file, so that flushes from the timer thread and from the
+  // plugin do not share the partial file, and a newer encoding is never replaced by an older one.
+  private final Object writeLock = new Object();
+
+  // Guarded by this.
+  private String device;
+  private final LinkedHashMap<String, String> wallets = new LinkedHashMap<>();
+  private final LinkedHashMap<String, Address> addresses = new LinkedHashMap<>();
+  private final LinkedHashMap<String, String> deviceGroups = new LinkedHashMap<>();
+  // Whether there are changes not yet written; a flush is scheduled while there are.
+  private boolean dirty;
+
+  private MetadataSnapshot(File file, WaasScheduler scheduler) {
+    this.file = file;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Loads the snapshot kept in `file`, or starts an empty one if there is none or it cannot be
+   * read. Changes are written back to `file` on the timer thread of `scheduler`.
+   */
+  public static MetadataSnapshot load(File file, WaasScheduler scheduler) {
+    MetadataSnapshot snapshot = new MetadataSnapshot(file, scheduler);
+    if (!file.isFile()) {
+      return snapshot;
+    }
+    try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+      snapshot.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (IOException | RuntimeException e) {
+      // A missing, partial or outdated snapshot only costs the fetches it would have saved.
+      snapshot.clearEntries();
+    }
+    return snapshot;
+  }
+
+  /**
+   * Records the result of `future` once it succeeds, if it is metadata the snapshot keeps: a
+   * Device, an MPCWallet, an Address or a DeviceGroup.
+   */
+  public <T> WaasFuture<T> recording(WaasFuture<T> future) {
+    future.addCallback(new WaasFuture.Callback<T>() {
+      @Override
+      public void onSuccess(T result) {
+        record(result);
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Returns the Addresses in the snapshot, e.g. to prime the cache of an {@link MPCWalletService}.
+   */
+  public synchronized List<Address> getAddresses() {
+    return new ArrayList<>(addresses.values());
+  }
+
+  /**
+   * Returns the snapshot as sent to Dart: "Device", the name of the registered Device or null,
+   * "MPCWallets", "Addresses" and "DeviceGroups", lists of maps with the keys their calls resolve
+   * with, least recently recorded first.
+   */
+  public synchronized Map<String, Object> toMap() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("Device", device);
+    List<Object> walletList = new ArrayList<>();
+    for (Map.Entry<String, String> wallet : wallets.entrySet()) {
+      Map<String, Object> entry = new HashMap<>();
+      entry.put("Name", wallet.getKey());
+      entry.put("DeviceGroup", wallet.getValue());
+      walletList.add(entry);
+    }
+    map.put("MPCWallets", walletList);
+    List<Object> addressList = new ArrayList<>();
+    for (Address address : addresses.values()) {
+      Map<String, Object> entry = new HashMap<>();
+      entry.put("Name", address.name);
+      entry.put("Address", address.address);
+      entry.put("MPCKeys", address.mpcKeys);
+      entry.put("MPCWallet", address.wallet);
+      addressList.add(entry);
+    }
+    map.put("Addresses", addressList);
+    List<Object> deviceGroupList = new ArrayList<>();
+    for (Map.Entry<String, String> deviceGroup : deviceGroups.entrySet()) {
+      Map<String, Object> entry = new HashMap<>();
+      entry.put("Name", deviceGroup.getKey());
+      entry.put("Devices", deviceGroup.getValue());
+      deviceGroupList.add(entry);
+    }
+    map.put("DeviceGroups", deviceGroupList);
+    return map;
+  }
+
+  /**
+   * Writes pending changes now, e.g. as the plugin detaches.
+   */
+  public void flush() {
+    synchronized (writeLock) {
+      byte[] bytes;
+      synchronized (this) {
+        if (!dirty) {
+          return;
+        }
+        dirty = false;
+        bytes = encode();
+      }
+      try {
+        ExportFiles.write(bytes, file);
+      } catch (IOException e) {
+        // Kept in memory; the next change retries.
+      }
+    }
+  }
+
+  private void record(Object result) {
+    synchronized (this) {
+      if (result instanceof Device) {
+        device = ((Device) result).getName();
+      } else if (result instanceof MPCWallet) {
+        MPCWallet wallet = (MPCWallet) result;
+        putBounded(wallets, wallet.getName(), wallet.getDeviceGroup());
+      } else if (result instanceof Address) {
+        Address address = (Address) result;
+        putBounded(addresses, address.name, address);
+      } else if (result instanceof DeviceGroup) {
+        DeviceGroup deviceGroup = (DeviceGroup) result;
+        byte[] devices = deviceGroup.getDevices();
+        String json = devices == null ? null : new String(devices, StandardCharsets.UTF_8);
+        putBounded(deviceGroups, deviceGroup.getName(), json);
+      } else {
+        return;
+      }
+      if (dirty) {
+        return;
+      }
+      dirty = true;
+    }
+    // If the scheduler is shut down, the change is written by the next flush.
+    scheduler.schedule(this::flush, flushDelayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  // Puts `value` as the most recently recorded entry, dropping the least recently recorded beyond maxEntries.
+  private static <V> void putBounded(LinkedHashMap<String, V> map, String key, V value) {
+    map.remove(key);
+    map.put(key, value);
+    Iterator<String> eldest = map.keySet().iterator();
+    while (map.size() > maxEntries) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  private synchronized void clearEntries() {
+    device = null;
+    wallets.clear();
+    addresses.clear();
+    deviceGroups.clear();
+  }
+
+  private byte[] encode() {
+    ByteArrayOutputStream records = new ByteArrayOutputStream();
+    try {
+      DataOutputStream out = new DataOutputStream(records);
+      if (device != null) {
+        out.writeByte(deviceRecord);
+        writeString(out, device);
+      }
+      for (Map.Entry<String, String> wallet : wallets.entrySet()) {
+        out.writeByte(walletRecord);
+        writeString(out, wallet.getKey());
+        writeString(out, wallet.getValue());
+      }
+      for (Address address : addresses.values()) {
+        out.writeByte(addressRecord);
+        writeString(out, address.name);
+        writeString(out, address.address);
+        writeString(out, address.wallet);
+        out.writeInt(address.mpcKeys.size());
+        for (String key : address.mpcKeys) {
+          writeString(out, key);
+        }
+      }
+      for (Map.Entry<String, String> deviceGroup : deviceGroups.entrySet()) {
+        out.writeByte(deviceGroupRecord);
+        writeString(out, deviceGroup.getKey());
+        writeString(out, deviceGroup.getValue());
+      }
+      ByteArrayOutputStream snapshot = new ByteArrayOutputStream(headerSize + records.size());
+      DataOutputStream header = new DataOutputStream(snapshot);
+      header.writeInt(magic);
+      header.writeInt(version);
+      header.writeInt(records.size());
+      records.writeTo(snapshot);
+      return snapshot.toByteArray();
+    } catch (IOException e) {
+      // Not thrown by in-memory streams.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // Reads the records of `buffer` into this snapshot; throws if it is not a snapshot of this version.
+  private synchronized void read(ByteBuffer buffer) throws IOException {
+    if (buffer.remaining() < headerSize || buffer.getInt() != magic || buffer.getInt() != version) {
+      throw new IOException("not a snapshot of version " + version);
+    }
+    int length = buffer.getInt();
+    if (length != buffer.remaining()) {
+      throw new IOException("truncated snapshot");
+    }
+    try {
+      while (buffer.hasRemaining()) {
+        byte record = buffer.get();
+        switch (record) {
+          case deviceRecord:
+            device = readString(buffer);
+            break;
+          case walletRecord:
+            putBounded(wallets, readString(buffer), readString(buffer));
+            break;
+          case addressRecord:
+            String name = readString(buffer);
+            String address = readString(buffer);
+            String wallet = readString(buffer);
+            int keyCount = buffer.getInt();
+            if (keyCount < 0 || keyCount > buffer.remaining() / 4) {
+              throw new IOException("invalid key count " + keyCount);
+            }
+            List<String> keys = new ArrayList<>(keyCount);
+            for (int i = 0; i < keyCount; i++) {
+              keys.add(readString(buffer));
+            }
+            putBounded(addresses, name, new Address(name, address, keys, wallet));
+            break;
+          case deviceGroupRecord:
+            putBounded(deviceGroups, readString(buffer), readString(buffer));
+            break;
+          default:
+            throw new IOException("unknown record " + record);
+        }
+      }
+    } catch (BufferUnderflowException e) {
+      throw new IOException("truncated record", e);
+    }
+  }
+
+  // Strings are written as their UTF-8 length, -1 for null, followed by their UTF-8 bytes.
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(utf8.length);
+    out.write(utf8);
+  }
+
+  private static String readString(ByteBuffer buffer) throws IOException {
+    int length = buffer.getInt();
+    if (length == -1) {
+      return null;
+    }
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IOException("invalid string length " + length);
+    }
+    byte[] utf8 = new byte[length];
+    buffer.get(utf8);
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+}
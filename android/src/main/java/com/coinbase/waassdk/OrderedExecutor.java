@@ -0,0 +1,100 @@
+package com.coinbase.waassdk;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the futures submitted under one key strictly one at a time, in submission order, while
+ * futures of different keys run in parallel on the lanes of a {@link WaasScheduler}: an actor
+ * per key, e.g. per DeviceGroup, whose mailbox lives here rather than in the lane's queue.
+ *
+ * The next future of a key is handed to its lane only once the previous one has returned from
+ * its thread, not merely completed: a future failed by its deadline keeps running in Go until
+ * the call returns, and the next one must not race it.
+ */
+class OrderedExecutor {
+  private final WaasScheduler scheduler;
+
+  // The futures waiting behind the running one, per key with a running future. Guarded by itself.
+  private final Map<String, ArrayDeque<Queued>> queues = new HashMap<>();
+
+  private static final class Queued {
+    final WaasScheduler.Lane lane;
+    final WaasFuture<?> future;
+
+    Queued(WaasScheduler.Lane lane, WaasFuture<?> future) {
+      this.lane = lane;
+      this.future = future;
+    }
+  }
+
+  OrderedExecutor(WaasScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Runs `future` on `lane` once every future submitted before it under `key` has run.
+   *
+   * @throws RejectedExecutionException If the scheduler has been shut down.
+   */
+  void execute(String key, WaasScheduler.Lane lane, WaasFuture<?> future) {
+    Queued queued = new Queued(lane, future);
+    synchronized (queues) {
+      ArrayDeque<Queued> queue = queues.get(key);
+      if (queue != null) {
+        queue.add(queued);
+        return;
+      }
+      queues.put(key, new ArrayDeque<>());
+    }
+    if (!dispatch(key, queued)) {
+      next(key);
+      throw new RejectedExecutionException("scheduler has been shut down");
+    }
+  }
+
+  // Hands `queued` to its lane, wrapped so that the key's next future follows once it has run.
+  // Returns false if the lane rejected it.
+  private boolean dispatch(String key, Queued queued) {
+    WaasFuture<Void> turn = new WaasFuture<>(() -> {
+      try {
+        queued.future.run();
+      } finally {
+        next(key);
+      }
+      return null;
+    }, queued.future.priority);
+    // Turns are only cancelled while queued, by WaasScheduler.shutdownNow().
+    turn.onCancel(() -> {
+      queued.future.cancel(false);
+      next(key);
+    });
+    try {
+      scheduler.execute(queued.lane, turn);
+      return true;
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
+  // Dispatches the next future of `key`, if any. Futures the lanes reject, as after shutdown, are
+  // cancelled so that their callers are notified.
+  private void next(String key) {
+    while (true) {
+      Queued queued;
+      synchronized (queues) {
+        queued = queues.get(key).poll();
+        if (queued == null) {
+          queues.remove(key);
+          return;
+        }
+      }
+      if (dispatch(key, queued)) {
+        return;
+      }
+      queued.future.cancel(false);
+    }
+  }
+}
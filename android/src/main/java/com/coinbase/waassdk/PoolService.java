@@ -4,8 +4,8 @@ import static com.waassdkinternal.v1.V1.newPoolService;
 
 import com.waassdkinternal.v1.Pool;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 /**
  * Methods for creating/modifying pools.
@@ -15,8 +15,11 @@ public class PoolService {
   // The URL of the PoolService when running in "direct mode".
   public static final String poolServiceWaaSUrl = "https://api.developer.coinbase.com/waas/pools";
   // The handle to the Go PoolService client.
-  com.waassdkinternal.v1.PoolService poolClient;
-  ExecutorService executor;
+  IdleClient<com.waassdkinternal.v1.PoolService> poolClient;
+  WaasScheduler scheduler;
+
+  // The deadline applied to every call made through this instance, or null for none.
+  WaasDeadline deadline;
 
   /**
    * Initializes the PoolService with the given Cloud API Key parameters or proxy URL.
@@ -24,8 +27,8 @@ public class PoolService {
    * Uses direct WaaS URL with the API keys if both are provided.
    * Resolves with the string "success" on success; rejects with an error otherwise.
    */
-  public PoolService(String apiKeyName, String privateKey, String proxyUrl, ExecutorService executor) throws WaasException {
-    this.executor = executor;
+  public PoolService(String apiKeyName, String privateKey, String proxyUrl, WaasScheduler scheduler) throws WaasException {
+    this.scheduler = scheduler;
 
     Boolean insecure;
 
@@ -40,23 +43,61 @@ public class PoolService {
     }
 
     try {
-      poolClient = newPoolService(poolServiceUrl, apiKeyName, privateKey);
+      String url = poolServiceUrl;
+      poolClient = new IdleClient<>(newPoolService(url, apiKeyName, privateKey),
+        () -> newPoolService(url, apiKeyName, privateKey), scheduler);
     } catch (Exception e) {
       throw new WaasException("initialize pool failed : ", e.getMessage());
     }
   }
 
+  /**
+   * Initializes the PoolService, running all calls on the given executor.
+   */
+  public PoolService(String apiKeyName, String privateKey, String proxyUrl, ExecutorService executor) throws WaasException {
+    this(apiKeyName, privateKey, proxyUrl, new WaasScheduler(executor));
+  }
+
+  private PoolService(PoolService service, WaasDeadline deadline) {
+    this.poolClient = service.poolClient;
+    this.scheduler = service.scheduler;
+    this.deadline = deadline;
+  }
+
+  /**
+   * Returns a view of this service whose calls fail with {@link WaasDeadlineExceededException}
+   * if they do not complete by `deadline`. All calls made through the view draw on the same
+   * remaining budget. A null deadline returns this service.
+   */
+  public PoolService withDeadline(WaasDeadline deadline) {
+    return deadline == null ? this : new PoolService(this, deadline);
+  }
+
+  // Runs a request to the backend on the RPC lane, which adapts its limit to the request's latency.
+  private <T> WaasFuture<T> request(Callable<T> callable) {
+    WaasFuture<T> future = new WaasFuture<>(poolClient.using(callable)).asNetworkCall();
+    scheduler.execute(WaasScheduler.Lane.RPC, future, deadline);
+    return future;
+  }
+
   /**
    * Creates a Pool with the given parameters.  Resolves with the created Pool object on success; rejects with an error
    * otherwise.
    */
-  public Future<Pool> createPool(String displayName, String poolID) {
-    return executor.submit(() -> {
+  public WaasFuture<Pool> createPool(String displayName, String poolID) {
+    return request(() -> {
       try {
-        return poolClient.createPool(displayName, poolID);
+        return poolClient.get().createPool(displayName, poolID);
       } catch (Exception e) {
         throw new WaasException("create pool failed : ", e.getMessage());
       }
     });
   }
+
+  /**
+   * Releases the Go client. Calls made afterwards fail. Call this when the service is no longer needed.
+   */
+  public void close() {
+    poolClient.close();
+  }
 }
@@ -0,0 +1,111 @@
+package com.coinbase.waassdk;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the pending operations already delivered to one listener, so that later results can
+ * be reduced to the operations which are new or have changed since.
+ *
+ * Only a 64-bit fingerprint of each operation's contents is kept, not the operation itself, so that
+ * delivered mpcData is not held on to; an operation counts as changed when its fingerprint does.
+ *
+ * Bounded: once `capacity` operations are remembered, the least recently seen is forgotten, and
+ * would be delivered again should it still be pending.
+ */
+class SeenOperations {
+  static final int defaultCapacity = 256;
+
+  // Seeds which tell apart values of different kinds with the same contents, e.g. "1" and 1.
+  private static final long nullSeed = 0x6a09e667f3bcc908L;
+  private static final long stringSeed = 0xbb67ae8584caa73bL;
+  private static final long scalarSeed = 0x3c6ef372fe94f82bL;
+  private static final long listSeed = 0xa54ff53a5f1d36f1L;
+  private static final long mapSeed = 0x510e527fade682d1L;
+
+  // Operation name to the fingerprint of the operation, in least recently seen order.
+  private final Map<String, Long> seen;
+
+  SeenOperations(int capacity) {
+    this.seen = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Returns the operations of `operations` which are new or have changed, and remembers them all.
+   */
+  List<Object> filterNew(List<Object> operations) {
+    List<Object> fresh = new ArrayList<>();
+    for (Object operation : operations) {
+      long fingerprint = fingerprintOf(operation);
+      Long previous = seen.put(nameOf(operation), fingerprint);
+      if (previous == null || previous != fingerprint) {
+        fresh.add(operation);
+      }
+    }
+    return fresh;
+  }
+
+  // Hashes a decoded operation, made of maps, lists, strings and scalars, by value. Map entries are
+  // combined regardless of order, as equal maps may iterate in different orders.
+  static long fingerprintOf(Object value) {
+    if (value == null) {
+      return nullSeed;
+    }
+    if (value instanceof String) {
+      return hashChars(stringSeed, (String) value);
+    }
+    if (value instanceof Map) {
+      long hash = mapSeed;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        hash += mix(fingerprintOf(entry.getKey()) * 31 + fingerprintOf(entry.getValue()));
+      }
+      return mix(hash);
+    }
+    if (value instanceof List) {
+      long hash = listSeed;
+      for (Object element : (List<?>) value) {
+        hash = mix(hash ^ fingerprintOf(element));
+      }
+      return hash;
+    }
+    return hashChars(scalarSeed, String.valueOf(value));
+  }
+
+  // 64-bit FNV-1a over the chars of `s`, starting from `seed`.
+  private static long hashChars(long seed, String s) {
+    long hash = seed;
+    for (int i = 0; i < s.length(); i++) {
+      hash = (hash ^ s.charAt(i)) * 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  // The SplitMix64 finalizer, so that similar inputs give unrelated fingerprints.
+  private static long mix(long x) {
+    x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+    x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+    return x ^ (x >>> 31);
+  }
+
+  // Pending operations are identified by their "Operation" resource name.
+  private static String nameOf(Object operation) {
+    if (operation instanceof Map) {
+      Map<?, ?> object = (Map<?, ?>) operation;
+      Object name = object.get("Operation");
+      if (!(name instanceof String)) {
+        name = object.get("Name");
+      }
+      if (name instanceof String) {
+        return (String) name;
+      }
+    }
+    return String.valueOf(operation);
+  }
+}
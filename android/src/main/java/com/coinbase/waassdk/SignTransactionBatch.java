@@ -0,0 +1,133 @@
+package com.coinbase.waassdk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signs a batch of transactions of one MPCKey, as from
+ * {@link MPCKeyService#signTransactions(MPCSdk, String, String, List, int, int, Listener)}.
+ *
+ * Each transaction goes through its own signTransaction pipeline. At most `parallelism`
+ * pipelines are in flight at once: their Signatures are created and claimed one after the other,
+ * while their MPC computations run in parallel on the COMPUTE lane. Results are reported to the
+ * listener as they complete, in any order; a failed transaction does not stop the others.
+ *
+ * Resolves once every transaction has been signed or has failed. Cancelling it cancels the
+ * pipelines in flight and skips the transactions not started yet.
+ */
+public class SignTransactionBatch extends WaasFuture<Void> {
+
+  /**
+   * Receives the outcome of every transaction of a batch, on the thread which completed it.
+   */
+  public interface Listener {
+    void onSigned(int index, SignedTransactionResult result);
+
+    void onFailed(int index, Throwable error);
+  }
+
+  private final MPCKeyService keys;
+  private final MPCSdk mpcSdk;
+  private final String deviceGroup;
+  private final String parent;
+  private final List<byte[]> serializedTxs;
+  private final int pollInterval;
+  private final int parallelism;
+  private final Listener listener;
+
+  // Guarded by this.
+  private int nextIndex;
+  private final Map<Integer, WaasFuture<SignedTransactionResult>> inFlight = new HashMap<>();
+
+  SignTransactionBatch(MPCKeyService keys, MPCSdk mpcSdk, String deviceGroup, String parent, List<byte[]> serializedTxs,
+                       int pollInterval, int parallelism, WaasPriority priority, Listener listener) {
+    super(() -> {
+      throw new IllegalStateException("completed by the batch");
+    }, priority);
+    this.keys = keys;
+    this.mpcSdk = mpcSdk;
+    this.deviceGroup = deviceGroup;
+    this.parent = parent;
+    this.serializedTxs = new ArrayList<>(serializedTxs);
+    this.pollInterval = pollInterval;
+    this.parallelism = Math.max(1, parallelism);
+    this.listener = listener;
+    onCancel(() -> {
+      List<WaasFuture<SignedTransactionResult>> running;
+      synchronized (this) {
+        running = new ArrayList<>(inFlight.values());
+      }
+      for (WaasFuture<SignedTransactionResult> pipeline : running) {
+        // Pipelines still being created are cancelled by start().
+        if (pipeline != null) {
+          pipeline.cancel(true);
+        }
+      }
+    });
+  }
+
+  /**
+   * Starts pipelines until `parallelism` are in flight, and resolves the batch once all are done.
+   */
+  void advance() {
+    while (true) {
+      int index;
+      synchronized (this) {
+        if (isDone()) {
+          return;
+        }
+        if (nextIndex == serializedTxs.size() && inFlight.isEmpty()) {
+          break;
+        }
+        if (nextIndex == serializedTxs.size() || inFlight.size() >= parallelism) {
+          return;
+        }
+        index = nextIndex++;
+        // Reserves the slot until the pipeline exists.
+        inFlight.put(index, null);
+      }
+      start(index);
+    }
+    set(null);
+  }
+
+  private void start(int index) {
+    WaasFuture<SignedTransactionResult> pipeline;
+    try {
+      pipeline = keys.signTransaction(mpcSdk, deviceGroup, parent, serializedTxs.get(index), pollInterval, priority);
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        inFlight.remove(index);
+      }
+      listener.onFailed(index, e);
+      return;
+    }
+    synchronized (this) {
+      inFlight.put(index, pipeline);
+    }
+    if (isCancelled()) {
+      pipeline.cancel(true);
+    }
+    pipeline.addCallback(new Callback<SignedTransactionResult>() {
+      @Override
+      public void onSuccess(SignedTransactionResult result) {
+        finish(index);
+        listener.onSigned(index, result);
+        advance();
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+        finish(index);
+        listener.onFailed(index, error);
+        advance();
+      }
+    });
+  }
+
+  private synchronized void finish(int index) {
+    inFlight.remove(index);
+  }
+}
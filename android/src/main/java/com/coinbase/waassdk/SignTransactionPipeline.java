@@ -0,0 +1,139 @@
+package com.coinbase.waassdk;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signs one transaction by running the whole signing flow on the Java side: creates the
+ * Signature, waits for its pending operation through the DeviceGroup's poller, computes the MPC
+ * operation on this device, waits for the Signature and builds the signed transaction.
+ *
+ * Each stage starts from the callback of the previous one, so no thread is parked between stages,
+ * and the transaction and Signature never leave Java. Cancelling the pipeline cancels the stage in
+ * flight. Completed by {@link #start()}, which {@link MPCKeyService} calls once the previous
+ * pipeline of the same DeviceGroup has claimed its pending Signature.
+ */
+class SignTransactionPipeline extends WaasFuture<SignedTransactionResult> {
+
+  // A stage's continuation; what it throws fails the pipeline.
+  private interface Step<T> {
+    void accept(T result) throws Exception;
+  }
+
+  private final MPCKeyService keys;
+  private final MPCSdk mpcSdk;
+  private final String deviceGroup;
+  private final String parent;
+  private final byte[] serializedTx;
+  private final int pollInterval;
+
+  private final long createdAtNanos = System.nanoTime();
+  // Written by one stage at a time; each stage's completion happens-before the next stage.
+  private final Map<SignedTransactionResult.Stage, Long> stageNanos = new EnumMap<>(SignedTransactionResult.Stage.class);
+  // The future of the stage in flight.
+  private volatile WaasFuture<?> stage;
+
+  // Completes once this pipeline has taken its pending Signature, or has ended without one; the
+  // next pipeline of the DeviceGroup may then wait for a pending Signature of its own.
+  final WaasFuture<Void> claimed = new WaasFuture<>(() -> null);
+
+  SignTransactionPipeline(MPCKeyService keys, MPCSdk mpcSdk, String deviceGroup, String parent,
+                          byte[] serializedTx, int pollInterval, WaasPriority priority) {
+    super(() -> {
+      throw new IllegalStateException("completed by the pipeline");
+    }, priority);
+    this.keys = keys;
+    this.mpcSdk = mpcSdk;
+    this.deviceGroup = deviceGroup;
+    this.parent = parent;
+    this.serializedTx = serializedTx;
+    this.pollInterval = pollInterval;
+    onCancel(() -> {
+      WaasFuture<?> current = stage;
+      if (current != null) {
+        current.cancel(true);
+      }
+    });
+  }
+
+  /**
+   * Runs the pipeline, unless it has been cancelled or failed while queued.
+   */
+  void start() {
+    if (isDone()) {
+      return;
+    }
+    stageNanos.put(SignedTransactionResult.Stage.QUEUE, System.nanoTime() - createdAtNanos);
+    try {
+      then(SignedTransactionResult.Stage.CREATE_SIGNATURE, keys.createSignatureFromTx(parent, serializedTx, priority),
+        this::pollPendingSignature);
+    } catch (RuntimeException e) {
+      setException(e);
+    }
+  }
+
+  // Waits for the pending Signature of the transaction; `created` is what createSignatureFromTx
+  // resolved with. Every pending Signature is looked at, including those already handed to other
+  // callers, and the DeviceGroup's claims tell which one is this pipeline's own.
+  private void pollPendingSignature(String created) {
+    DeviceGroupPoller poller = keys.pollerFor(deviceGroup, pollInterval);
+    then(SignedTransactionResult.Stage.POLL_PENDING_SIGNATURE, poller.next(EnumSet.of(DeviceGroupPoller.Kind.SIGNATURES), true), operations -> {
+      List<Object> signatures = operations.get(DeviceGroupPoller.Kind.SIGNATURES);
+      Map<?, ?> pending = keys.signatureClaimsOf(deviceGroup)
+        .claim(signatures != null ? signatures : Collections.emptyList(), created);
+      if (pending == null) {
+        // Only Signatures of others are pending so far; they would be found again right away.
+        if (!keys.scheduler.schedule(() -> pollPendingSignature(created), pollInterval, TimeUnit.MILLISECONDS)) {
+          throw new WaasException("signTransaction failed : ", "scheduler has been shut down");
+        }
+        return;
+      }
+      String operation = String.valueOf(pending.get("Operation"));
+      String mpcData = String.valueOf(pending.get("MPCData"));
+      claimed.run();
+      then(SignedTransactionResult.Stage.COMPUTE_MPC_OPERATION, mpcSdk.orderedBy(deviceGroup).computeMPCOperation(mpcData, priority), computed ->
+        then(SignedTransactionResult.Stage.WAIT_PENDING_SIGNATURE, keys.waitPendingSignature(operation, priority), signature ->
+          then(SignedTransactionResult.Stage.GET_SIGNED_TRANSACTION, keys.getSignedTransaction(serializedTx, signature, priority), signed ->
+            set(new SignedTransactionResult(signed, signature, stageNanos, System.nanoTime() - createdAtNanos)))));
+    });
+  }
+
+  // Adds the duration of `stage` once `future` completes, then continues with `next`, or fails
+  // the pipeline with the stage's error.
+  private <T> void then(SignedTransactionResult.Stage name, WaasFuture<T> future, Step<T> next) {
+    long startedAtNanos = System.nanoTime();
+    stage = future;
+    if (isDone()) {
+      // Cancelled before the stage was published to the cancel action.
+      future.cancel(true);
+      return;
+    }
+    future.addCallback(new Callback<T>() {
+      @Override
+      public void onSuccess(T result) {
+        // A stage may run more than once, e.g. the poll until the pipeline's Signature appears.
+        Long earlier = stageNanos.get(name);
+        stageNanos.put(name, (earlier != null ? earlier : 0) + System.nanoTime() - startedAtNanos);
+        if (isDone()) {
+          return;
+        }
+        try {
+          next.accept(result);
+        } catch (WaasException e) {
+          setException(e);
+        } catch (Exception e) {
+          setException(new WaasException("signTransaction failed : ", e.getMessage()));
+        }
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+        setException(error);
+      }
+    });
+  }
+}
@@ -0,0 +1,116 @@
+package com.coinbase.waassdk;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tells the pending Signature of a signTransaction pipeline apart from the other pending Signatures
+ * of its DeviceGroup: those created by other callers of createSignatureFromTx, e.g. Dart, and those
+ * left behind by pipelines which failed or were cancelled before claiming theirs.
+ *
+ * The Go API does not say which pending Signature belongs to which transaction, so every Signature
+ * created for the DeviceGroup is counted until it is accounted for: claimed by a pipeline, or waited
+ * on through waitPendingSignature by its creator. A pipeline only takes a pending Signature when it
+ * is the single one not accounted for and no other Signature is outstanding; otherwise it cannot
+ * know which is its own, and fails rather than sign someone else's transaction.
+ *
+ * Only pipelines of one DeviceGroup claim Signatures one at a time, see
+ * {@link MPCKeyService#signTransaction(MPCSdk, String, String, byte[], int)}.
+ */
+final class SignatureClaims {
+  // What createSignatureFromTx resolves with when it does not name the operation it started.
+  private static final String acknowledgement = "success";
+
+  // Guarded by this. The Signature operations accounted for, in least recently accounted order.
+  private final LinkedHashMap<String, Boolean> accounted;
+  // Guarded by this. The Signatures created for the DeviceGroup which are not accounted for yet.
+  private int outstanding;
+
+  SignatureClaims(int capacity) {
+    this.accounted = new LinkedHashMap<String, Boolean>(16, 0.75f, false) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Counts a Signature created for the DeviceGroup, by a pipeline or any other caller.
+   */
+  synchronized void created() {
+    outstanding++;
+  }
+
+  /**
+   * Accounts for the Signature operation `operation`, which its creator is waiting on.
+   */
+  synchronized void waitedOn(String operation) {
+    account(operation);
+  }
+
+  /**
+   * Returns whether the Signature operation `operation` has been accounted for.
+   */
+  synchronized boolean accounts(String operation) {
+    return accounted.containsKey(operation);
+  }
+
+  /**
+   * Returns whether Signatures created for the DeviceGroup are not accounted for yet.
+   */
+  synchronized boolean hasOutstanding() {
+    return outstanding > 0;
+  }
+
+  /**
+   * Returns the pipeline's own Signature among `pending`, the pending Signatures of the DeviceGroup,
+   * and accounts for it; null if it has not appeared yet. `created` is what the pipeline's
+   * createSignatureFromTx resolved with: if it names an operation, only that operation is taken.
+   *
+   * @throws WaasException If the pipeline's Signature cannot be told apart from others. The pending
+   *                       Signatures are then accounted for, so that later pipelines do not take them.
+   */
+  synchronized Map<?, ?> claim(List<Object> pending, String created) throws WaasException {
+    List<Map<?, ?>> candidates = new ArrayList<>();
+    for (Object operation : pending) {
+      if (!(operation instanceof Map)) {
+        continue;
+      }
+      Map<?, ?> signature = (Map<?, ?>) operation;
+      Object name = signature.get("Operation");
+      if (!(name instanceof String) || accounted.containsKey(name)) {
+        continue;
+      }
+      if (created != null && !created.isEmpty() && !acknowledgement.equals(created)) {
+        if (created.equals(name)) {
+          account((String) name);
+          return signature;
+        }
+        continue;
+      }
+      candidates.add(signature);
+    }
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    if (candidates.size() == 1 && outstanding <= 1) {
+      account((String) candidates.get(0).get("Operation"));
+      return candidates.get(0);
+    }
+    int others = Math.max(candidates.size(), outstanding) - 1;
+    for (Map<?, ?> candidate : candidates) {
+      account((String) candidate.get("Operation"));
+    }
+    throw new WaasException("signTransaction failed : ",
+      "cannot tell this transaction's pending Signature from " + others + " other(s) of the DeviceGroup");
+  }
+
+  private void account(String operation) {
+    if (accounted.put(operation, Boolean.TRUE) == null && outstanding > 0) {
+      outstanding--;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.coinbase.waassdk;
+
+import com.waassdkinternal.v1.Signature;
+import com.waassdkinternal.v1.SignedTransaction;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The outcome of {@link MPCKeyService#signTransaction(MPCSdk, String, String, byte[], int)}:
+ * the signed transaction, the Signature it was built from, and how long each stage of the
+ * pipeline took.
+ */
+public final class SignedTransactionResult {
+
+  /**
+   * The stages of the signing pipeline, in the order they run.
+   */
+  public enum Stage {
+    // Waiting for an earlier pipeline of the same DeviceGroup to finish.
+    QUEUE("queue"),
+    CREATE_SIGNATURE("createSignatureFromTx"),
+    POLL_PENDING_SIGNATURE("pollForPendingSignatures"),
+    COMPUTE_MPC_OPERATION("computeMPCOperation"),
+    WAIT_PENDING_SIGNATURE("waitPendingSignature"),
+    GET_SIGNED_TRANSACTION("getSignedTransaction");
+
+    private final String key;
+
+    Stage(String key) {
+      this.key = key;
+    }
+
+    /**
+     * Returns the name of the stage, which is the name of the call it makes.
+     */
+    public String getKey() {
+      return key;
+    }
+  }
+
+  private final SignedTransaction signedTransaction;
+  private final Signature signature;
+  private final Map<Stage, Long> stageNanos;
+  private final long totalNanos;
+
+  SignedTransactionResult(SignedTransaction signedTransaction, Signature signature, Map<Stage, Long> stageNanos, long totalNanos) {
+    this.signedTransaction = signedTransaction;
+    this.signature = signature;
+    this.stageNanos = Collections.unmodifiableMap(new EnumMap<>(stageNanos));
+    this.totalNanos = totalNanos;
+  }
+
+  public SignedTransaction getSignedTransaction() {
+    return signedTransaction;
+  }
+
+  public Signature getSignature() {
+    return signature;
+  }
+
+  /**
+   * Returns how long each stage took, in nanoseconds.
+   */
+  public Map<Stage, Long> getStageNanos() {
+    return stageNanos;
+  }
+
+  /**
+   * Returns how long the whole pipeline took, in nanoseconds, from the call to its completion.
+   */
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+}
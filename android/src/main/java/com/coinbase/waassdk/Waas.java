@@ -2,9 +2,6 @@ package com.coinbase.waassdk;
 
 import android.content.Context;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
 /**
  * A utility class for talking to several Waas services
  * at the same time. You likely do not want to use this, as
@@ -18,15 +15,42 @@ public class Waas {
   public final MPCWalletService wallets;
   public final PoolService pools;
 
-  ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+  private final WaasScheduler scheduler;
+  // Whether the scheduler was created by this instance, and is shut down by close().
+  private final boolean ownsScheduler;
 
   public Waas(String apiKey, String privateKey, Context context, boolean isSimulator, String passcode) throws WaasException {
-    mpc = new MPCSdk(context, isSimulator, executor);
-    keys = new MPCKeyService(apiKey, privateKey,"", executor);
-    wallets = new MPCWalletService(apiKey, privateKey, "", executor);
-    pools = new PoolService(apiKey, privateKey, "", executor);
+    this(apiKey, privateKey, context, isSimulator, passcode, new WaasScheduler(), true);
+  }
+
+  public Waas(String apiKey, String privateKey, Context context, boolean isSimulator, String passcode, WaasScheduler scheduler) throws WaasException {
+    this(apiKey, privateKey, context, isSimulator, passcode, scheduler, false);
+  }
+
+  private Waas(String apiKey, String privateKey, Context context, boolean isSimulator, String passcode, WaasScheduler scheduler,
+               boolean ownsScheduler) throws WaasException {
+    this.scheduler = scheduler;
+    this.ownsScheduler = ownsScheduler;
+    mpc = new MPCSdk(context, isSimulator, scheduler);
+    keys = new MPCKeyService(apiKey, privateKey,"", scheduler);
+    wallets = new MPCWalletService(apiKey, privateKey, "", scheduler);
+    pools = new PoolService(apiKey, privateKey, "", scheduler);
 
     // mpc needs to be bootstrapped once.
     mpc.bootstrapDevice(passcode);
   }
+
+  /**
+   * Closes all services. Their calls fail afterwards. A scheduler created by this instance is
+   * shut down too; one passed in is left to its owner.
+   */
+  public void close() {
+    keys.close();
+    wallets.close();
+    pools.close();
+    mpc.close();
+    if (ownsScheduler) {
+      scheduler.shutdownNow();
+    }
+  }
 }
@@ -0,0 +1,134 @@
+package com.coinbase.waassdk;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adapts the number of concurrent requests to a WaaS backend from their observed latency and
+ * drops, in the style of TCP Vegas with AIMD backoff.
+ *
+ * The limiter tracks the lowest recent round-trip time as the latency of an unloaded link.
+ * While requests complete close to it, the link has spare capacity and the limit grows by one
+ * per sample, as long as the current limit is actually being used. Once latency rises well above
+ * it, requests are queueing somewhere between the device and the server, and the limit is cut
+ * multiplicatively; requests which are dropped or time out cut it the same way. The baseline is
+ * re-learned periodically so that moving from Wi-Fi to a cellular link does not leave it pinned
+ * to the old, faster link.
+ *
+ * The limiter only computes the limit; {@link WaasScheduler} applies it to the RPC lane.
+ */
+public class WaasConcurrencyLimiter {
+  // Samples completing within this fraction of the baseline latency let the limit grow.
+  private static final double growThreshold = 0.8;
+  // Samples completing beyond this fraction of the baseline latency shrink the limit.
+  private static final double shrinkThreshold = 0.5;
+  // The factor by which the limit is cut on congestion or a drop.
+  private static final double backoffRatio = 0.9;
+  // How long a baseline latency is trusted before it is re-learned.
+  private static final long baselineTtlNanos = TimeUnit.SECONDS.toNanos(60);
+  // Samples faster than this cannot have crossed the network, and are ignored rather than taken
+  // as the baseline, which would make every real request look congested.
+  private static final long minRttNanos = TimeUnit.MILLISECONDS.toNanos(1);
+  // Parts of the messages of Go errors which mean a request was lost or timed out in transport,
+  // lower case. Other errors, e.g. an invalid argument, are answers from a healthy backend.
+  private static final String[] dropMarkers = {
+    "code = unavailable",
+    "code = deadlineexceeded",
+    "code = resourceexhausted",
+    "context deadline exceeded",
+    "i/o timeout",
+    "tls handshake timeout",
+    "connection refused",
+    "connection reset",
+    "broken pipe",
+    "no such host",
+    "network is unreachable",
+  };
+
+  private final int minLimit;
+  private final int maxLimit;
+
+  private int limit;
+  // The lowest round-trip time seen since `baselineSetAtNanos`; 0 if none yet.
+  private long baselineNanos;
+  private long baselineSetAtNanos;
+
+  /**
+   * @param initialLimit The limit to start from, clamped to [minLimit, maxLimit].
+   * @param minLimit     The lowest the limit may fall; at least 1.
+   * @param maxLimit     The highest the limit may rise.
+   */
+  public WaasConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("invalid limits: [" + minLimit + ", " + maxLimit + "]");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = clamp(initialLimit);
+  }
+
+  /**
+   * Returns the current number of requests which may be in flight at once.
+   */
+  public synchronized int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Records the outcome of one request and returns the updated limit.
+   *
+   * @param rttNanos The time the request took.
+   * @param dropped  Whether the request was lost or timed out in transport, see {@link #isDrop(Throwable)}.
+   * @param inFlight The number of requests in flight when it completed, including itself.
+   */
+  synchronized int onSample(long rttNanos, boolean dropped, int inFlight) {
+    if (dropped) {
+      limit = clamp((int) (limit * backoffRatio));
+      return limit;
+    }
+    if (rttNanos < minRttNanos) {
+      return limit;
+    }
+    long now = System.nanoTime();
+    if (baselineNanos == 0 || rttNanos < baselineNanos || now - baselineSetAtNanos > baselineTtlNanos) {
+      baselineNanos = Math.max(1, rttNanos);
+      baselineSetAtNanos = now;
+    }
+    double gradient = baselineNanos / (double) Math.max(1, rttNanos);
+    if (gradient >= growThreshold) {
+      // Only grow a limit which is being used; an idle link says nothing about its capacity.
+      if (inFlight * 2 >= limit) {
+        limit = clamp(limit + 1);
+      }
+    } else if (gradient < shrinkThreshold) {
+      limit = clamp((int) (limit * backoffRatio));
+    }
+    return limit;
+  }
+
+  /**
+   * Returns whether a request which failed with `error` was dropped: it exceeded its deadline, or
+   * failed to reach the backend or to get an answer from it. Only drops signal congestion; an error
+   * answered by the backend does not.
+   */
+  static boolean isDrop(Throwable error) {
+    if (error instanceof WaasDeadlineExceededException) {
+      return true;
+    }
+    String message = error == null ? null : error.getMessage();
+    if (message == null) {
+      return false;
+    }
+    message = message.toLowerCase(Locale.ROOT);
+    for (String marker : dropMarkers) {
+      if (message.contains(marker)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int clamp(int value) {
+    return Math.max(minLimit, Math.min(maxLimit, value));
+  }
+}
@@ -0,0 +1,42 @@
+package com.coinbase.waassdk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which a Waas call must complete.
+ *
+ * A deadline is an absolute budget: every call made through
+ * {@link MPCKeyService#withDeadline(WaasDeadline)} and its counterparts on the other services
+ * draws on the same remaining time, so a multi-step flow does not stack independent timeouts.
+ * Calls which have not completed once the deadline passes fail with
+ * {@link WaasDeadlineExceededException}.
+ */
+public final class WaasDeadline {
+  // The deadline in System.nanoTime() units.
+  private final long deadlineNanos;
+
+  private WaasDeadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /**
+   * Returns a deadline the given duration from now.
+   */
+  public static WaasDeadline after(long duration, TimeUnit unit) {
+    return new WaasDeadline(System.nanoTime() + unit.toNanos(duration));
+  }
+
+  /**
+   * Returns the time left until the deadline, or zero if it has passed.
+   */
+  public long remaining(TimeUnit unit) {
+    return unit.convert(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns whether the deadline has passed.
+   */
+  public boolean isExpired() {
+    return deadlineNanos - System.nanoTime() <= 0;
+  }
+}
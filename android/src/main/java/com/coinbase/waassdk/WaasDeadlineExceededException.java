@@ -0,0 +1,12 @@
+package com.coinbase.waassdk;
+
+/**
+ * Thrown when a call does not complete before its {@link WaasDeadline}.
+ */
+public class WaasDeadlineExceededException extends WaasException {
+  public static final String errorType = "E_DEADLINE_EXCEEDED";
+
+  public WaasDeadlineExceededException() {
+    super(errorType, "the call exceeded its deadline");
+  }
+}
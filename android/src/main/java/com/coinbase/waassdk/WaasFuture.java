@@ -0,0 +1,188 @@
+package com.coinbase.waassdk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Future returned by the Waas services which, in addition to the blocking `get()`,
+ * notifies registered callbacks once the underlying operation completes.
+ *
+ * Callers that only need the outcome should prefer {@link #addCallback(Callback)} over
+ * `get()`, as it does not park a thread while the operation is in flight.
+ *
+ * @param <T> The result type of the operation.
+ */
+public class WaasFuture<T> extends FutureTask<T> {
+
+  /**
+   * Receives the outcome of a {@link WaasFuture}. Exactly one of the methods is invoked,
+   * exactly once, on the thread that completed the future (or on the registering thread,
+   * if the future had already completed).
+   */
+  public interface Callback<T> {
+    void onSuccess(T result);
+
+    /**
+     * @param error The cause of the failure; for operations that threw, this is the thrown exception
+     *              (typically a {@link WaasException}), for cancelled operations a {@link CancellationException}.
+     */
+    void onFailure(Throwable error);
+  }
+
+  // Orders futures of equal priority by creation.
+  private static final AtomicLong sequencer = new AtomicLong();
+
+  // Callbacks registered before completion; null once they have been dispatched.
+  private List<Callback<? super T>> callbacks = new ArrayList<>();
+
+  final WaasPriority priority;
+  final long sequence = sequencer.getAndIncrement();
+  // When the future was handed to its executor, in System.nanoTime() units.
+  volatile long enqueuedAtNanos;
+  // When a thread began running the future's callable, in System.nanoTime() units; 0 if it never did.
+  volatile long startedAtNanos;
+  // Run once if the future is cancelled, e.g. to stop the blocking Go call it is running.
+  private volatile Runnable cancelAction;
+  // Whether the callable sends a request to a WaaS backend, rather than only calling into Go locally.
+  volatile boolean networkCall;
+
+  public WaasFuture(Callable<T> callable) {
+    this(callable, WaasPriority.NORMAL);
+  }
+
+  public WaasFuture(Callable<T> callable, WaasPriority priority) {
+    super(callable);
+    this.priority = priority;
+  }
+
+  /**
+   * Returns the priority with which this future is scheduled.
+   */
+  public WaasPriority getPriority() {
+    return priority;
+  }
+
+  /**
+   * Sets an action to run if this future is cancelled before it completes, e.g. to stop the
+   * Go call it is blocked in; interrupting the thread alone does not unblock Go code.
+   */
+  void onCancel(Runnable action) {
+    this.cancelAction = action;
+  }
+
+  /**
+   * Marks this future as a request to a WaaS backend, whose latency and failures the RPC lane
+   * adapts its limit to. Local calls such as stopPolling* are left unmarked, as their timings
+   * say nothing about the link. Returns this future.
+   */
+  WaasFuture<T> asNetworkCall() {
+    networkCall = true;
+    return this;
+  }
+
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    boolean cancelled = super.cancel(mayInterruptIfRunning);
+    Runnable action = cancelAction;
+    if (cancelled && action != null) {
+      action.run();
+    }
+    return cancelled;
+  }
+
+  /**
+   * Fails this future with `error` unless it has already completed, then runs the cancel action
+   * as {@link #cancel(boolean)} would. A task that is still running keeps its thread until the
+   * Go call returns, but its result is discarded.
+   *
+   * @return Whether this call failed the future.
+   */
+  boolean fail(Throwable error) {
+    if (isDone()) {
+      return false;
+    }
+    setException(error);
+    boolean failed;
+    try {
+      get();
+      failed = false;
+    } catch (ExecutionException e) {
+      failed = e.getCause() == error;
+    } catch (CancellationException | InterruptedException e) {
+      failed = false;
+    }
+    Runnable action = cancelAction;
+    if (failed && action != null) {
+      action.run();
+    }
+    return failed;
+  }
+
+  /**
+   * Returns the exception this future completed with, or null if it has not completed, or
+   * completed with a result or by cancellation.
+   */
+  Throwable failure() {
+    if (!isDone() || isCancelled()) {
+      return null;
+    }
+    try {
+      get();
+      return null;
+    } catch (ExecutionException e) {
+      return e.getCause();
+    } catch (CancellationException | InterruptedException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Registers a callback to be invoked when this future completes. If the future has
+   * already completed, the callback is invoked immediately on the calling thread.
+   */
+  public void addCallback(Callback<? super T> callback) {
+    synchronized (this) {
+      if (callbacks != null) {
+        callbacks.add(callback);
+        return;
+      }
+    }
+    dispatch(callback);
+  }
+
+  @Override
+  protected void done() {
+    List<Callback<? super T>> pending;
+    synchronized (this) {
+      pending = callbacks;
+      callbacks = null;
+    }
+    for (Callback<? super T> callback : pending) {
+      dispatch(callback);
+    }
+  }
+
+  private void dispatch(Callback<? super T> callback) {
+    T result;
+    try {
+      // The future is done at this point, so this never blocks.
+      result = get();
+    } catch (ExecutionException e) {
+      callback.onFailure(e.getCause());
+      return;
+    } catch (CancellationException e) {
+      callback.onFailure(e);
+      return;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      callback.onFailure(e);
+      return;
+    }
+    callback.onSuccess(result);
+  }
+}
@@ -0,0 +1,39 @@
+package com.coinbase.waassdk;
+
+/**
+ * The priority with which a Waas call is scheduled relative to other queued calls on the
+ * same {@link WaasScheduler} lane. Calls of equal priority run in submission order.
+ */
+public enum WaasPriority {
+  /**
+   * User-visible work which the user is actively waiting on, e.g. signing a transaction.
+   */
+  HIGH,
+  /**
+   * The default priority.
+   */
+  NORMAL,
+  /**
+   * Maintenance work which may be delayed, e.g. preparing device backups and archives.
+   */
+  LOW;
+
+  /**
+   * Parses a priority from its lower-case name, e.g. "high". Returns `fallback` if `name` is null.
+   */
+  public static WaasPriority fromString(String name, WaasPriority fallback) throws WaasException {
+    if (name == null) {
+      return fallback;
+    }
+    switch (name) {
+      case "high":
+        return HIGH;
+      case "normal":
+        return NORMAL;
+      case "low":
+        return LOW;
+      default:
+        throw new WaasException("invalid priority : ", name);
+    }
+  }
+}
@@ -0,0 +1,453 @@
+package com.coinbase.waassdk;
+
+import android.os.Process;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The set of executors on which the Waas services run their calls into the Go SDK.
+ *
+ * Work is split into lanes so that one kind of call cannot starve another: blocking long-polls
+ * must not hold up a CPU-bound MPC computation or a waitPending* call, and none of them should
+ * delay a short RPC such as stopPolling*. Each lane has its own thread bound and thread priority;
+ * the POLL lane has none, as each poll holds its thread for as long as it runs.
+ * A single scheduler is meant to be shared by all services of an application.
+ *
+ * Within a lane, queued calls run in {@link WaasPriority} order, so that e.g. a signature
+ * computation is not stuck behind device backups. The time calls spend queued is recorded
+ * per lane and priority, see {@link #queueWaitStats(Lane)}.
+ *
+ * The thread bound of the RPC lane is not fixed but set by a {@link WaasConcurrencyLimiter}
+ * from the latency and drops of the backend requests it runs, see {@link #concurrencyLimit(Lane)}.
+ *
+ * Idle lane threads are reclaimed after a short keep-alive, and the services release their Go
+ * clients after {@link #setClientIdleTimeout(long, TimeUnit)} without calls.
+ */
+public class WaasScheduler {
+
+  /**
+   * The kinds of work run by the Waas services.
+   */
+  public enum Lane {
+    /**
+     * Long-polls which wait on the server until they are stopped, i.e. pollForPending*, including
+     * those of {@link DeviceGroupPoller}s. These spend nearly all of their time idle, so they run at
+     * background priority, and each gets a thread of its own: a bound would let as many polls as it
+     * allows hold every thread, and queue the rest behind polls which may never end.
+     */
+    POLL("waas-poll", unboundedThreads, Process.THREAD_PRIORITY_BACKGROUND),
+    /**
+     * One-shot blocking calls which wait on the server, i.e. waitPendingSignature and
+     * waitPendingMPCWallet. Kept apart from the long-polls so that they never queue behind them.
+     */
+    WAIT("waas-wait", 6, Process.THREAD_PRIORITY_BACKGROUND),
+    /**
+     * CPU-bound MPC computations in {@link MPCSdk}, sized to the number of cores.
+     */
+    COMPUTE("waas-compute", Runtime.getRuntime().availableProcessors(), Process.THREAD_PRIORITY_DEFAULT),
+    /**
+     * Short network requests, e.g. createSignatureFromTx or getAddress.
+     * These do little work and usually gate the UI, so they run slightly above default priority.
+     * The default thread count is only the starting point of the lane's adaptive limit.
+     */
+    RPC("waas-rpc", 4, Process.THREAD_PRIORITY_DEFAULT + Process.THREAD_PRIORITY_MORE_FAVORABLE);
+
+    final String threadName;
+    final int defaultThreads;
+    final int threadPriority;
+
+    Lane(String threadName, int defaultThreads, int threadPriority) {
+      this.threadName = threadName;
+      this.defaultThreads = defaultThreads;
+      this.threadPriority = threadPriority;
+    }
+  }
+
+  // The thread bound of a lane which starts a thread for every call that finds none idle.
+  private static final int unboundedThreads = Integer.MAX_VALUE;
+  // How long an idle lane thread is kept alive before it is reclaimed.
+  private static final long keepAliveSeconds = 30;
+  // The bounds of the adaptive RPC lane limit.
+  private static final int minRpcThreads = 1;
+  private static final int maxRpcThreads = 32;
+
+  // Orders queued tasks by priority, then by submission. Tasks which are not WaasFutures run at normal priority.
+  private static final Comparator<Runnable> byPriority = (a, b) -> {
+    int byLevel = priorityOf(a).compareTo(priorityOf(b));
+    if (byLevel != 0) {
+      return byLevel;
+    }
+    return Long.compare(sequenceOf(a), sequenceOf(b));
+  };
+
+  private final ExecutorService[] executors = new ExecutorService[Lane.values().length];
+  private final QueueWaitStats[][] waitStats = new QueueWaitStats[Lane.values().length][WaasPriority.values().length];
+  // Fires the deadlines of in-flight calls and the idle checks of Go clients.
+  private final ScheduledThreadPoolExecutor timers = newTimers();
+  // Runs the calls of one key, e.g. a DeviceGroup, one at a time.
+  private final OrderedExecutor ordered = new OrderedExecutor(this);
+  // How long a service's Go client may go unused before it is released; 0 to keep it.
+  private volatile long clientIdleTimeoutNanos = TimeUnit.MINUTES.toNanos(5);
+
+  /**
+   * Creates a scheduler with the default bounds for every lane.
+   */
+  public WaasScheduler() {
+    initWaitStats();
+    for (Lane lane : Lane.values()) {
+      executors[lane.ordinal()] = newLaneExecutor(lane, lane.defaultThreads);
+    }
+  }
+
+  /**
+   * Creates a scheduler with the given maximum number of threads for the WAIT, COMPUTE and RPC
+   * lanes; the POLL lane is not bounded. For the RPC lane, `rpcThreads` is the initial value of its
+   * adaptive limit.
+   */
+  public WaasScheduler(int waitThreads, int computeThreads, int rpcThreads) {
+    initWaitStats();
+    executors[Lane.POLL.ordinal()] = newLaneExecutor(Lane.POLL, Lane.POLL.defaultThreads);
+    executors[Lane.WAIT.ordinal()] = newLaneExecutor(Lane.WAIT, waitThreads);
+    executors[Lane.COMPUTE.ordinal()] = newLaneExecutor(Lane.COMPUTE, computeThreads);
+    executors[Lane.RPC.ordinal()] = newLaneExecutor(Lane.RPC, rpcThreads);
+  }
+
+  /**
+   * Creates a scheduler which runs all lanes on the given executor.
+   * Provided for callers which manage their own executor.
+   */
+  public WaasScheduler(ExecutorService executor) {
+    initWaitStats();
+    for (Lane lane : Lane.values()) {
+      executors[lane.ordinal()] = executor;
+    }
+  }
+
+  private void initWaitStats() {
+    for (QueueWaitStats[] laneStats : waitStats) {
+      for (int i = 0; i < laneStats.length; i++) {
+        laneStats[i] = new QueueWaitStats();
+      }
+    }
+  }
+
+  private ExecutorService newLaneExecutor(Lane lane, int threads) {
+    WaasConcurrencyLimiter limiter = null;
+    if (lane == Lane.RPC) {
+      limiter = new WaasConcurrencyLimiter(threads, minRpcThreads, Math.max(threads, maxRpcThreads));
+      threads = limiter.getLimit();
+    }
+    ThreadPoolExecutor executor;
+    if (threads == unboundedThreads) {
+      // Hands each call straight to an idle thread, or to a new one; nothing is queued.
+      executor = new LaneExecutor(lane, 0, unboundedThreads, new SynchronousQueue<>(), null);
+    } else {
+      executor = new LaneExecutor(lane, threads, threads, new PriorityBlockingQueue<>(11, byPriority), limiter);
+      executor.allowCoreThreadTimeOut(true);
+    }
+    return executor;
+  }
+
+  private static ScheduledThreadPoolExecutor newTimers() {
+    ScheduledThreadPoolExecutor timers = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "waas-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    timers.setRemoveOnCancelPolicy(true);
+    timers.setKeepAliveTime(keepAliveSeconds, TimeUnit.SECONDS);
+    timers.allowCoreThreadTimeOut(true);
+    return timers;
+  }
+
+  private static WaasPriority priorityOf(Runnable task) {
+    return task instanceof WaasFuture ? ((WaasFuture<?>) task).priority : WaasPriority.NORMAL;
+  }
+
+  private static long sequenceOf(Runnable task) {
+    return task instanceof WaasFuture ? ((WaasFuture<?>) task).sequence : 0;
+  }
+
+  /**
+   * Returns the executor backing the given lane.
+   */
+  public ExecutorService executor(Lane lane) {
+    return executors[lane.ordinal()];
+  }
+
+  /**
+   * Runs the given task on the given lane.
+   */
+  public void execute(Lane lane, Runnable task) {
+    if (task instanceof WaasFuture) {
+      ((WaasFuture<?>) task).enqueuedAtNanos = System.nanoTime();
+    }
+    executor(lane).execute(task);
+  }
+
+  /**
+   * Runs the given future on the given lane, failing it with {@link WaasDeadlineExceededException}
+   * if it has not completed by `deadline`. A future whose deadline has already passed fails
+   * without being queued. A null deadline places no limit on the call.
+   */
+  public void execute(Lane lane, WaasFuture<?> future, WaasDeadline deadline) {
+    if (armDeadline(future, deadline)) {
+      execute(lane, future);
+    }
+  }
+
+  /**
+   * Same as {@link #execute(Lane, WaasFuture, WaasDeadline)}, but runs the future only once every
+   * future submitted before it under the same `key` has run, on whichever lane: the calls of one
+   * key run strictly one at a time and in order, those of different keys in parallel. This lets
+   * e.g. the MPC computations of one DeviceGroup, which must not race inside the Go SDK, share a
+   * lane with those of other DeviceGroups. The deadline also covers the time spent waiting
+   * behind earlier calls of the key. A null key places no ordering constraint.
+   */
+  public void execute(Lane lane, String key, WaasFuture<?> future, WaasDeadline deadline) {
+    if (key == null) {
+      execute(lane, future, deadline);
+      return;
+    }
+    if (armDeadline(future, deadline)) {
+      ordered.execute(key, lane, future);
+    }
+  }
+
+  // Fails `future` once `deadline` passes, cancelling the timer once the future completes. Returns
+  // false if it already has, and the future has been failed without running.
+  boolean armDeadline(WaasFuture<?> future, WaasDeadline deadline) {
+    if (deadline == null) {
+      return true;
+    }
+    if (deadline.isExpired()) {
+      future.fail(new WaasDeadlineExceededException());
+      return false;
+    }
+    ScheduledFuture<?> timer = timers.schedule(() -> future.fail(new WaasDeadlineExceededException()),
+      deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    future.addCallback(new WaasFuture.Callback<Object>() {
+      @Override
+      public void onSuccess(Object result) {
+        timer.cancel(false);
+      }
+
+      @Override
+      public void onFailure(Throwable error) {
+        timer.cancel(false);
+      }
+    });
+    return true;
+  }
+
+  /**
+   * Sets how long the Go client of a service may go unused before it is released. The next call
+   * recreates it. A timeout of 0 keeps clients for the lifetime of their service.
+   * The default is 5 minutes.
+   */
+  public void setClientIdleTimeout(long duration, TimeUnit unit) {
+    clientIdleTimeoutNanos = unit.toNanos(duration);
+  }
+
+  long clientIdleTimeoutNanos() {
+    return clientIdleTimeoutNanos;
+  }
+
+  /**
+   * Runs `task` on the timer thread after the given delay. Returns false if the scheduler has
+   * been shut down.
+   */
+  boolean schedule(Runnable task, long delay, TimeUnit unit) {
+    try {
+      timers.schedule(task, delay, unit);
+      return true;
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns a snapshot of how long calls have waited in the queue of the given lane, per priority.
+   * Only lanes created by this scheduler record wait times.
+   */
+  public Map<WaasPriority, QueueWaitStats> queueWaitStats(Lane lane) {
+    Map<WaasPriority, QueueWaitStats> snapshot = new EnumMap<>(WaasPriority.class);
+    for (WaasPriority priority : WaasPriority.values()) {
+      snapshot.put(priority, waitStats[lane.ordinal()][priority.ordinal()].snapshot());
+    }
+    return snapshot;
+  }
+
+  /**
+   * Returns the number of calls the given lane currently runs at once. For the RPC lane this is
+   * its adaptive limit; for the POLL lane, which is not bounded, the number of calls it is running;
+   * for lanes running on an executor not created by this scheduler, 0.
+   */
+  public int concurrencyLimit(Lane lane) {
+    ExecutorService executor = executor(lane);
+    if (!(executor instanceof LaneExecutor)) {
+      return 0;
+    }
+    LaneExecutor laneExecutor = (LaneExecutor) executor;
+    int limit = laneExecutor.getMaximumPoolSize();
+    return limit == unboundedThreads ? laneExecutor.getActiveCount() : limit;
+  }
+
+  /**
+   * Stops accepting new work on every lane and interrupts the running tasks. Calls which were
+   * still queued are cancelled, so that their callers are notified rather than left waiting.
+   * Interrupts do not unblock Go code; stop blocking Go calls through their service first,
+   * e.g. with {@link MPCKeyService#close()}.
+   */
+  public void shutdownNow() {
+    for (ExecutorService executor : executors) {
+      for (Runnable task : executor.shutdownNow()) {
+        if (task instanceof Future) {
+          ((Future<?>) task).cancel(false);
+        }
+      }
+    }
+    timers.shutdownNow();
+  }
+
+  /**
+   * Aggregate queue-wait times of the calls of one priority on one lane.
+   */
+  public static class QueueWaitStats {
+    private long count;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    synchronized void record(long waitNanos) {
+      count++;
+      totalWaitNanos += waitNanos;
+      maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    synchronized QueueWaitStats snapshot() {
+      QueueWaitStats copy = new QueueWaitStats();
+      copy.count = count;
+      copy.totalWaitNanos = totalWaitNanos;
+      copy.maxWaitNanos = maxWaitNanos;
+      return copy;
+    }
+
+    /**
+     * The number of calls which have left the queue.
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * The mean time a call spent queued, in milliseconds.
+     */
+    public double getAverageWaitMillis() {
+      return count == 0 ? 0 : totalWaitNanos / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * The longest time a call spent queued, in milliseconds.
+     */
+    public double getMaxWaitMillis() {
+      return maxWaitNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+  }
+
+  private class LaneExecutor extends ThreadPoolExecutor {
+    private final Lane lane;
+    // Sizes the pool from the requests' latency; null for a fixed size.
+    private final WaasConcurrencyLimiter limiter;
+    private final AtomicInteger running = new AtomicInteger();
+
+    LaneExecutor(Lane lane, int coreThreads, int maxThreads, BlockingQueue<Runnable> queue, WaasConcurrencyLimiter limiter) {
+      super(coreThreads, maxThreads, keepAliveSeconds, TimeUnit.SECONDS, queue, new LaneThreadFactory(lane));
+      this.lane = lane;
+      this.limiter = limiter;
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable task) {
+      super.beforeExecute(thread, task);
+      if (task instanceof WaasFuture) {
+        WaasFuture<?> future = (WaasFuture<?>) task;
+        if (future.enqueuedAtNanos != 0) {
+          waitStats[lane.ordinal()][future.priority.ordinal()].record(System.nanoTime() - future.enqueuedAtNanos);
+        }
+        // A future which already failed, e.g. by its deadline, returns without calling Go.
+        if (!future.isDone()) {
+          future.startedAtNanos = System.nanoTime();
+        }
+      }
+      running.incrementAndGet();
+    }
+
+    @Override
+    protected void afterExecute(Runnable task, Throwable thrown) {
+      super.afterExecute(task, thrown);
+      int inFlight = running.getAndDecrement();
+      if (limiter == null || !(task instanceof WaasFuture)) {
+        return;
+      }
+      WaasFuture<?> future = (WaasFuture<?>) task;
+      // Only requests to the backend are sampled; local calls would teach the limiter a
+      // baseline latency no request can reach.
+      if (!future.networkCall || future.startedAtNanos == 0 || future.isCancelled()) {
+        return;
+      }
+      boolean dropped = WaasConcurrencyLimiter.isDrop(future.failure());
+      limiter.onSample(System.nanoTime() - future.startedAtNanos, dropped, inFlight);
+      resize();
+    }
+
+    // Applies the limiter's current limit. Core and maximum size are changed in the order which
+    // keeps core <= maximum at every step.
+    private synchronized void resize() {
+      int limit = limiter.getLimit();
+      if (limit > getMaximumPoolSize()) {
+        setMaximumPoolSize(limit);
+        setCorePoolSize(limit);
+      } else if (limit < getMaximumPoolSize()) {
+        setCorePoolSize(limit);
+        setMaximumPoolSize(limit);
+      }
+    }
+  }
+
+  private static class LaneThreadFactory implements ThreadFactory {
+    private final Lane lane;
+    private final AtomicInteger count = new AtomicInteger();
+
+    LaneThreadFactory(Lane lane) {
+      this.lane = lane;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(() -> {
+        try {
+          Process.setThreadPriority(lane.threadPriority);
+        } catch (RuntimeException e) {
+          // Off-device, e.g. in unit tests, where the priority is only a hint anyway.
+        }
+        runnable.run();
+      }, lane.threadName + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.coinable.waas_sdk_flutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdmissionControlTest {
+  private AdmissionControl admission;
+  // The results of the calls the handler has received but not completed.
+  private final List<MethodChannel.Result> started = new ArrayList<>();
+  private final MethodChannel.MethodCallHandler handler = (call, result) -> started.add(result);
+
+  @Before
+  public void setUp() {
+    ResultDispatcher dispatcher = mock(ResultDispatcher.class);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(dispatcher).dispatch(any());
+    admission = new AdmissionControl("PoolService", dispatcher);
+
+    Map<String, Object> limits = new HashMap<>();
+    limits.put("maxInFlight", 1);
+    limits.put("maxQueued", 1);
+    admission.submit(new MethodCall("initialize", limits), mock(MethodChannel.Result.class), handler);
+    started.clear();
+  }
+
+  @Test
+  public void submit_beyondLimits_rejectsWithOverloaded() {
+    admission.submit(new MethodCall("createPool", null), mock(MethodChannel.Result.class), handler);
+    admission.submit(new MethodCall("createPool", null), mock(MethodChannel.Result.class), handler);
+    MethodChannel.Result rejected = mock(MethodChannel.Result.class);
+    admission.submit(new MethodCall("createPool", null), rejected, handler);
+
+    verify(rejected).error(eq(AdmissionControl.overloadedErr), anyString(), isNull());
+    assertEquals(1, started.size());
+  }
+
+  @Test
+  public void completion_startsQueuedCall() {
+    MethodChannel.Result first = mock(MethodChannel.Result.class);
+    admission.submit(new MethodCall("createPool", null), first, handler);
+    admission.submit(new MethodCall("createPool", null), mock(MethodChannel.Result.class), handler);
+
+    assertEquals(1, started.size());
+    started.get(0).success(null);
+
+    verify(first).success(null);
+    assertEquals(2, started.size());
+  }
+
+  @Test
+  public void stopPolling_isNeverLimited() {
+    admission.submit(new MethodCall("createPool", null), mock(MethodChannel.Result.class), handler);
+    admission.submit(new MethodCall("createPool", null), mock(MethodChannel.Result.class), handler);
+    MethodChannel.Result stop = mock(MethodChannel.Result.class);
+    admission.submit(new MethodCall("stopPollingForPendingSignatures", null), stop, handler);
+    MethodChannel.Result unwatch = mock(MethodChannel.Result.class);
+    admission.submit(new MethodCall("unwatchPendingOperations", null), unwatch, handler);
+    MethodChannel.Result cancelBatch = mock(MethodChannel.Result.class);
+    admission.submit(new MethodCall("cancelSignTransactions", null), cancelBatch, handler);
+
+    verify(stop, never()).error(anyString(), anyString(), any());
+    verify(unwatch, never()).error(anyString(), anyString(), any());
+    verify(cancelBatch, never()).error(anyString(), anyString(), any());
+    assertEquals(4, started.size());
+  }
+}
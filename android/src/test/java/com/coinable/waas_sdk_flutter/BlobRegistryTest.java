@@ -0,0 +1,69 @@
+package com.coinable.waas_sdk_flutter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.coinbase.waassdk.WaasException;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BlobRegistryTest {
+
+  @Test
+  public void handles_standInForTheirPayloadUntilReleased() throws Exception {
+    BlobRegistry blobs = new BlobRegistry(BlobRegistry.defaultMaxBytes);
+    BlobRegistry.Handle backup = blobs.put("abcdef");
+    BlobRegistry.Handle tx = blobs.put(Collections.singletonMap("Nonce", 1));
+
+    assertEquals("abcdef", blobs.stringOf(backup));
+    assertEquals("plain", blobs.stringOf("plain"));
+    assertArrayEquals("{\"Nonce\":1}".getBytes(StandardCharsets.UTF_8), blobs.jsonOf(tx));
+
+    assertTrue(blobs.release(backup.id));
+    assertFalse(blobs.release(backup.id));
+    try {
+      blobs.stringOf(backup);
+      fail();
+    } catch (WaasException e) {
+      assertEquals(BlobRegistry.releasedErr, e.getErrorType());
+    }
+  }
+
+  @Test
+  public void put_dropsLeastRecentlyUsedBeyondBudget() throws Exception {
+    // Room for two 4-char strings.
+    BlobRegistry blobs = new BlobRegistry(16);
+    BlobRegistry.Handle first = blobs.put("aaaa");
+    BlobRegistry.Handle second = blobs.put("bbbb");
+    blobs.stringOf(first);
+
+    blobs.put("cccc");
+
+    assertEquals("aaaa", blobs.stringOf(first));
+    assertFalse(blobs.release(second.id));
+  }
+
+  @Test
+  public void withMPCDataHandles_leavesSharedOperationsUntouched() throws Exception {
+    BlobRegistry blobs = new BlobRegistry(BlobRegistry.defaultMaxBytes);
+    Map<String, Object> operation = new HashMap<>();
+    operation.put("Operation", "op");
+    operation.put("MPCData", "data");
+
+    List<Object> result = blobs.withMPCDataHandles(Collections.<Object>singletonList(operation));
+
+    Map<?, ?> copy = (Map<?, ?>) result.get(0);
+    assertEquals("op", copy.get("Operation"));
+    assertEquals("data", blobs.stringOf(copy.get("MPCData")));
+    assertEquals("data", operation.get("MPCData"));
+  }
+}
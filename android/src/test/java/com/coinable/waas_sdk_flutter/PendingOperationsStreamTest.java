@@ -0,0 +1,85 @@
+package com.coinable.waas_sdk_flutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.coinbase.waassdk.DeviceGroupPoller;
+import com.coinbase.waassdk.JsonDecoder;
+import com.coinbase.waassdk.WaasException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.EventChannel;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class PendingOperationsStreamTest {
+  private PendingOperationsStream stream;
+  private final DeviceGroupPoller poller = mock(DeviceGroupPoller.class);
+  private final EventChannel.EventSink sink = mock(EventChannel.EventSink.class);
+
+  @Before
+  public void setUp() {
+    ResultDispatcher dispatcher = mock(ResultDispatcher.class);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(dispatcher).dispatch(any());
+    stream = new PendingOperationsStream(dispatcher);
+    stream.onListen(null, sink);
+  }
+
+  private DeviceGroupPoller.Listener watch(long watchId) {
+    stream.watch(watchId, poller, EnumSet.of(DeviceGroupPoller.Kind.SIGNATURES), false);
+    ArgumentCaptor<DeviceGroupPoller.Listener> listener = ArgumentCaptor.forClass(DeviceGroupPoller.Listener.class);
+    verify(poller).subscribe(eq(EnumSet.of(DeviceGroupPoller.Kind.SIGNATURES)), listener.capture(), eq(false));
+    return listener.getValue();
+  }
+
+  private static List<Object> operations(String json) {
+    return JsonDecoder.decodeArray(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void watch_pushesOperationsAndErrorsTaggedWithWatchId() throws Exception {
+    DeviceGroupPoller.Listener listener = watch(7);
+
+    listener.onPendingOperations(DeviceGroupPoller.Kind.SIGNATURES, operations("[\"op\"]"));
+    listener.onError(DeviceGroupPoller.Kind.SIGNATURES, new WaasException("poll failed : ", "down"));
+
+    ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+    verify(sink, times(2)).success(events.capture());
+    Map<String, Object> operations = (Map<String, Object>) events.getAllValues().get(0);
+    assertEquals(7L, operations.get("watchId"));
+    assertEquals("signatures", operations.get("kind"));
+    assertEquals(Collections.singletonList("op"), operations.get("operations"));
+    Map<String, Object> error = (Map<String, Object>) events.getAllValues().get(1);
+    assertEquals("poll failed : ", error.get("errorCode"));
+  }
+
+  @Test
+  public void unwatch_unsubscribesAndDropsLateEvents() throws Exception {
+    DeviceGroupPoller.Listener listener = watch(7);
+
+    assertTrue(stream.unwatch(7));
+    assertFalse(stream.unwatch(7));
+    listener.onPendingOperations(DeviceGroupPoller.Kind.SIGNATURES, operations("[]"));
+
+    verify(poller).unsubscribe(listener);
+    verify(sink, never()).success(any());
+  }
+}
@@ -0,0 +1,46 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AdaptivePollPolicyTest {
+
+  @Test
+  public void onIdle_doublesUpToMaximum() {
+    AdaptivePollPolicy.Backoff backoff = new AdaptivePollPolicy(100, 300, 0, 50, 1000).newBackoff();
+
+    assertTrue(backoff.onIdle());
+    assertEquals(200, backoff.nextIntervalMillis());
+    assertTrue(backoff.onIdle());
+    assertEquals(300, backoff.nextIntervalMillis());
+    assertFalse(backoff.onIdle());
+
+    backoff.onOperations();
+    assertEquals(100, backoff.nextIntervalMillis());
+  }
+
+  @Test
+  public void burst_shortensIntervalUntilItEnds() throws Exception {
+    AdaptivePollPolicy.Backoff backoff = new AdaptivePollPolicy(100, 1000, 0, 10, 50).newBackoff();
+    backoff.onIdle();
+
+    assertTrue(backoff.burst());
+    assertEquals(10, backoff.nextIntervalMillis());
+    assertFalse(backoff.burst());
+    Thread.sleep(100);
+    assertEquals(200, backoff.nextIntervalMillis());
+  }
+
+  @Test
+  public void jitter_staysWithinBounds() {
+    AdaptivePollPolicy.Backoff backoff = new AdaptivePollPolicy(1000, 1000, 0.2, 1000, 0).newBackoff();
+
+    for (int i = 0; i < 100; i++) {
+      long interval = backoff.nextIntervalMillis();
+      assertTrue(interval >= 800 && interval <= 1200);
+    }
+  }
+}
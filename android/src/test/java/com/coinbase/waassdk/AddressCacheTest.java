@@ -0,0 +1,94 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class AddressCacheTest {
+
+  private static Address address(String name) {
+    return new Address(name, "0x1", Collections.singletonList("keys/k"), "wallets/w");
+  }
+
+  // Hands out requests which complete only when run by the test.
+  private static class Requests implements AddressCache.Loader {
+    final List<WaasFuture<Address>> sent = new ArrayList<>();
+    final Address address;
+
+    Requests(Address address) {
+      this.address = address;
+    }
+
+    @Override
+    public WaasFuture<Address> load() {
+      WaasFuture<Address> request = new WaasFuture<>(() -> address);
+      sent.add(request);
+      return request;
+    }
+  }
+
+  @Test
+  public void get_collapsesConcurrentLookupsIntoOneRequest() throws Exception {
+    AddressCache cache = new AddressCache(8, 1, TimeUnit.HOURS);
+    Requests requests = new Requests(address("addresses/a"));
+
+    WaasFuture<Address> first = cache.get("addresses/a", requests);
+    WaasFuture<Address> second = cache.get("addresses/a", requests);
+    assertEquals(1, requests.sent.size());
+    assertFalse(first.isDone());
+
+    requests.sent.get(0).run();
+
+    assertSame(requests.address, first.get());
+    assertSame(requests.address, second.get());
+    assertSame(requests.address, cache.get("addresses/a", requests).get());
+    assertEquals(1, requests.sent.size());
+    assertEquals(2, cache.hits());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test
+  public void get_cancelsRequestOnlyOnceNoLookupWaits() throws Exception {
+    AddressCache cache = new AddressCache(8, 1, TimeUnit.HOURS);
+    Requests requests = new Requests(address("addresses/a"));
+    WaasFuture<Address> first = cache.get("addresses/a", requests);
+    WaasFuture<Address> second = cache.get("addresses/a", requests);
+
+    assertTrue(first.cancel(true));
+    assertFalse(requests.sent.get(0).isCancelled());
+    assertTrue(second.cancel(true));
+    assertTrue(requests.sent.get(0).isCancelled());
+
+    // The next lookup sends a new request.
+    cache.get("addresses/a", requests);
+    assertEquals(2, requests.sent.size());
+  }
+
+  @Test
+  public void put_dropsLeastRecentlyUsedAndExpired() throws Exception {
+    AddressCache cache = new AddressCache(2, 1, TimeUnit.HOURS);
+    cache.put(address("addresses/a"));
+    cache.put(address("addresses/b"));
+    Requests requests = new Requests(address("addresses/c"));
+    cache.get("addresses/a", requests);
+
+    cache.put(address("addresses/c"));
+
+    assertEquals(2, cache.size());
+    cache.get("addresses/b", requests);
+    assertEquals(1, requests.sent.size());
+
+    AddressCache expiring = new AddressCache(2, 0, TimeUnit.MILLISECONDS);
+    expiring.put(address("addresses/c"));
+    expiring.get("addresses/c", requests);
+    assertEquals(2, requests.sent.size());
+  }
+}
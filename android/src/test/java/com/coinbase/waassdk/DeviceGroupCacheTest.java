@@ -0,0 +1,51 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import com.waassdkinternal.v1.DeviceGroup;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class DeviceGroupCacheTest {
+
+  private static final String group = "pools/p/deviceGroups/g";
+
+  @Test
+  public void invalidate_dropsTheDeviceGroupOfTheResource() {
+    DeviceGroupCache cache = new DeviceGroupCache(8, 1, TimeUnit.HOURS);
+    DeviceGroup deviceGroup = mock(DeviceGroup.class);
+    DeviceGroup other = mock(DeviceGroup.class);
+    cache.put(group, deviceGroup, cache.generation());
+    cache.put("pools/p/deviceGroups/h", other, cache.generation());
+    assertSame(deviceGroup, cache.get(group));
+
+    cache.invalidate(group + "/mpcKeys/k");
+
+    assertNull(cache.get(group));
+    assertSame(other, cache.get("pools/p/deviceGroups/h"));
+  }
+
+  @Test
+  public void put_skipsLookupsStartedBeforeAnInvalidation() {
+    DeviceGroupCache cache = new DeviceGroupCache(8, 1, TimeUnit.HOURS);
+    long generation = cache.generation();
+
+    // e.g. addDevice is called while the lookup is in flight.
+    cache.invalidate(group);
+    cache.put(group, mock(DeviceGroup.class), generation);
+
+    assertNull(cache.get(group));
+  }
+
+  @Test
+  public void get_dropsExpiredEntries() {
+    DeviceGroupCache cache = new DeviceGroupCache(8, 0, TimeUnit.MILLISECONDS);
+    cache.put(group, mock(DeviceGroup.class), cache.generation());
+
+    assertNull(cache.get(group));
+  }
+}
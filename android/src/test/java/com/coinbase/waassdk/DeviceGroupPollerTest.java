@@ -0,0 +1,188 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class DeviceGroupPollerTest {
+  private static final String group = "pools/p/deviceGroups/g";
+
+  private WaasScheduler scheduler;
+  private MPCKeyService service;
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @Before
+  public void setUp() {
+    scheduler = new WaasScheduler(Executors.newCachedThreadPool());
+    service = mock(MPCKeyService.class);
+    service.scheduler = scheduler;
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    scheduler.shutdownNow();
+  }
+
+  // A poll which blocks until `release` opens, then resolves with `operations`.
+  private WaasFuture<List<Object>> blockingPoll(List<Object> operations) {
+    WaasFuture<List<Object>> future = new WaasFuture<>(() -> {
+      release.await();
+      return operations;
+    });
+    scheduler.execute(WaasScheduler.Lane.POLL, future, null);
+    return future;
+  }
+
+  // Records the operations it receives, counting down `done` for each batch.
+  private static class RecordingListener implements DeviceGroupPoller.Listener {
+    final List<List<Object>> delivered = new ArrayList<>();
+    final CountDownLatch done;
+
+    RecordingListener(CountDownLatch done) {
+      this.done = done;
+    }
+
+    @Override
+    public synchronized void onPendingOperations(DeviceGroupPoller.Kind kind, List<Object> operations) {
+      delivered.add(operations);
+      done.countDown();
+    }
+
+    @Override
+    public void onError(DeviceGroupPoller.Kind kind, Throwable error) {
+    }
+  }
+
+  private static List<Object> operations(String json) {
+    return JsonDecoder.decodeArray(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void listenersOfOneKind_shareOnePoll() throws Exception {
+    List<Object> operations = operations("[{\"Operation\":\"op\"}]");
+    when(service.pollForPendingSignatures(group, 60_000)).thenReturn(blockingPoll(operations));
+    DeviceGroupPoller poller = new DeviceGroupPoller(service, group, AdaptivePollPolicy.fixed(60_000));
+
+    CountDownLatch done = new CountDownLatch(2);
+    RecordingListener all = new RecordingListener(done);
+    RecordingListener delta = new RecordingListener(done);
+    poller.subscribe(EnumSet.of(DeviceGroupPoller.Kind.SIGNATURES), all, true);
+    poller.subscribe(EnumSet.of(DeviceGroupPoller.Kind.SIGNATURES), delta);
+    release.countDown();
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertSame(operations, all.delivered.get(0));
+    assertEquals(operations, delta.delivered.get(0));
+    verify(service, times(1)).pollForPendingSignatures(group, 60_000);
+    poller.close();
+  }
+
+  @Test
+  public void next_resolvesWithFirstKindAndStopsTheOthers() throws Exception {
+    List<Object> operations = operations("[{\"Name\":\"op\"}]");
+    WaasFuture<List<Object>> archives = new WaasFuture<>(() -> null);
+    when(service.pollForPendingDeviceArchives(group, 10)).thenReturn(archives);
+    when(service.pollForPendingDevices(group, 10)).thenReturn(blockingPoll(operations));
+    DeviceGroupPoller poller = new DeviceGroupPoller(service, group, AdaptivePollPolicy.fixed(10));
+
+    WaasFuture<Map<DeviceGroupPoller.Kind, List<Object>>> next =
+      poller.next(EnumSet.of(DeviceGroupPoller.Kind.DEVICE_ARCHIVES, DeviceGroupPoller.Kind.DEVICES), false);
+    release.countDown();
+
+    Map<DeviceGroupPoller.Kind, List<Object>> result = next.get(5, TimeUnit.SECONDS);
+    assertEquals(1, result.size());
+    assertEquals(operations, result.get(DeviceGroupPoller.Kind.DEVICES));
+    verify(service).stopPollingForPendingDeviceArchives();
+  }
+
+  @Test
+  public void cancellingNext_stopsItsPolls() {
+    WaasFuture<List<Object>> backups = new WaasFuture<>(() -> null);
+    when(service.pollForPendingDeviceBackups(group, 10)).thenReturn(backups);
+    DeviceGroupPoller poller = new DeviceGroupPoller(service, group, AdaptivePollPolicy.fixed(10));
+
+    poller.next(EnumSet.of(DeviceGroupPoller.Kind.DEVICE_BACKUPS), false).cancel(true);
+
+    verify(service).stopPollingForPendingDeviceBackups();
+  }
+
+  @Test
+  public void nextPastItsDeadline_failsAndStopsItsPolls() throws Exception {
+    WaasFuture<List<Object>> backups = new WaasFuture<>(() -> null);
+    when(service.pollForPendingDeviceBackups(group, 10)).thenReturn(backups);
+    DeviceGroupPoller poller = new DeviceGroupPoller(service, group, AdaptivePollPolicy.fixed(10));
+
+    WaasFuture<Map<DeviceGroupPoller.Kind, List<Object>>> next = poller.next(
+      EnumSet.of(DeviceGroupPoller.Kind.DEVICE_BACKUPS), false, WaasDeadline.after(20, TimeUnit.MILLISECONDS));
+
+    try {
+      next.get(5, TimeUnit.SECONDS);
+      fail("next resolved past its deadline");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof WaasDeadlineExceededException);
+    }
+    // The poll is stopped on the timer thread right after the future fails.
+    verify(service, timeout(5000)).stopPollingForPendingDeviceBackups();
+  }
+
+  @Test
+  public void burst_restartsSlowPollAtBurstInterval() {
+    WaasFuture<List<Object>> slow = new WaasFuture<>(() -> new ArrayList<>());
+    when(service.pollForPendingSignatures(group, 60_000)).thenReturn(slow);
+    when(service.pollForPendingSignatures(group, 100)).thenReturn(new WaasFuture<>(() -> null));
+    DeviceGroupPoller poller =
+      new DeviceGroupPoller(service, group, new AdaptivePollPolicy(60_000, 60_000, 0, 100, 60_000));
+    poller.next(EnumSet.of(DeviceGroupPoller.Kind.SIGNATURES), false);
+
+    poller.burst(DeviceGroupPoller.Kind.SIGNATURES);
+    verify(service).stopPollingForPendingSignatures();
+    // The stopped poll returns empty-handed, and is restarted at the burst interval.
+    slow.run();
+
+    verify(service).pollForPendingSignatures(group, 100);
+    poller.close();
+  }
+
+  @Test
+  public void pollerFor_keysPollersByDeviceGroupAndStopsThemSeparately() {
+    MPCKeyService registry = mock(MPCKeyService.class, CALLS_REAL_METHODS);
+    registry.scheduler = scheduler;
+    registry.pollers = new ConcurrentHashMap<>();
+    registry.clientFactory = () -> null;
+
+    DeviceGroupPoller first = registry.pollerFor(group, 10);
+    DeviceGroupPoller second = registry.pollerFor(group + "2", 10);
+    assertSame(first, registry.pollerFor(group, 20));
+    assertNotSame(first, second);
+
+    assertTrue(registry.stopPolling(group));
+    assertFalse(registry.stopPolling(group));
+    assertSame(second, registry.pollerFor(group + "2", 10));
+    assertNotSame(first, registry.pollerFor(group, 10));
+  }
+}
@@ -0,0 +1,63 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class ExportFilesTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void writeHex_writesRawBytesAcrossChunks() throws Exception {
+    // Spans several chunks, the last one partial.
+    StringBuilder hex = new StringBuilder();
+    for (int i = 0; i < ExportFiles.chunkSize * 2 + 3; i++) {
+      hex.append(String.format("%02X", i & 0xff));
+    }
+    File file = new File(folder.getRoot(), "backup");
+
+    assertEquals(ExportFiles.chunkSize * 2 + 3, ExportFiles.writeHex(hex.toString(), file));
+
+    byte[] written = Files.readAllBytes(file.toPath());
+    assertEquals(ExportFiles.chunkSize * 2 + 3, written.length);
+    assertEquals((byte) 0xff, written[255]);
+    assertEquals(hex.toString().toLowerCase(), ExportFiles.readHex(file));
+  }
+
+  @Test
+  public void writeHex_leavesExistingFileOnInvalidHex() throws Exception {
+    File file = new File(folder.getRoot(), "backup");
+    ExportFiles.writeHex("0a0b", file);
+
+    try {
+      ExportFiles.writeHex("0a0z", file);
+      fail();
+    } catch (IOException expected) {
+    }
+
+    assertArrayEquals(new byte[] {0x0a, 0x0b}, Files.readAllBytes(file.toPath()));
+    assertFalse(new File(folder.getRoot(), "backup.partial").exists());
+  }
+
+  @Test
+  public void write_writesBytesAsIs() throws Exception {
+    byte[] keys = "[{\"PrivateKey\":\"0x1\"}]".getBytes(StandardCharsets.UTF_8);
+    File file = new File(folder.getRoot(), "keys.json");
+
+    assertEquals(keys.length, ExportFiles.write(keys, file));
+
+    assertArrayEquals(keys, Files.readAllBytes(file.toPath()));
+  }
+}
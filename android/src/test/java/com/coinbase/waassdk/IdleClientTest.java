@@ -0,0 +1,72 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdleClientTest {
+  private WaasScheduler scheduler;
+  private final AtomicInteger created = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    scheduler = new WaasScheduler(Executors.newSingleThreadExecutor());
+    scheduler.setClientIdleTimeout(20, TimeUnit.MILLISECONDS);
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  private IdleClient<Integer> newClient() {
+    return new IdleClient<>(created.incrementAndGet(), created::incrementAndGet, scheduler);
+  }
+
+  @Test
+  public void idleClient_isReleasedAndRecreatedOnNextUse() throws Exception {
+    IdleClient<Integer> client = newClient();
+    Thread.sleep(200);
+    assertFalse(client.isLive());
+
+    assertEquals(Integer.valueOf(2), client.acquire());
+    client.release();
+    assertEquals(2, created.get());
+  }
+
+  @Test
+  public void clientInUse_isNotReleased() throws Exception {
+    IdleClient<Integer> client = newClient();
+    client.acquire();
+    Thread.sleep(200);
+    assertTrue(client.isLive());
+    client.release();
+  }
+
+  @Test
+  public void ifLive_skipsAReleasedClient() throws Exception {
+    IdleClient<Integer> client = newClient();
+    AtomicInteger used = new AtomicInteger();
+    assertTrue(client.ifLive(used::addAndGet));
+    Thread.sleep(200);
+
+    assertFalse(client.ifLive(used::addAndGet));
+    assertEquals(1, used.get());
+    assertEquals(1, created.get());
+  }
+
+  @Test(expected = WaasException.class)
+  public void closedClient_failsAcquire() throws Exception {
+    IdleClient<Integer> client = newClient();
+    client.close();
+    client.acquire();
+  }
+}
@@ -0,0 +1,57 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.json.JSONException;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class JsonDecoderTest {
+
+  private static Object decode(String json) {
+    return JsonDecoder.decode(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void decode_buildsCodecStructures() {
+    Map<String, Object> object = JsonDecoder.decodeObject(
+      "{\"Operation\":\"op\",\"Keys\":[\"a\",true,null],\"Nested\":{}}".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals("op", object.get("Operation"));
+    assertEquals(Arrays.asList("a", true, null), object.get("Keys"));
+    assertEquals(Collections.emptyMap(), object.get("Nested"));
+  }
+
+  @Test
+  public void decode_keepsTheNarrowestNumberType() {
+    List<Object> numbers = JsonDecoder.decodeArray(
+      "[1, -2147483649, 123456789012345678901, 1.5, 2e3]".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(Arrays.<Object>asList(1, -2147483649L, new BigInteger("123456789012345678901"), 1.5, 2000.0), numbers);
+  }
+
+  @Test
+  public void decode_unescapesStrings() {
+    assertEquals("a\"b\\c\n\u00e9\u20ac", decode("\"a\\\"b\\\\c\\n\\u00e9\u20ac\""));
+    assertNull(decode(" null "));
+  }
+
+  @Test
+  public void decode_rejectsMalformedJson() {
+    for (String json : Arrays.asList("", "[1,]", "{\"a\" 1}", "\"open", "[1] 2", "tru")) {
+      try {
+        decode(json);
+        fail("decoded " + json);
+      } catch (JSONException expected) {
+      }
+    }
+  }
+}
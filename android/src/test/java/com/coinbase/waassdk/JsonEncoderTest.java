@@ -0,0 +1,50 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+
+import org.json.JSONException;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class JsonEncoderTest {
+
+  private static String encode(Object value) {
+    return new String(JsonEncoder.encode(value), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void encode_keepsIntegersExact() {
+    Map<String, Object> tx = new LinkedHashMap<>();
+    tx.put("Nonce", 7);
+    tx.put("Gas", 9007199254740993L);
+    tx.put("Value", new BigInteger("1000000000000000000000001"));
+    tx.put("GasFeeCap", 2.0);
+    tx.put("Ratio", 0.5);
+
+    assertEquals("{\"Nonce\":7,\"Gas\":9007199254740993,\"Value\":1000000000000000000000001,\"GasFeeCap\":2,\"Ratio\":0.5}",
+      encode(tx));
+  }
+
+  @Test
+  public void encode_writesNestedStructuresAndEscapes() {
+    Map<String, Object> tx = new LinkedHashMap<>();
+    tx.put("To", "0x\"a\"\n\u00e9\ud83d\ude00");
+    tx.put("AccessList", Arrays.asList(null, true, Collections.emptyMap()));
+
+    String json = encode(tx);
+
+    assertEquals("{\"To\":\"0x\\\"a\\\"\\n\u00e9\ud83d\ude00\",\"AccessList\":[null,true,{}]}", json);
+    assertEquals(tx, JsonDecoder.decode(json.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test(expected = JSONException.class)
+  public void encode_rejectsUnsupportedValues() {
+    encode(Collections.singletonMap("Data", new byte[0]));
+  }
+}
@@ -0,0 +1,105 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.waassdkinternal.v1.Device;
+import com.waassdkinternal.v1.MPCWallet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+public class MetadataSnapshotTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private WaasScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    scheduler = new WaasScheduler(Executors.newSingleThreadExecutor());
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  private static <T> WaasFuture<T> resolved(T result) {
+    WaasFuture<T> future = new WaasFuture<>(() -> result);
+    future.run();
+    return future;
+  }
+
+  @Test
+  public void flush_isLoadedBackAfterARestart() throws Exception {
+    File file = new File(folder.getRoot(), "snapshot");
+    MetadataSnapshot snapshot = MetadataSnapshot.load(file, scheduler);
+    Device device = mock(Device.class);
+    when(device.getName()).thenReturn("pools/p/devices/d");
+    MPCWallet wallet = mock(MPCWallet.class);
+    when(wallet.getName()).thenReturn("pools/p/mpcWallets/w");
+    when(wallet.getDeviceGroup()).thenReturn("pools/p/deviceGroups/g");
+    snapshot.recording(resolved(device));
+    snapshot.recording(resolved(wallet));
+    snapshot.recording(resolved(new Address("pools/p/mpcWallets/w/addresses/a", "0xabc",
+      Arrays.asList("pools/p/deviceGroups/g/mpcKeys/k"), "pools/p/mpcWallets/w")));
+    snapshot.recording(resolved("not metadata"));
+
+    snapshot.flush();
+    MetadataSnapshot restored = MetadataSnapshot.load(file, scheduler);
+
+    assertEquals(snapshot.toMap(), restored.toMap());
+    Map<String, Object> map = restored.toMap();
+    assertEquals("pools/p/devices/d", map.get("Device"));
+    assertEquals(1, ((List<?>) map.get("MPCWallets")).size());
+    Address address = restored.getAddresses().get(0);
+    assertEquals("0xabc", address.address);
+    assertEquals(Arrays.asList("pools/p/deviceGroups/g/mpcKeys/k"), address.mpcKeys);
+  }
+
+  @Test
+  public void load_ignoresFilesItCannotRead() throws Exception {
+    File file = new File(folder.getRoot(), "snapshot");
+    MetadataSnapshot snapshot = MetadataSnapshot.load(file, scheduler);
+    snapshot.recording(resolved(new Address("a", "0xabc", Arrays.<String>asList(), "w")));
+    snapshot.flush();
+    byte[] bytes = Files.readAllBytes(file.toPath());
+
+    // A truncated file.
+    Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+    assertTrue(MetadataSnapshot.load(file, scheduler).getAddresses().isEmpty());
+
+    // A file of another version.
+    bytes[7] = 2;
+    Files.write(file.toPath(), bytes);
+    MetadataSnapshot other = MetadataSnapshot.load(file, scheduler);
+    assertTrue(other.getAddresses().isEmpty());
+    assertNull(other.toMap().get("Device"));
+  }
+
+  @Test
+  public void recording_keepsTheMostRecentEntries() throws Exception {
+    MetadataSnapshot snapshot = MetadataSnapshot.load(new File(folder.getRoot(), "snapshot"), scheduler);
+    for (int i = 0; i <= MetadataSnapshot.maxEntries; i++) {
+      snapshot.recording(resolved(new Address("a" + i, "0x" + i, Arrays.<String>asList(), "w")));
+    }
+
+    List<Address> addresses = snapshot.getAddresses();
+    assertEquals(MetadataSnapshot.maxEntries, addresses.size());
+    assertEquals("a1", addresses.get(0).name);
+  }
+}
@@ -0,0 +1,86 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class OrderedExecutorTest {
+  private WaasScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    scheduler = new WaasScheduler(Executors.newFixedThreadPool(4));
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void callsOfOneKey_runOneAtATimeInOrder() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> order = new ArrayList<>();
+    WaasFuture<Void> first = new WaasFuture<>(() -> {
+      release.await();
+      synchronized (order) {
+        order.add(1);
+      }
+      return null;
+    });
+    WaasFuture<Void> second = new WaasFuture<>(() -> {
+      synchronized (order) {
+        order.add(2);
+      }
+      return null;
+    }, WaasPriority.HIGH);
+
+    scheduler.execute(WaasScheduler.Lane.COMPUTE, "group", first, null);
+    scheduler.execute(WaasScheduler.Lane.COMPUTE, "group", second, null);
+    // The lane has free threads, but the second call waits for the first one.
+    Thread.sleep(50);
+    assertFalse(second.isDone());
+
+    release.countDown();
+    second.get(5, TimeUnit.SECONDS);
+    assertEquals(Arrays.asList(1, 2), order);
+  }
+
+  @Test
+  public void callsOfDifferentKeys_runInParallel() throws Exception {
+    CountDownLatch bothRunning = new CountDownLatch(2);
+    Runnable rendezvous = () -> {
+      bothRunning.countDown();
+      try {
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    };
+    WaasFuture<Void> first = new WaasFuture<>(() -> {
+      rendezvous.run();
+      return null;
+    });
+    WaasFuture<Void> second = new WaasFuture<>(() -> {
+      rendezvous.run();
+      return null;
+    });
+
+    scheduler.execute(WaasScheduler.Lane.COMPUTE, "group1", first, null);
+    scheduler.execute(WaasScheduler.Lane.COMPUTE, "group2", second, null);
+
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+  }
+}
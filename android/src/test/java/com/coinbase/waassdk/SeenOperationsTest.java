@@ -0,0 +1,53 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class SeenOperationsTest {
+
+  private static List<Object> operations(String json) {
+    return JsonDecoder.decodeArray(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void filterNew_dropsOperationsAlreadySeen() throws Exception {
+    SeenOperations seen = new SeenOperations(8);
+
+    assertEquals(2, seen.filterNew(operations("[{\"Operation\":\"a\"},{\"Operation\":\"b\"}]")).size());
+    List<Object> fresh = seen.filterNew(operations("[{\"Operation\":\"a\"},{\"Operation\":\"c\"}]"));
+
+    assertEquals(operations("[{\"Operation\":\"c\"}]"), fresh);
+  }
+
+  @Test
+  public void filterNew_keepsChangedOperations() throws Exception {
+    SeenOperations seen = new SeenOperations(8);
+    seen.filterNew(operations("[{\"Operation\":\"a\",\"MPCData\":\"1\"}]"));
+
+    assertEquals(1, seen.filterNew(operations("[{\"Operation\":\"a\",\"MPCData\":\"2\"}]")).size());
+  }
+
+  @Test
+  public void filterNew_forgetsLeastRecentlySeenBeyondCapacity() throws Exception {
+    SeenOperations seen = new SeenOperations(2);
+    seen.filterNew(operations("[{\"Operation\":\"a\"},{\"Operation\":\"b\"},{\"Operation\":\"c\"}]"));
+
+    assertEquals(1, seen.filterNew(operations("[{\"Operation\":\"a\"}]")).size());
+    assertEquals(0, seen.filterNew(operations("[{\"Operation\":\"c\"}]")).size());
+  }
+
+  @Test
+  public void fingerprintOf_dependsOnContentsNotMapOrder() throws Exception {
+    Object first = operations("[{\"Operation\":\"a\",\"MPCData\":\"1\",\"Nonce\":1}]").get(0);
+    Object reordered = operations("[{\"Nonce\":1,\"MPCData\":\"1\",\"Operation\":\"a\"}]").get(0);
+    Object retyped = operations("[{\"Operation\":\"a\",\"MPCData\":\"1\",\"Nonce\":\"1\"}]").get(0);
+
+    assertEquals(SeenOperations.fingerprintOf(first), SeenOperations.fingerprintOf(reordered));
+    assertNotEquals(SeenOperations.fingerprintOf(first), SeenOperations.fingerprintOf(retyped));
+  }
+}
@@ -0,0 +1,205 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.waassdkinternal.v1.Signature;
+import com.waassdkinternal.v1.SignedTransaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SignTransactionPipelineTest {
+  private static final String group = "pools/p/deviceGroups/g";
+  private static final String parent = group + "/mpcKeys/k";
+  private static final byte[] tx = "{}".getBytes(StandardCharsets.UTF_8);
+
+  private WaasScheduler scheduler;
+  private MPCKeyService service;
+  private final MPCSdk mpcSdk = mock(MPCSdk.class);
+  private final DeviceGroupPoller poller = mock(DeviceGroupPoller.class);
+  private final Signature signature = new Signature();
+  private final SignedTransaction signed = new SignedTransaction();
+
+  @Before
+  public void setUp() throws Exception {
+    scheduler = new WaasScheduler(Executors.newCachedThreadPool());
+    service = mock(MPCKeyService.class, CALLS_REAL_METHODS);
+    service.scheduler = scheduler;
+    service.pollers = new ConcurrentHashMap<>();
+    service.signings = new HashMap<>();
+    service.signatureClaims = new HashMap<>();
+
+    doReturn(poller).when(service).pollerFor(group, 10);
+    // Every poll finds the Signature of the pipeline polling, as if the earlier ones had completed.
+    AtomicInteger created = new AtomicInteger();
+    when(poller.next(any(), anyBoolean())).thenAnswer(invocation -> pending("op" + created.incrementAndGet()));
+    doAnswer(invocation -> created("success")).when(service).createSignatureFromTx(any(), any(byte[].class), any());
+    doReturn(completed(signature)).when(service).waitPendingSignature(any(), eq(WaasPriority.HIGH));
+    doReturn(completed(signed)).when(service).getSignedTransaction(any(byte[].class), any(), any());
+    when(mpcSdk.orderedBy(group)).thenReturn(mpcSdk);
+    when(mpcSdk.computeMPCOperation(any(), eq(WaasPriority.HIGH))).thenReturn(completed(null));
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  private static <T> WaasFuture<T> completed(T value) {
+    WaasFuture<T> future = new WaasFuture<>(() -> value);
+    future.run();
+    return future;
+  }
+
+  private static List<Object> operations(String json) {
+    return JsonDecoder.decodeArray(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  // Creates a Signature as the real createSignatureFromTx would, resolving with `result`.
+  private WaasFuture<String> created(String result) {
+    service.signatureClaimsOf(group).created();
+    return completed(result);
+  }
+
+  // Resolves with the given pending Signatures, whose MPCData is their name followed by "-data".
+  private static WaasFuture<Map<DeviceGroupPoller.Kind, List<Object>>> pending(String... operations) {
+    StringBuilder json = new StringBuilder("[");
+    for (String operation : operations) {
+      json.append(json.length() > 1 ? "," : "")
+        .append("{\"Operation\":\"").append(operation).append("\",\"MPCData\":\"").append(operation).append("-data\"}");
+    }
+    return completed(Collections.singletonMap(DeviceGroupPoller.Kind.SIGNATURES, operations(json.append("]").toString())));
+  }
+
+  @Test
+  public void signTransaction_runsEveryStageAndTimesThem() throws Exception {
+    SignedTransactionResult result =
+      service.signTransaction(mpcSdk, group, parent, tx, 10).get(5, TimeUnit.SECONDS);
+
+    assertSame(signed, result.getSignedTransaction());
+    assertSame(signature, result.getSignature());
+    assertEquals(SignedTransactionResult.Stage.values().length, result.getStageNanos().size());
+    verify(service).getSignedTransaction(any(byte[].class), any(), any());
+    assertTrue(service.signings.isEmpty());
+  }
+
+  @Test
+  public void signTransaction_queuesPipelinesOfOneDeviceGroup() throws Exception {
+    WaasFuture<String> slowCreate = new WaasFuture<>(() -> "success");
+    doReturn(slowCreate).doAnswer(invocation -> created("success")).when(service).createSignatureFromTx(any(), any(byte[].class), any());
+
+    WaasFuture<SignedTransactionResult> first = service.signTransaction(mpcSdk, group, parent, tx, 10);
+    WaasFuture<SignedTransactionResult> second = service.signTransaction(mpcSdk, group, parent, tx, 10);
+    // The second pipeline has not started, as the first one is still creating its Signature.
+    assertFalse(second.isDone());
+    verify(poller, never()).next(any(), anyBoolean());
+
+    slowCreate.run();
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void signTransaction_doesNotTakeTheSignatureOfAnOrphanedPipeline() throws Exception {
+    WaasFuture<Map<DeviceGroupPoller.Kind, List<Object>>> never = new WaasFuture<>(() -> null);
+    when(poller.next(any(), anyBoolean())).thenReturn(never);
+    WaasFuture<SignedTransactionResult> orphaned = service.signTransaction(mpcSdk, group, parent, tx, 10);
+    // Cancelled after creating its Signature, which is left pending.
+    orphaned.cancel(true);
+
+    when(poller.next(any(), anyBoolean())).thenReturn(pending("orphan", "own"));
+    try {
+      service.signTransaction(mpcSdk, group, parent, tx, 10).get(5, TimeUnit.SECONDS);
+      fail("took a Signature it could not tell apart");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof WaasException);
+    }
+    verify(mpcSdk, never()).computeMPCOperation(eq("orphan-data"), any());
+
+    // Both are accounted for now, so the next pipeline takes the new one.
+    when(poller.next(any(), anyBoolean())).thenReturn(pending("orphan", "own", "op"));
+    assertSame(signed, service.signTransaction(mpcSdk, group, parent, tx, 10).get(5, TimeUnit.SECONDS).getSignedTransaction());
+    verify(mpcSdk).computeMPCOperation("op-data", WaasPriority.HIGH);
+  }
+
+  @Test
+  public void signTransaction_doesNotTakeAForeignSignature() throws Exception {
+    // As if Dart had called createSignatureFromTx itself.
+    service.signatureClaimsOf(group).created();
+    when(poller.next(any(), anyBoolean())).thenReturn(pending("foreign"));
+
+    try {
+      service.signTransaction(mpcSdk, group, parent, tx, 10).get(5, TimeUnit.SECONDS);
+      fail("took a foreign Signature");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof WaasException);
+    }
+    verify(mpcSdk, never()).computeMPCOperation(eq("foreign-data"), any());
+  }
+
+  @Test
+  public void signTransaction_takesTheOperationCreateSignatureFromTxNamed() throws Exception {
+    service.signatureClaimsOf(group).created();
+    doAnswer(invocation -> created("op")).when(service).createSignatureFromTx(any(), any(byte[].class), any());
+    when(poller.next(any(), anyBoolean())).thenReturn(pending("foreign", "op"));
+
+    assertSame(signed, service.signTransaction(mpcSdk, group, parent, tx, 10).get(5, TimeUnit.SECONDS).getSignedTransaction());
+    verify(mpcSdk, never()).computeMPCOperation(eq("foreign-data"), any());
+  }
+
+  @Test
+  public void signTransactions_reportsEveryItemIncludingFailures() throws Exception {
+    WaasFuture<String> failed = new WaasFuture<>(() -> {
+      throw new WaasException("createSignatureFromTx failed : ", "down");
+    });
+    failed.run();
+    doReturn(failed).doAnswer(invocation -> created("success")).when(service).createSignatureFromTx(any(), any(byte[].class), any());
+
+    List<Integer> signedItems = new ArrayList<>();
+    List<Integer> failedItems = new ArrayList<>();
+    SignTransactionBatch batch = service.signTransactions(mpcSdk, group, parent,
+      Arrays.asList(tx, tx, tx), 10, 2, new SignTransactionBatch.Listener() {
+        @Override
+        public synchronized void onSigned(int index, SignedTransactionResult result) {
+          signedItems.add(index);
+        }
+
+        @Override
+        public synchronized void onFailed(int index, Throwable error) {
+          failedItems.add(index);
+        }
+      });
+
+    batch.get(5, TimeUnit.SECONDS);
+    assertEquals(Collections.singletonList(0), failedItems);
+    assertEquals(2, signedItems.size());
+  }
+}
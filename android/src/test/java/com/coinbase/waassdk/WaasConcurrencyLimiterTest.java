@@ -0,0 +1,67 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class WaasConcurrencyLimiterTest {
+  private static final long rtt = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @Test
+  public void onSample_lowLatencyUnderLoad_growsByOne() {
+    WaasConcurrencyLimiter limiter = new WaasConcurrencyLimiter(4, 1, 32);
+
+    assertEquals(5, limiter.onSample(rtt, false, 4));
+    assertEquals(6, limiter.onSample(rtt, false, 5));
+  }
+
+  @Test
+  public void onSample_idle_keepsLimit() {
+    WaasConcurrencyLimiter limiter = new WaasConcurrencyLimiter(8, 1, 32);
+
+    assertEquals(8, limiter.onSample(rtt, false, 1));
+  }
+
+  @Test
+  public void onSample_latencyAboveBaseline_shrinks() {
+    WaasConcurrencyLimiter limiter = new WaasConcurrencyLimiter(10, 1, 32);
+    limiter.onSample(rtt, false, 1);
+
+    assertEquals(9, limiter.onSample(rtt * 3, false, 10));
+  }
+
+  @Test
+  public void onSample_failure_backsOffToMinimum() {
+    WaasConcurrencyLimiter limiter = new WaasConcurrencyLimiter(3, 2, 32);
+
+    assertEquals(2, limiter.onSample(rtt, true, 3));
+    assertEquals(2, limiter.onSample(rtt, true, 2));
+  }
+
+  @Test
+  public void onSample_nearZeroLatency_doesNotBecomeTheBaseline() {
+    WaasConcurrencyLimiter limiter = new WaasConcurrencyLimiter(4, 1, 32);
+
+    assertEquals(4, limiter.onSample(TimeUnit.MICROSECONDS.toNanos(5), false, 4));
+    assertEquals(5, limiter.onSample(rtt, false, 4));
+    assertEquals(6, limiter.onSample(rtt, false, 5));
+  }
+
+  @Test
+  public void isDrop_onlyForTransportFailuresAndTimeouts() {
+    assertTrue(WaasConcurrencyLimiter.isDrop(new WaasDeadlineExceededException()));
+    assertTrue(WaasConcurrencyLimiter.isDrop(new WaasException("getAddress failed : ",
+      "rpc error: code = Unavailable desc = connection error")));
+    assertTrue(WaasConcurrencyLimiter.isDrop(new WaasException("getAddress failed : ",
+      "dial tcp: lookup api.example.com: no such host")));
+
+    assertFalse(WaasConcurrencyLimiter.isDrop(new WaasException("getAddress failed : ",
+      "rpc error: code = InvalidArgument desc = invalid name")));
+    assertFalse(WaasConcurrencyLimiter.isDrop(new WaasException("getAddress failed : ", null)));
+    assertFalse(WaasConcurrencyLimiter.isDrop(null));
+  }
+}
@@ -0,0 +1,96 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class WaasFutureTest {
+  @SuppressWarnings("unchecked")
+  private static WaasFuture.Callback<String> mockCallback() {
+    return mock(WaasFuture.Callback.class);
+  }
+
+  @Test
+  public void addCallback_beforeCompletion_isNotifiedOnRun() {
+    WaasFuture<String> future = new WaasFuture<>(() -> "done");
+    WaasFuture.Callback<String> callback = mockCallback();
+
+    future.addCallback(callback);
+    verify(callback, never()).onSuccess("done");
+
+    future.run();
+    verify(callback).onSuccess("done");
+  }
+
+  @Test
+  public void addCallback_afterCompletion_isNotifiedImmediately() {
+    WaasFuture<String> future = new WaasFuture<>(() -> "done");
+    future.run();
+
+    WaasFuture.Callback<String> callback = mockCallback();
+    future.addCallback(callback);
+    verify(callback).onSuccess("done");
+  }
+
+  @Test
+  public void failure_deliversUnwrappedCause() {
+    WaasFuture<String> future = new WaasFuture<>(() -> {
+      throw new WaasException("op failed : ", "boom");
+    });
+    WaasFuture.Callback<String> callback = mockCallback();
+    future.addCallback(callback);
+    future.run();
+
+    ArgumentCaptor<Throwable> captor = ArgumentCaptor.forClass(Throwable.class);
+    verify(callback).onFailure(captor.capture());
+    assertTrue(captor.getValue() instanceof WaasException);
+    assertEquals("boom", captor.getValue().getMessage());
+  }
+
+  @Test
+  public void cancel_deliversCancellation() {
+    WaasFuture<String> future = new WaasFuture<>(() -> "done");
+    WaasFuture.Callback<String> callback = mockCallback();
+    future.addCallback(callback);
+    future.cancel(true);
+
+    ArgumentCaptor<Throwable> captor = ArgumentCaptor.forClass(Throwable.class);
+    verify(callback).onFailure(captor.capture());
+    assertTrue(captor.getValue() instanceof CancellationException);
+  }
+
+  @Test
+  public void fail_beforeRun_deliversErrorAndSkipsCallable() {
+    WaasFuture<String> future = new WaasFuture<>(() -> {
+      throw new AssertionError("callable must not run");
+    });
+    WaasFuture.Callback<String> callback = mockCallback();
+    future.addCallback(callback);
+
+    assertTrue(future.fail(new WaasDeadlineExceededException()));
+    future.run();
+
+    ArgumentCaptor<Throwable> captor = ArgumentCaptor.forClass(Throwable.class);
+    verify(callback).onFailure(captor.capture());
+    assertEquals(WaasDeadlineExceededException.errorType, ((WaasException) captor.getValue()).getErrorType());
+  }
+
+  @Test
+  public void fail_afterCompletion_keepsResult() {
+    WaasFuture<String> future = new WaasFuture<>(() -> "done");
+    future.run();
+
+    assertFalse(future.fail(new WaasDeadlineExceededException()));
+    WaasFuture.Callback<String> callback = mockCallback();
+    future.addCallback(callback);
+    verify(callback).onSuccess("done");
+  }
+}
@@ -0,0 +1,60 @@
+package com.coinbase.waassdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WaasSchedulerTest {
+  private static final int waitThreads = 2;
+
+  private WaasScheduler scheduler;
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @Before
+  public void setUp() {
+    scheduler = new WaasScheduler(waitThreads, 1, 1);
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void pollLane_runsMorePollsThanAnyLaneHasThreads() throws Exception {
+    int polls = waitThreads * 4;
+    CountDownLatch running = new CountDownLatch(polls);
+    for (int i = 0; i < polls; i++) {
+      scheduler.execute(WaasScheduler.Lane.POLL, new WaasFuture<Void>(() -> {
+        running.countDown();
+        release.await();
+        return null;
+      }), null);
+    }
+
+    assertTrue(running.await(5, TimeUnit.SECONDS));
+    assertEquals(polls, scheduler.concurrencyLimit(WaasScheduler.Lane.POLL));
+  }
+
+  @Test
+  public void waitLane_doesNotQueueBehindPolls() throws Exception {
+    for (int i = 0; i < waitThreads * 4; i++) {
+      scheduler.execute(WaasScheduler.Lane.POLL, new WaasFuture<Void>(() -> {
+        release.await();
+        return null;
+      }), null);
+    }
+
+    WaasFuture<String> wait = new WaasFuture<>(() -> "signature");
+    scheduler.execute(WaasScheduler.Lane.WAIT, wait, null);
+
+    assertEquals("signature", wait.get(5, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,74 @@
+import 'package:flutter/services.dart';
+
+import 'waas_sdk_flutter_platform_interface.dart';
+
+/// The message codec of the plugin's method channels.
+///
+/// The native side writes the SDK objects the services resolve with as a
+/// type tag followed by their fields in a fixed order, rather than as maps;
+/// this codec reads them back into the maps those calls have always resolved
+/// with. [WaasBlob]s are written, and read back, as a tag followed by their
+/// id. Everything else is as by [StandardMessageCodec].
+///
+/// The tags and field orders must match WaasMessageCodec.java.
+class WaasMessageCodec extends StandardMessageCodec {
+  const WaasMessageCodec();
+
+  // Above the tags of StandardMessageCodec.
+  static const int _address = 128;
+  static const int _signature = 129;
+  static const int _signedTransaction = 130;
+  static const int _deviceGroup = 131;
+  static const int _pool = 132;
+  static const int _blob = 133;
+
+  @override
+  void writeValue(WriteBuffer buffer, Object? value) {
+    if (value is WaasBlob) {
+      buffer.putUint8(_blob);
+      writeValue(buffer, value.id);
+    } else {
+      super.writeValue(buffer, value);
+    }
+  }
+
+  @override
+  Object? readValueOfType(int type, ReadBuffer buffer) {
+    // Map literal entries are evaluated in order, as the fields were written.
+    switch (type) {
+      case _address:
+        return <Object?, Object?>{
+          'Name': readValue(buffer),
+          'Address': readValue(buffer),
+          'MPCKeys': readValue(buffer),
+          'MPCWallet': readValue(buffer),
+        };
+      case _signature:
+        return <Object?, Object?>{
+          'Name': readValue(buffer),
+          'Payload': readValue(buffer),
+          'SignedPayload': readValue(buffer),
+        };
+      case _signedTransaction:
+        return <Object?, Object?>{
+          'RawTransaction': readValue(buffer),
+          'TransactionHash': readValue(buffer),
+        };
+      case _deviceGroup:
+        return <Object?, Object?>{
+          'Name': readValue(buffer),
+          'MPCKeyExportMetadata': readValue(buffer),
+          'Devices': readValue(buffer),
+        };
+      case _pool:
+        return <Object?, Object?>{
+          'name': readValue(buffer),
+          'displayName': readValue(buffer),
+        };
+      case _blob:
+        return WaasBlob(readValue(buffer)! as int);
+      default:
+        return super.readValueOfType(type, buffer);
+    }
+  }
+}
@@ -1,12 +1,75 @@
+import 'dart:io';
+
 import 'waas_sdk_flutter_platform_interface.dart';
 
+export 'waas_sdk_flutter_platform_interface.dart'
+    show
+        WaasBlob,
+        WaasCancellationToken,
+        WaasDeadline,
+        WaasPendingOperationKind,
+        WaasPendingOperations,
+        WaasPriority,
+        WaasSignedTransactionItem;
+
 class WaasSdkFlutter {
   Future<String?> getPlatformVersion() {
     return WaasSdkFlutterPlatform.instance.getPlatformVersion();
   }
 
-  Future<void> initMPCSdk(bool isSimulator) {
-    return WaasSdkFlutterPlatform.instance.initMPCSdk(isSimulator);
+  Future<Map<String, dynamic>> getSchedulerStats() {
+    return WaasSdkFlutterPlatform.instance.getSchedulerStats();
+  }
+
+  /// The number of native calls each scheduler lane currently runs at once,
+  /// keyed by lane. The "rpc" limit adapts to the latency of the network.
+  Future<Map<String, int>> getConcurrencyLimits() {
+    return WaasSdkFlutterPlatform.instance.getConcurrencyLimits();
+  }
+
+  /// The metadata kept on the device from previous runs and updated as calls
+  /// resolve: "Device", the name of the registered Device, and "MPCWallets",
+  /// "Addresses" and "DeviceGroups", lists of the maps their calls resolve
+  /// with. Read locally, so that a first screen can render from it while the
+  /// services are called to refresh it.
+  Future<Map<String, dynamic>> getMetadataSnapshot() {
+    return WaasSdkFlutterPlatform.instance.getMetadataSnapshot();
+  }
+
+  /// Sets how long the Go client of a native service may go unused before it
+  /// is released to reclaim memory; the next call recreates it. A zero
+  /// [timeout] keeps clients until the engine detaches. Defaults to 5 minutes.
+  Future<void> setClientIdleTimeout(Duration timeout) {
+    return WaasSdkFlutterPlatform.instance.setClientIdleTimeout(timeout);
+  }
+
+  /// Cancels the in-flight call made with [cancellationToken]. The call
+  /// completes with a PlatformException with code E_CANCELLED.
+  Future<bool> cancel(WaasCancellationToken cancellationToken) {
+    return WaasSdkFlutterPlatform.instance.cancel(cancellationToken);
+  }
+
+  /// Keeps [value], a String or a transaction, on the native side, e.g. to
+  /// sign it several times without sending it again.
+  Future<WaasBlob> createBlob(Object value) {
+    return WaasSdkFlutterPlatform.instance.createBlob(value);
+  }
+
+  /// Releases the payload of [blob], which may no longer be passed to calls.
+  Future<bool> releaseBlob(WaasBlob blob) {
+    return WaasSdkFlutterPlatform.instance.releaseBlob(blob);
+  }
+
+  /// Initializes the MPC SDK. [maxInFlight] and [maxQueued] bound the calls
+  /// the native side runs at once and holds waiting; calls beyond them fail
+  /// with a PlatformException with code E_OVERLOADED.
+  Future<void> initMPCSdk(
+    bool isSimulator, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
+    return WaasSdkFlutterPlatform.instance.initMPCSdk(isSimulator,
+        maxInFlight: maxInFlight, maxQueued: maxQueued);
   }
 
   Future<void> bootstrapDevice(String passcode) {
@@ -17,72 +80,129 @@ class WaasSdkFlutter {
     return WaasSdkFlutterPlatform.instance.getRegistrationData();
   }
 
-  Future<void> computeMPCOperation(String mpcData) {
-    return WaasSdkFlutterPlatform.instance.computeMPCOperation(mpcData);
+  Future<void> computeMPCOperation(
+    Object mpcData, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) {
+    return WaasSdkFlutterPlatform.instance.computeMPCOperation(mpcData,
+        priority: priority, orderedByDeviceGroup: orderedByDeviceGroup);
   }
 
   Future<dynamic> exportPrivateKeys(
     String mpcKeyExportMetadata,
-    String passcode,
-  ) {
+    String passcode, {
+    WaasPriority? priority,
+  }) {
     return WaasSdkFlutterPlatform.instance.exportPrivateKeys(
       mpcKeyExportMetadata,
       passcode,
+      priority: priority,
     );
   }
 
-  Future<void> computePrepareDeviceArchiveMPCOperation(
-    String mpcData,
+  /// Writes the exported private keys to [file] natively, so that they are
+  /// neither decoded nor sent over the channel.
+  Future<int> exportPrivateKeysToFile(
+    String mpcKeyExportMetadata,
     String passcode,
-  ) {
+    File file, {
+    WaasPriority? priority,
+  }) {
+    return WaasSdkFlutterPlatform.instance.exportPrivateKeysToFile(
+      mpcKeyExportMetadata,
+      passcode,
+      file,
+      priority: priority,
+    );
+  }
+
+  Future<void> computePrepareDeviceArchiveMPCOperation(
+    Object mpcData,
+    String passcode, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) {
     return WaasSdkFlutterPlatform.instance
-        .computePrepareDeviceArchiveMPCOperation(mpcData, passcode);
+        .computePrepareDeviceArchiveMPCOperation(mpcData, passcode,
+            priority: priority, orderedByDeviceGroup: orderedByDeviceGroup);
   }
 
   Future<void> computePrepareDeviceBackupMPCOperation(
-    String mpcData,
-    String passcode,
-  ) {
+    Object mpcData,
+    String passcode, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) {
     return WaasSdkFlutterPlatform.instance
-        .computePrepareDeviceBackupMPCOperation(mpcData, passcode);
+        .computePrepareDeviceBackupMPCOperation(mpcData, passcode,
+            priority: priority, orderedByDeviceGroup: orderedByDeviceGroup);
   }
 
   Future<String> exportDeviceBackup() {
     return WaasSdkFlutterPlatform.instance.exportDeviceBackup();
   }
 
+  /// Exports the device backup, keeping it on the native side until passed to
+  /// [computeAddDeviceMPCOperation].
+  Future<WaasBlob> exportDeviceBackupBlob() {
+    return WaasSdkFlutterPlatform.instance.exportDeviceBackupBlob();
+  }
+
+  /// Writes the device backup to [file] as raw bytes natively; pass [file] to
+  /// [computeAddDeviceMPCOperation] to restore from it.
+  Future<int> exportDeviceBackupToFile(File file) {
+    return WaasSdkFlutterPlatform.instance.exportDeviceBackupToFile(file);
+  }
+
   Future<void> computeAddDeviceMPCOperation(
-    String mpcData,
+    Object mpcData,
     String passcode,
-    String deviceGroup,
-  ) {
-    return WaasSdkFlutterPlatform.instance
-        .computeAddDeviceMPCOperation(mpcData, passcode, deviceGroup);
+    Object deviceBackup, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) {
+    return WaasSdkFlutterPlatform.instance.computeAddDeviceMPCOperation(
+        mpcData, passcode, deviceBackup,
+        priority: priority, orderedByDeviceGroup: orderedByDeviceGroup);
   }
 
   Future<void> resetPasscode(String newPasscode) {
     return WaasSdkFlutterPlatform.instance.resetPasscode(newPasscode);
   }
 
+  /// See [initMPCSdk] for [maxInFlight] and [maxQueued].
   Future<void> initMPCKeyService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) {
-    return WaasSdkFlutterPlatform.instance
-        .initMPCKeyService(apiKeyName, privateKey, proxyUrl);
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
+    return WaasSdkFlutterPlatform.instance.initMPCKeyService(
+        apiKeyName, privateKey, proxyUrl,
+        maxInFlight: maxInFlight, maxQueued: maxQueued);
   }
 
-  Future<dynamic> registerDevice() {
-    return WaasSdkFlutterPlatform.instance.registerDevice();
+  Future<dynamic> registerDevice({WaasPriority? priority}) {
+    return WaasSdkFlutterPlatform.instance.registerDevice(priority: priority);
   }
 
+  /// If [mpcDataAsBlobs] is set, the MPCData of each operation stays on the
+  /// native side and comes back as a [WaasBlob]; the same applies to the
+  /// other pollForPending methods.
   Future<dynamic> pollForPendingDeviceGroup(
     String deviceGroup,
-    int pollInterval,
-  ) {
-    return WaasSdkFlutterPlatform.instance
-        .pollForPendingDeviceGroup(deviceGroup, pollInterval);
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    return WaasSdkFlutterPlatform.instance.pollForPendingDeviceGroup(
+        deviceGroup, pollInterval,
+        mpcDataAsBlobs: mpcDataAsBlobs,
+        priority: priority,
+        cancellationToken: cancellationToken);
   }
 
   Future<String> stopPollingPendingDeviceGroup() {
@@ -91,51 +211,101 @@ class WaasSdkFlutter {
 
   Future<String> createSignatureFromTx(
     String parent,
-    Map<String, dynamic> transaction,
-  ) {
+    Object transaction, {
+    WaasPriority? priority,
+  }) {
     return WaasSdkFlutterPlatform.instance
-        .createSignatureFromTx(parent, transaction);
+        .createSignatureFromTx(parent, transaction, priority: priority);
   }
 
   Future<dynamic> pollForPendingSignatures(
     String deviceGroup,
-    int pollInterval,
-  ) {
-    return WaasSdkFlutterPlatform.instance
-        .pollForPendingSignatures(deviceGroup, pollInterval);
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    return WaasSdkFlutterPlatform.instance.pollForPendingSignatures(
+        deviceGroup, pollInterval,
+        mpcDataAsBlobs: mpcDataAsBlobs,
+        priority: priority,
+        cancellationToken: cancellationToken);
   }
 
   Future<String> stopPollingForPendingSignatures() {
     return WaasSdkFlutterPlatform.instance.stopPollingForPendingSignatures();
   }
 
-  Future<dynamic> waitPendingSignature(String operation) {
-    return WaasSdkFlutterPlatform.instance.waitPendingSignature(operation);
+  Future<dynamic> waitPendingSignature(
+    String operation, {
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    return WaasSdkFlutterPlatform.instance.waitPendingSignature(operation,
+        priority: priority, cancellationToken: cancellationToken);
   }
 
   Future<dynamic> getSignedTransaction(
-    Map<String, dynamic> transaction,
-    Map<String, dynamic> signature,
-  ) {
+    Object transaction,
+    Map<String, dynamic> signature, {
+    WaasPriority? priority,
+  }) {
     return WaasSdkFlutterPlatform.instance
-        .getSignedTransaction(transaction, signature);
+        .getSignedTransaction(transaction, signature, priority: priority);
   }
 
-  Future<dynamic> getDeviceGroup(String name) {
-    return WaasSdkFlutterPlatform.instance.getDeviceGroup(name);
+  Future<dynamic> signTransaction(
+    String deviceGroup,
+    String parent,
+    Object transaction,
+    int pollInterval, {
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    return WaasSdkFlutterPlatform.instance.signTransaction(
+        deviceGroup, parent, transaction, pollInterval,
+        priority: priority, cancellationToken: cancellationToken);
+  }
+
+  Stream<WaasSignedTransactionItem> signTransactions(
+    String deviceGroup,
+    String parent,
+    List<Object> transactions,
+    int pollInterval, {
+    int? parallelism,
+    WaasPriority? priority,
+  }) {
+    return WaasSdkFlutterPlatform.instance.signTransactions(
+        deviceGroup, parent, transactions, pollInterval,
+        parallelism: parallelism, priority: priority);
   }
 
-  Future<String> prepareDeviceArchive(String deviceGroup, String device) {
+  Future<dynamic> getDeviceGroup(String name, {WaasPriority? priority}) {
     return WaasSdkFlutterPlatform.instance
-        .prepareDeviceArchive(deviceGroup, device);
+        .getDeviceGroup(name, priority: priority);
   }
 
-  Future<dynamic> pollForPendingDeviceArchives(
+  Future<String> prepareDeviceArchive(
     String deviceGroup,
-    int pollInterval,
-  ) {
+    String device, {
+    WaasPriority? priority,
+  }) {
     return WaasSdkFlutterPlatform.instance
-        .pollForPendingDeviceArchives(deviceGroup, pollInterval);
+        .prepareDeviceArchive(deviceGroup, device, priority: priority);
+  }
+
+  Future<dynamic> pollForPendingDeviceArchives(
+    String deviceGroup,
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    return WaasSdkFlutterPlatform.instance.pollForPendingDeviceArchives(
+        deviceGroup, pollInterval,
+        mpcDataAsBlobs: mpcDataAsBlobs,
+        priority: priority,
+        cancellationToken: cancellationToken);
   }
 
   Future<String> stopPollingForPendingDeviceArchives() {
@@ -145,41 +315,106 @@ class WaasSdkFlutter {
 
   Future<dynamic> pollForPendingDeviceBackups(
     String deviceGroup,
-    int pollInterval,
-  ) {
-    return WaasSdkFlutterPlatform.instance
-        .pollForPendingDeviceBackups(deviceGroup, pollInterval);
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    return WaasSdkFlutterPlatform.instance.pollForPendingDeviceBackups(
+        deviceGroup, pollInterval,
+        mpcDataAsBlobs: mpcDataAsBlobs,
+        priority: priority,
+        cancellationToken: cancellationToken);
   }
 
   Future<String> stopPollingForPendingDeviceBackups() {
     return WaasSdkFlutterPlatform.instance.stopPollingForPendingDeviceBackups();
   }
 
-  Future<String> prepareDeviceBackup(String deviceGroup, String device) {
+  Future<String> prepareDeviceBackup(
+    String deviceGroup,
+    String device, {
+    WaasPriority? priority,
+  }) {
     return WaasSdkFlutterPlatform.instance
-        .prepareDeviceBackup(deviceGroup, device);
+        .prepareDeviceBackup(deviceGroup, device, priority: priority);
   }
 
-  Future<String> addDevice(String deviceGroup, String device) {
-    return WaasSdkFlutterPlatform.instance.addDevice(deviceGroup, device);
+  Future<String> addDevice(
+    String deviceGroup,
+    String device, {
+    WaasPriority? priority,
+  }) {
+    return WaasSdkFlutterPlatform.instance
+        .addDevice(deviceGroup, device, priority: priority);
   }
 
-  Future<dynamic> pollForPendingDevices(String deviceGroup, int pollInterval) {
-    return WaasSdkFlutterPlatform.instance
-        .pollForPendingDevices(deviceGroup, pollInterval);
+  Future<dynamic> pollForPendingDevices(
+    String deviceGroup,
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    return WaasSdkFlutterPlatform.instance.pollForPendingDevices(
+        deviceGroup, pollInterval,
+        mpcDataAsBlobs: mpcDataAsBlobs,
+        priority: priority,
+        cancellationToken: cancellationToken);
   }
 
   Future<String> stopPollingForPendingDevices() {
     return WaasSdkFlutterPlatform.instance.stopPollingForPendingDevices();
   }
 
+  /// Polls for pending operations of any of [kinds] of [deviceGroup], and
+  /// returns the first set that materializes, keyed by kind. Prefer this over
+  /// the per-kind polls when watching several kinds at once.
+  Future<Map<WaasPendingOperationKind, List<dynamic>>> pollForPendingOperations(
+    String deviceGroup,
+    int pollInterval,
+    Set<WaasPendingOperationKind> kinds, {
+    bool includeAll = false,
+    bool mpcDataAsBlobs = false,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    return WaasSdkFlutterPlatform.instance.pollForPendingOperations(
+        deviceGroup, pollInterval, kinds,
+        includeAll: includeAll,
+        mpcDataAsBlobs: mpcDataAsBlobs,
+        cancellationToken: cancellationToken);
+  }
+
+  /// Streams the pending operations of any of [kinds] of [deviceGroup] as
+  /// they materialize, until the subscription is cancelled. Prefer this over
+  /// calling a poll method in a loop.
+  Stream<WaasPendingOperations> watchPendingOperations(
+    String deviceGroup,
+    int pollInterval,
+    Set<WaasPendingOperationKind> kinds, {
+    bool includeAll = false,
+  }) {
+    return WaasSdkFlutterPlatform.instance.watchPendingOperations(
+        deviceGroup, pollInterval, kinds, includeAll: includeAll);
+  }
+
+  /// Stops polling [deviceGroup] for [pollForPendingOperations] and
+  /// [watchPendingOperations], leaving other DeviceGroups' polls running.
+  Future<bool> stopPollingDeviceGroup(String deviceGroup) {
+    return WaasSdkFlutterPlatform.instance.stopPollingDeviceGroup(deviceGroup);
+  }
+
+  /// See [initMPCSdk] for [maxInFlight] and [maxQueued].
   Future<void> initMPCWalletService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) {
-    return WaasSdkFlutterPlatform.instance
-        .initMPCWalletService(apiKeyName, privateKey, proxyUrl);
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
+    return WaasSdkFlutterPlatform.instance.initMPCWalletService(
+        apiKeyName, privateKey, proxyUrl,
+        maxInFlight: maxInFlight, maxQueued: maxQueued);
   }
 
   Future<dynamic> createMPCWallet(String poolID, String device) {
@@ -192,7 +427,8 @@ class WaasSdkFlutter {
     if (pendingDeviceGroup != null) {
       for (int i = pendingDeviceGroup.length - 1; i >= 0; i--) {
         var deviceGroupOperation = pendingDeviceGroup[i];
-        await computeMPCOperation(deviceGroupOperation['MPCData']);
+        await computeMPCOperation(deviceGroupOperation['MPCData'],
+            orderedByDeviceGroup: deviceGroup);
       }
     }
 
@@ -202,14 +438,19 @@ class WaasSdkFlutter {
     for (int i = pendingDeviceArchiveOperations.length - 1; i >= 0; i--) {
       var pendingOperation = pendingDeviceArchiveOperations[i];
       await computePrepareDeviceArchiveMPCOperation(
-          pendingOperation['MPCData'], passcode);
+          pendingOperation['MPCData'], passcode,
+          orderedByDeviceGroup: deviceGroup);
     }
 
     return;
   }
 
-  Future<dynamic> waitPendingMPCWallet(String operation) {
-    return WaasSdkFlutterPlatform.instance.waitPendingMPCWallet(operation);
+  Future<dynamic> waitPendingMPCWallet(
+    String operation, {
+    WaasCancellationToken? cancellationToken,
+  }) {
+    return WaasSdkFlutterPlatform.instance
+        .waitPendingMPCWallet(operation, cancellationToken: cancellationToken);
   }
 
   Future<dynamic> generateAddress(
@@ -223,13 +464,23 @@ class WaasSdkFlutter {
     return WaasSdkFlutterPlatform.instance.getAddress(name);
   }
 
+  /// The hits, misses and size of the native Address cache behind
+  /// [getAddress].
+  Future<Map<String, int>> getAddressCacheStats() {
+    return WaasSdkFlutterPlatform.instance.getAddressCacheStats();
+  }
+
+  /// See [initMPCSdk] for [maxInFlight] and [maxQueued].
   Future<void> initPoolService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) {
-    return WaasSdkFlutterPlatform.instance
-        .initPoolService(apiKeyName, privateKey, proxyUrl);
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
+    return WaasSdkFlutterPlatform.instance.initPoolService(
+        apiKeyName, privateKey, proxyUrl,
+        maxInFlight: maxInFlight, maxQueued: maxQueued);
   }
 
   Future<dynamic> createPool(String displayName, String poolID) {
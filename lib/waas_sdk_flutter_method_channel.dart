@@ -1,28 +1,58 @@
+import 'dart:async';
+import 'dart:io';
+
 import 'package:flutter/foundation.dart';
 import 'package:flutter/services.dart';
 
+import 'waas_message_codec.dart';
 import 'waas_sdk_flutter_platform_interface.dart';
 
 /// An implementation of [WaasSdkFlutterPlatform] that uses method channels.
 class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
   /// The method channel used to interact with the native platform.
   @visibleForTesting
-  final methodChannel = const MethodChannel('waas_sdk_flutter');
+  final methodChannel = const MethodChannel(
+      'waas_sdk_flutter', StandardMethodCodec(WaasMessageCodec()));
+
+  @visibleForTesting
+  final mpcSDKMethodChannel = const MethodChannel(
+      'waas_sdk_flutter/mpc_sdk', StandardMethodCodec(WaasMessageCodec()));
+
+  @visibleForTesting
+  final MethodChannel mpcKeyServiceMethodChannel =
+      const _DeadlineMethodChannel('waas_sdk_flutter/mpc_key_service');
 
   @visibleForTesting
-  final mpcSDKMethodChannel = const MethodChannel('waas_sdk_flutter/mpc_sdk');
+  final MethodChannel mpcWalletServiceMethodChannel =
+      const _DeadlineMethodChannel('waas_sdk_flutter/mpc_wallet_service');
 
   @visibleForTesting
-  final mpcKeyServiceMethodChannel =
-      const MethodChannel('waas_sdk_flutter/mpc_key_service');
+  final MethodChannel poolServiceMethodChannel =
+      const _DeadlineMethodChannel('waas_sdk_flutter/pool_service');
 
+  /// The event channel on which the native side pushes the pending
+  /// operations of every watch, tagged with the watch's id.
   @visibleForTesting
-  final mpcWalletServiceMethodChannel =
-      const MethodChannel('waas_sdk_flutter/mpc_wallet_service');
+  final pendingOperationsEventChannel =
+      const EventChannel('waas_sdk_flutter/pending_operations');
 
+  // The events of [pendingOperationsEventChannel], shared by every watch.
+  late final Stream<dynamic> _pendingOperationsEvents =
+      pendingOperationsEventChannel.receiveBroadcastStream();
+
+  static int _nextWatchId = 0;
+
+  /// The event channel on which the native side pushes the outcome of every
+  /// transaction of a signTransactions batch, tagged with the batch's id.
   @visibleForTesting
-  final poolServiceMethodChannel =
-      const MethodChannel('waas_sdk_flutter/pool_service');
+  final signedTransactionsEventChannel =
+      const EventChannel('waas_sdk_flutter/signed_transactions');
+
+  // The events of [signedTransactionsEventChannel], shared by every batch.
+  late final Stream<dynamic> _signedTransactionsEvents =
+      signedTransactionsEventChannel.receiveBroadcastStream();
+
+  static int _nextBatchId = 0;
 
   @override
   Future<String?> getPlatformVersion() async {
@@ -32,10 +62,74 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
   }
 
   @override
-  Future<void> initMPCSdk(bool isSimulator) async {
+  Future<Map<String, dynamic>> getSchedulerStats() async {
+    final stats = await methodChannel
+        .invokeMapMethod<String, dynamic>('getSchedulerStats');
+    return stats ?? {};
+  }
+
+  @override
+  Future<Map<String, int>> getConcurrencyLimits() async {
+    final limits = await methodChannel
+        .invokeMapMethod<String, int>('getConcurrencyLimits');
+    return limits ?? {};
+  }
+
+  @override
+  Future<Map<String, dynamic>> getMetadataSnapshot() async {
+    final snapshot = await methodChannel
+        .invokeMapMethod<String, dynamic>('getMetadataSnapshot');
+    return snapshot ?? {};
+  }
+
+  @override
+  Future<void> setClientIdleTimeout(Duration timeout) async {
+    await methodChannel.invokeMethod<void>(
+      'setClientIdleTimeout',
+      {'timeoutMillis': timeout.inMilliseconds},
+    );
+  }
+
+  @override
+  Future<bool> cancel(WaasCancellationToken cancellationToken) async {
+    final cancelled = await methodChannel.invokeMethod<bool>(
+      'cancel',
+      {'cancellationToken': cancellationToken.id},
+    );
+    return cancelled ?? false;
+  }
+
+  @override
+  Future<WaasBlob> createBlob(Object value) async {
+    final blob = await methodChannel.invokeMethod<WaasBlob>(
+      'createBlob',
+      {'value': value},
+    );
+    return blob!;
+  }
+
+  @override
+  Future<bool> releaseBlob(WaasBlob blob) async {
+    final released = await methodChannel.invokeMethod<bool>(
+      'releaseBlob',
+      {'blob': blob},
+    );
+    return released ?? false;
+  }
+
+  @override
+  Future<void> initMPCSdk(
+    bool isSimulator, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) async {
     await mpcSDKMethodChannel.invokeMethod<void>(
       'initialize',
-      {'isSimulator': isSimulator},
+      {
+        'isSimulator': isSimulator,
+        if (maxInFlight != null) 'maxInFlight': maxInFlight,
+        if (maxQueued != null) 'maxQueued': maxQueued,
+      },
     );
   }
 
@@ -52,42 +146,82 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
   }
 
   @override
-  Future<void> computeMPCOperation(String mpcData) async {
+  Future<void> computeMPCOperation(
+    Object mpcData, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) async {
     await mpcSDKMethodChannel.invokeMethod('computeMPCOperation', {
       'mpcData': mpcData,
+      if (priority != null) 'priority': priority.name,
+      if (orderedByDeviceGroup != null)
+        'orderedByDeviceGroup': orderedByDeviceGroup,
     });
   }
 
   @override
   Future<dynamic> exportPrivateKeys(
     String mpcKeyExportMetadata,
-    String passcode,
-  ) async {
+    String passcode, {
+    WaasPriority? priority,
+  }) async {
     return await mpcSDKMethodChannel.invokeMethod('exportPrivateKeys', {
       'mpcKeyExportMetadata': mpcKeyExportMetadata,
       'passcode': passcode,
+      if (priority != null) 'priority': priority.name,
     });
   }
 
   @override
-  Future<void> computePrepareDeviceArchiveMPCOperation(
-    String mpcData,
+  Future<int> exportPrivateKeysToFile(
+    String mpcKeyExportMetadata,
     String passcode,
-  ) async {
+    File file, {
+    WaasPriority? priority,
+  }) async {
+    return await mpcSDKMethodChannel.invokeMethod('exportPrivateKeysToFile', {
+      'mpcKeyExportMetadata': mpcKeyExportMetadata,
+      'passcode': passcode,
+      'path': file.path,
+      if (priority != null) 'priority': priority.name,
+    });
+  }
+
+  @override
+  Future<void> computePrepareDeviceArchiveMPCOperation(
+    Object mpcData,
+    String passcode, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) async {
     await mpcSDKMethodChannel.invokeMethod(
       'computePrepareDeviceArchiveMPCOperation',
-      {'mpcData': mpcData, 'passcode': passcode},
+      {
+        'mpcData': mpcData,
+        'passcode': passcode,
+        if (priority != null) 'priority': priority.name,
+        if (orderedByDeviceGroup != null)
+          'orderedByDeviceGroup': orderedByDeviceGroup,
+      },
     );
   }
 
   @override
   Future<void> computePrepareDeviceBackupMPCOperation(
-    String mpcData,
-    String passcode,
-  ) async {
+    Object mpcData,
+    String passcode, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) async {
     return await mpcSDKMethodChannel.invokeMethod(
       'computePrepareDeviceBackupMPCOperation',
-      {'mpcData': mpcData, 'passcode': passcode},
+      {
+        'mpcData': mpcData,
+        'passcode': passcode,
+        if (priority != null) 'priority': priority.name,
+        if (orderedByDeviceGroup != null)
+          'orderedByDeviceGroup': orderedByDeviceGroup,
+      },
     );
   }
 
@@ -96,15 +230,44 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
     return await mpcSDKMethodChannel.invokeMethod('exportDeviceBackup');
   }
 
+  @override
+  Future<WaasBlob> exportDeviceBackupBlob() async {
+    final blob = await mpcSDKMethodChannel.invokeMethod<WaasBlob>(
+      'exportDeviceBackup',
+      {'asBlob': true},
+    );
+    return blob!;
+  }
+
+  @override
+  Future<int> exportDeviceBackupToFile(File file) async {
+    return await mpcSDKMethodChannel.invokeMethod(
+      'exportDeviceBackupToFile',
+      {'path': file.path},
+    );
+  }
+
   @override
   Future<void> computeAddDeviceMPCOperation(
-    String mpcData,
+    Object mpcData,
     String passcode,
-    String deviceGroup,
-  ) async {
+    Object deviceBackup, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) async {
     return await mpcSDKMethodChannel.invokeMethod(
       'computeAddDeviceMPCOperation',
-      {'mpcData': mpcData, 'passcode': passcode, 'deviceGroup': deviceGroup},
+      {
+        'mpcData': mpcData,
+        'passcode': passcode,
+        if (deviceBackup is File)
+          'deviceBackupPath': deviceBackup.path
+        else
+          'deviceBackup': deviceBackup,
+        if (priority != null) 'priority': priority.name,
+        if (orderedByDeviceGroup != null)
+          'orderedByDeviceGroup': orderedByDeviceGroup,
+      },
     );
   }
 
@@ -119,8 +282,10 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
   Future<void> initMPCKeyService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) async {
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) async {
     assert(
       (apiKeyName != null && privateKey != null) || proxyUrl != null,
       'Either apiKeyName and privateKey or proxyUrl should not be null',
@@ -130,24 +295,39 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
       {
         'apiKeyName': apiKeyName,
         'privateKey': privateKey,
-        'proxyUrl': proxyUrl
+        'proxyUrl': proxyUrl,
+        if (maxInFlight != null) 'maxInFlight': maxInFlight,
+        if (maxQueued != null) 'maxQueued': maxQueued,
       },
     );
   }
 
   @override
-  Future<dynamic> registerDevice() async {
-    return await mpcKeyServiceMethodChannel.invokeMethod('registerDevice');
+  Future<dynamic> registerDevice({WaasPriority? priority}) async {
+    return await mpcKeyServiceMethodChannel.invokeMethod(
+      'registerDevice',
+      {if (priority != null) 'priority': priority.name},
+    );
   }
 
   @override
   Future<dynamic> pollForPendingDeviceGroup(
     String deviceGroup,
-    int pollInterval,
-  ) async {
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'pollForPendingDeviceGroup',
-      {'deviceGroup': deviceGroup, 'pollInterval': pollInterval},
+      {
+        'deviceGroup': deviceGroup,
+        'pollInterval': pollInterval,
+        if (mpcDataAsBlobs) 'mpcDataAsBlobs': true,
+        if (priority != null) 'priority': priority.name,
+        if (cancellationToken != null)
+          'cancellationToken': cancellationToken.id,
+      },
     );
   }
 
@@ -161,22 +341,37 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
   @override
   Future<String> createSignatureFromTx(
     String parent,
-    Map<String, dynamic> transaction,
-  ) async {
+    Object transaction, {
+    WaasPriority? priority,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'createSignatureFromTx',
-      {'parent': parent, 'transaction': transaction},
+      {
+        'parent': parent,
+        'transaction': transaction,
+        if (priority != null) 'priority': priority.name,
+      },
     );
   }
 
   @override
   Future<dynamic> pollForPendingSignatures(
     String deviceGroup,
-    int pollInterval,
-  ) async {
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'pollForPendingSignatures',
-      {'deviceGroup': deviceGroup, 'pollInterval': pollInterval},
+      {
+        'deviceGroup': deviceGroup,
+        'pollInterval': pollInterval,
+        if (mpcDataAsBlobs) 'mpcDataAsBlobs': true,
+        if (priority != null) 'priority': priority.name,
+        if (cancellationToken != null)
+          'cancellationToken': cancellationToken.id,
+      },
     );
   }
 
@@ -188,48 +383,177 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
   }
 
   @override
-  Future<dynamic> waitPendingSignature(String operation) async {
+  Future<dynamic> waitPendingSignature(
+    String operation, {
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'waitPendingSignature',
-      {'operation': operation},
+      {
+        'operation': operation,
+        if (priority != null) 'priority': priority.name,
+        if (cancellationToken != null)
+          'cancellationToken': cancellationToken.id,
+      },
     );
   }
 
   @override
   Future<dynamic> getSignedTransaction(
-    Map<String, dynamic> transaction,
-    Map<String, dynamic> signature,
-  ) async {
-    return await mpcKeyServiceMethodChannel.invokeMethod(
+    Object transaction,
+    Map<String, dynamic> signature, {
+    WaasPriority? priority,
+  }) async {
+    final signed = await mpcKeyServiceMethodChannel.invokeMethod<Map>(
       'getSignedTransaction',
-      {'transaction': transaction, 'signature': signature},
+      {
+        'transaction': transaction,
+        'signature': signature,
+        if (priority != null) 'priority': priority.name,
+      },
     );
+    // The transaction and Signature are not sent back over the channel.
+    return <Object?, Object?>{
+      ...signed!,
+      'Transaction': transaction,
+      'Signature': signature,
+    };
   }
 
   @override
-  Future<dynamic> getDeviceGroup(String name) async {
+  Future<dynamic> signTransaction(
+    String deviceGroup,
+    String parent,
+    Object transaction,
+    int pollInterval, {
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) async {
+    return await mpcKeyServiceMethodChannel.invokeMethod(
+      'signTransaction',
+      {
+        'deviceGroup': deviceGroup,
+        'parent': parent,
+        'transaction': transaction,
+        'pollInterval': pollInterval,
+        if (priority != null) 'priority': priority.name,
+        if (cancellationToken != null)
+          'cancellationToken': cancellationToken.id,
+      },
+    );
+  }
+
+  @override
+  Stream<WaasSignedTransactionItem> signTransactions(
+    String deviceGroup,
+    String parent,
+    List<Object> transactions,
+    int pollInterval, {
+    int? parallelism,
+    WaasPriority? priority,
+  }) {
+    // Chosen here rather than by the native side, so that no event can arrive
+    // before its batch is known.
+    final batchId = _nextBatchId++;
+    StreamSubscription<dynamic>? events;
+    var done = false;
+    late final StreamController<WaasSignedTransactionItem> controller;
+    controller = StreamController<WaasSignedTransactionItem>(
+      onListen: () async {
+        events = _signedTransactionsEvents
+            .where((event) => event['batchId'] == batchId)
+            .listen((event) {
+          if (event['done'] == true) {
+            done = true;
+            controller.close();
+            return;
+          }
+          if (event['errorCode'] != null) {
+            controller.add(WaasSignedTransactionItem(event['index'],
+                errorCode: event['errorCode'],
+                errorMessage: event['errorMessage']));
+            return;
+          }
+          controller.add(WaasSignedTransactionItem(event['index'],
+              signedTransaction: event));
+        }, onError: controller.addError);
+        try {
+          await mpcKeyServiceMethodChannel.invokeMethod(
+            'signTransactions',
+            {
+              'batchId': batchId,
+              'deviceGroup': deviceGroup,
+              'parent': parent,
+              'transactions': transactions,
+              'pollInterval': pollInterval,
+              if (parallelism != null) 'parallelism': parallelism,
+              if (priority != null) 'priority': priority.name,
+            },
+          );
+        } on PlatformException catch (e) {
+          controller.addError(e);
+          await controller.close();
+        }
+      },
+      onCancel: () async {
+        await events?.cancel();
+        if (!done) {
+          await mpcKeyServiceMethodChannel.invokeMethod(
+            'cancelSignTransactions',
+            {'batchId': batchId},
+          );
+        }
+      },
+    );
+    return controller.stream;
+  }
+
+  @override
+  Future<dynamic> getDeviceGroup(
+    String name, {
+    WaasPriority? priority,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'getDeviceGroup',
-      {'name': name},
+      {'name': name, if (priority != null) 'priority': priority.name},
     );
   }
 
   @override
-  Future<String> prepareDeviceArchive(String deviceGroup, String device) async {
+  Future<String> prepareDeviceArchive(
+    String deviceGroup,
+    String device, {
+    WaasPriority? priority,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'prepareDeviceArchive',
-      {'deviceGroup': deviceGroup, 'device': device},
+      {
+        'deviceGroup': deviceGroup,
+        'device': device,
+        if (priority != null) 'priority': priority.name,
+      },
     );
   }
 
   @override
   Future<dynamic> pollForPendingDeviceArchives(
     String deviceGroup,
-    int pollInterval,
-  ) async {
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'pollForPendingDeviceArchives',
-      {'deviceGroup': deviceGroup, 'pollInterval': pollInterval},
+      {
+        'deviceGroup': deviceGroup,
+        'pollInterval': pollInterval,
+        if (mpcDataAsBlobs) 'mpcDataAsBlobs': true,
+        if (priority != null) 'priority': priority.name,
+        if (cancellationToken != null)
+          'cancellationToken': cancellationToken.id,
+      },
     );
   }
 
@@ -243,11 +567,21 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
   @override
   Future<dynamic> pollForPendingDeviceBackups(
     String deviceGroup,
-    int pollInterval,
-  ) async {
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'pollForPendingDeviceBackups',
-      {'deviceGroup': deviceGroup, 'pollInterval': pollInterval},
+      {
+        'deviceGroup': deviceGroup,
+        'pollInterval': pollInterval,
+        if (mpcDataAsBlobs) 'mpcDataAsBlobs': true,
+        if (priority != null) 'priority': priority.name,
+        if (cancellationToken != null)
+          'cancellationToken': cancellationToken.id,
+      },
     );
   }
 
@@ -259,29 +593,55 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
   }
 
   @override
-  Future<String> prepareDeviceBackup(String deviceGroup, String device) async {
+  Future<String> prepareDeviceBackup(
+    String deviceGroup,
+    String device, {
+    WaasPriority? priority,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'prepareDeviceBackup',
-      {'deviceGroup': deviceGroup, 'device': device},
+      {
+        'deviceGroup': deviceGroup,
+        'device': device,
+        if (priority != null) 'priority': priority.name,
+      },
     );
   }
 
   @override
-  Future<String> addDevice(String deviceGroup, String device) async {
+  Future<String> addDevice(
+    String deviceGroup,
+    String device, {
+    WaasPriority? priority,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'addDevice',
-      {'deviceGroup': deviceGroup, 'device': device},
+      {
+        'deviceGroup': deviceGroup,
+        'device': device,
+        if (priority != null) 'priority': priority.name,
+      },
     );
   }
 
   @override
   Future<dynamic> pollForPendingDevices(
     String deviceGroup,
-    int pollInterval,
-  ) async {
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) async {
     return await mpcKeyServiceMethodChannel.invokeMethod(
       'pollForPendingDevices',
-      {'deviceGroup': deviceGroup, 'pollInterval': pollInterval},
+      {
+        'deviceGroup': deviceGroup,
+        'pollInterval': pollInterval,
+        if (mpcDataAsBlobs) 'mpcDataAsBlobs': true,
+        if (priority != null) 'priority': priority.name,
+        if (cancellationToken != null)
+          'cancellationToken': cancellationToken.id,
+      },
     );
   }
 
@@ -292,12 +652,108 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
     );
   }
 
+  @override
+  Future<Map<WaasPendingOperationKind, List<dynamic>>> pollForPendingOperations(
+    String deviceGroup,
+    int pollInterval,
+    Set<WaasPendingOperationKind> kinds, {
+    bool includeAll = false,
+    bool mpcDataAsBlobs = false,
+    WaasCancellationToken? cancellationToken,
+  }) async {
+    final operations = await mpcKeyServiceMethodChannel
+        .invokeMapMethod<String, List<dynamic>>(
+      'pollForPendingOperations',
+      {
+        'deviceGroup': deviceGroup,
+        'pollInterval': pollInterval,
+        'kinds': [for (final kind in kinds) kind.name],
+        'includeAll': includeAll,
+        if (mpcDataAsBlobs) 'mpcDataAsBlobs': true,
+        if (cancellationToken != null)
+          'cancellationToken': cancellationToken.id,
+      },
+    );
+    return {
+      for (final entry in operations!.entries)
+        WaasPendingOperationKind.values.byName(entry.key): entry.value,
+    };
+  }
+
+  @override
+  Stream<WaasPendingOperations> watchPendingOperations(
+    String deviceGroup,
+    int pollInterval,
+    Set<WaasPendingOperationKind> kinds, {
+    bool includeAll = false,
+  }) {
+    // Chosen here rather than by the native side, so that no event can arrive
+    // before its watch is known.
+    final watchId = _nextWatchId++;
+    StreamSubscription<dynamic>? events;
+    late final StreamController<WaasPendingOperations> controller;
+    controller = StreamController<WaasPendingOperations>(
+      onListen: () async {
+        events = _pendingOperationsEvents
+            .where((event) => event['watchId'] == watchId)
+            .listen((event) {
+          if (event['done'] == true) {
+            controller.close();
+            return;
+          }
+          if (event['errorCode'] != null) {
+            controller.addError(PlatformException(
+                code: event['errorCode'], message: event['errorMessage']));
+            return;
+          }
+          controller.add(WaasPendingOperations(
+              WaasPendingOperationKind.values.byName(event['kind']),
+              event['operations']));
+        }, onError: controller.addError);
+        try {
+          await mpcKeyServiceMethodChannel.invokeMethod(
+            'watchPendingOperations',
+            {
+              'watchId': watchId,
+              'deviceGroup': deviceGroup,
+              'pollInterval': pollInterval,
+              'kinds': [for (final kind in kinds) kind.name],
+              'includeAll': includeAll,
+            },
+          );
+        } on PlatformException catch (e) {
+          controller.addError(e);
+          await controller.close();
+        }
+      },
+      onCancel: () async {
+        await events?.cancel();
+        await mpcKeyServiceMethodChannel.invokeMethod(
+          'unwatchPendingOperations',
+          {'watchId': watchId},
+        );
+      },
+    );
+    return controller.stream;
+  }
+
+  @override
+  Future<bool> stopPollingDeviceGroup(String deviceGroup) async {
+    final stopped = await mpcKeyServiceMethodChannel.invokeMethod<bool>(
+      'stopPollingDeviceGroup',
+      {'deviceGroup': deviceGroup},
+    );
+    return stopped!;
+  }
+
   @override
   Future<void> initMPCWalletService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) async {
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) async {
     assert(
       (apiKeyName != null && privateKey != null) || proxyUrl != null,
       'Either apiKeyName and privateKey or proxyUrl should not be null',
@@ -307,7 +763,9 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
       {
         'apiKeyName': apiKeyName,
         'privateKey': privateKey,
-        'proxyUrl': proxyUrl
+        'proxyUrl': proxyUrl,
+        if (maxInFlight != null) 'maxInFlight': maxInFlight,
+        if (maxQueued != null) 'maxQueued': maxQueued,
       },
     );
   }
@@ -324,10 +782,17 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
   }
 
   @override
-  Future<dynamic> waitPendingMPCWallet(String operation) async {
+  Future<dynamic> waitPendingMPCWallet(
+    String operation, {
+    WaasCancellationToken? cancellationToken,
+  }) async {
     return await mpcWalletServiceMethodChannel.invokeMethod(
       'waitPendingMPCWallet',
-      {'operation': operation},
+      {
+        'operation': operation,
+        if (cancellationToken != null)
+          'cancellationToken': cancellationToken.id,
+      },
     );
   }
 
@@ -350,12 +815,21 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
     );
   }
 
+  @override
+  Future<Map<String, int>> getAddressCacheStats() async {
+    final stats = await mpcWalletServiceMethodChannel
+        .invokeMapMethod<String, int>('getAddressCacheStats');
+    return stats ?? {};
+  }
+
   @override
   Future<void> initPoolService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) async {
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) async {
     assert(
       (apiKeyName != null && privateKey != null) || proxyUrl != null,
       'Either apiKeyName and privateKey or proxyUrl should not be null',
@@ -365,7 +839,9 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
       {
         'apiKeyName': apiKeyName,
         'privateKey': privateKey,
-        'proxyUrl': proxyUrl
+        'proxyUrl': proxyUrl,
+        if (maxInFlight != null) 'maxInFlight': maxInFlight,
+        if (maxQueued != null) 'maxQueued': maxQueued,
       },
     );
   }
@@ -378,3 +854,23 @@ class MethodChannelWaasSdkFlutter extends WaasSdkFlutterPlatform {
     );
   }
 }
+
+/// A [MethodChannel] which sends the remaining budget of the current
+/// [WaasDeadline], if any, as the "timeoutMillis" argument of every call.
+/// Its results are decoded with [WaasMessageCodec].
+class _DeadlineMethodChannel extends MethodChannel {
+  const _DeadlineMethodChannel(String name)
+      : super(name, const StandardMethodCodec(WaasMessageCodec()));
+
+  @override
+  Future<T?> invokeMethod<T>(String method, [dynamic arguments]) {
+    final deadline = WaasDeadline.current;
+    if (deadline == null) {
+      return super.invokeMethod<T>(method, arguments);
+    }
+    return super.invokeMethod<T>(method, <Object?, Object?>{
+      if (arguments != null) ...arguments as Map<Object?, Object?>,
+      'timeoutMillis': deadline.remaining.inMilliseconds,
+    });
+  }
+}
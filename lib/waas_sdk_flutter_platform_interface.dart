@@ -1,7 +1,142 @@
+import 'dart:async';
+import 'dart:io';
+
 import 'package:plugin_platform_interface/plugin_platform_interface.dart';
 
 import 'waas_sdk_flutter_method_channel.dart';
 
+/// The priority with which a native call is scheduled relative to other
+/// queued calls of the same kind. Calls of equal priority run in order.
+enum WaasPriority {
+  /// User-visible work, e.g. signing a transaction.
+  high,
+
+  /// The default priority.
+  normal,
+
+  /// Maintenance work which may be delayed, e.g. device backups and archives.
+  low,
+}
+
+/// The kinds of pending operations of a DeviceGroup, see
+/// [WaasSdkFlutterPlatform.pollForPendingOperations].
+enum WaasPendingOperationKind {
+  /// CreateDeviceGroupOperations, as from pollForPendingDeviceGroup.
+  deviceGroup,
+
+  /// CreateSignatureOperations, as from pollForPendingSignatures.
+  signatures,
+
+  /// DeviceArchiveOperations, as from pollForPendingDeviceArchives.
+  deviceArchives,
+
+  /// DeviceBackupOperations, as from pollForPendingDeviceBackups.
+  deviceBackups,
+
+  /// AddDeviceOperations, as from pollForPendingDevices.
+  devices,
+}
+
+/// A batch of pending operations of one kind, as pushed by
+/// [WaasSdkFlutterPlatform.watchPendingOperations].
+class WaasPendingOperations {
+  const WaasPendingOperations(this.kind, this.operations);
+
+  /// The kind of [operations].
+  final WaasPendingOperationKind kind;
+
+  /// The pending operations, as the matching pollForPending call returns
+  /// them.
+  final List<dynamic> operations;
+}
+
+/// The outcome of one transaction of [WaasSdkFlutterPlatform.signTransactions].
+class WaasSignedTransactionItem {
+  const WaasSignedTransactionItem(this.index,
+      {this.signedTransaction, this.errorCode, this.errorMessage});
+
+  /// The index of the transaction in the batch.
+  final int index;
+
+  /// The RawTransaction, TransactionHash and Timings, as from
+  /// [WaasSdkFlutterPlatform.signTransaction]; null if the transaction failed.
+  final Map<dynamic, dynamic>? signedTransaction;
+
+  /// The error code of the failure; null if the transaction was signed.
+  final String? errorCode;
+
+  /// The error message of the failure; null if the transaction was signed.
+  final String? errorMessage;
+}
+
+/// A payload kept on the native side, e.g. the mpcData of a pending
+/// operation, a device backup or a transaction, which stands in for it in the
+/// calls which take the payload, so that it does not cross the channel again.
+///
+/// The native side holds a bounded amount of payloads and drops the least
+/// recently used beyond that; calls passing the blob of a dropped or released
+/// payload fail with a PlatformException whose code is [releasedErrorCode].
+/// Release a blob with [WaasSdkFlutterPlatform.releaseBlob] once it is no
+/// longer needed.
+class WaasBlob {
+  const WaasBlob(this.id);
+
+  /// The error code of calls passing the blob of a released payload.
+  static const releasedErrorCode = 'E_BLOB_RELEASED';
+
+  /// The identifier of the payload on the native side.
+  final int id;
+}
+
+/// Identifies an in-flight native call so that it can be cancelled with
+/// [WaasSdkFlutterPlatform.cancel]. Use a fresh token for every call.
+class WaasCancellationToken {
+  WaasCancellationToken() : id = _nextId++;
+
+  static int _nextId = 0;
+
+  /// The identifier sent to the native side along with the call.
+  final int id;
+}
+
+/// A point in time by which a flow of key, wallet and pool service calls must
+/// complete.
+///
+/// Calls made inside [run] send the time left until the deadline along with
+/// their arguments, so every step of a multi-step flow draws on the same
+/// budget instead of stacking its own timeout. A call that is still pending
+/// when the deadline passes, or that is made after it has passed, fails with a
+/// PlatformException whose code is [exceededErrorCode].
+class WaasDeadline {
+  WaasDeadline.after(this._timeout);
+
+  /// The error code of calls which did not complete before their deadline.
+  static const exceededErrorCode = 'E_DEADLINE_EXCEEDED';
+
+  static final Object _zoneKey = Object();
+
+  final Duration _timeout;
+  final Stopwatch _clock = Stopwatch()..start();
+
+  /// The deadline of the calls made in the current zone, if any.
+  static WaasDeadline? get current => Zone.current[_zoneKey] as WaasDeadline?;
+
+  /// The time left until the deadline; zero once it has passed.
+  Duration get remaining {
+    final left = _timeout - _clock.elapsed;
+    return left.isNegative ? Duration.zero : left;
+  }
+
+  /// Runs [body], applying this deadline to every call it makes. Inside the
+  /// [run] of an earlier deadline, the earlier of the two applies.
+  Future<T> run<T>(Future<T> Function() body) {
+    final outer = current;
+    final deadline =
+        outer != null && outer.remaining < remaining ? outer : this;
+    return runZoned(body, zoneValues: {_zoneKey: deadline});
+  }
+}
+
 abstract class WaasSdkFlutterPlatform extends PlatformInterface {
   /// Constructs a WaasSdkFlutterPlatform.
   WaasSdkFlutterPlatform() : super(token: _token);
@@ -27,7 +162,45 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('platformVersion() has not been implemented.');
   }
 
-  Future<void> initMPCSdk(bool isSimulator) {
+  Future<Map<String, dynamic>> getSchedulerStats() {
+    throw UnimplementedError('getSchedulerStats() has not been implemented.');
+  }
+
+  Future<Map<String, int>> getConcurrencyLimits() {
+    throw UnimplementedError(
+        'getConcurrencyLimits() has not been implemented.');
+  }
+
+  Future<Map<String, dynamic>> getMetadataSnapshot() {
+    throw UnimplementedError(
+        'getMetadataSnapshot() has not been implemented.');
+  }
+
+  Future<void> setClientIdleTimeout(Duration timeout) {
+    throw UnimplementedError(
+        'setClientIdleTimeout() has not been implemented.');
+  }
+
+  Future<bool> cancel(WaasCancellationToken cancellationToken) {
+    throw UnimplementedError('cancel() has not been implemented.');
+  }
+
+  /// Keeps [value], a String or a transaction, on the native side and
+  /// returns its [WaasBlob].
+  Future<WaasBlob> createBlob(Object value) {
+    throw UnimplementedError('createBlob() has not been implemented.');
+  }
+
+  /// Releases the payload of [blob]. Returns whether it was still held.
+  Future<bool> releaseBlob(WaasBlob blob) {
+    throw UnimplementedError('releaseBlob() has not been implemented.');
+  }
+
+  Future<void> initMPCSdk(
+    bool isSimulator, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
     throw UnimplementedError('initMPCSdk() has not been implemented');
   }
 
@@ -39,29 +212,60 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('getRegistrationData() has not been implemented');
   }
 
-  Future<void> computeMPCOperation(String mpcData) {
+  /// [mpcData] is a String, or the [WaasBlob] of one, e.g. from a
+  /// pollForPending call with mpcDataAsBlobs set; the same applies to the
+  /// other compute methods.
+  ///
+  /// If [orderedByDeviceGroup] is set, the operation runs after, and never
+  /// alongside, the other MPC operations of that DeviceGroup, while those of
+  /// other DeviceGroups run in parallel; the same applies to the other
+  /// compute methods.
+  Future<void> computeMPCOperation(
+    Object mpcData, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) {
     throw UnimplementedError('computeMPCOperation() has not been implemented');
   }
 
   Future<dynamic> exportPrivateKeys(
     String mpcKeyExportMetadata,
-    String passcode,
-  ) {
+    String passcode, {
+    WaasPriority? priority,
+  }) {
     throw UnimplementedError('exportPrivateKeys() has not been implemented');
   }
 
-  Future<void> computePrepareDeviceArchiveMPCOperation(
-    String mpcData,
+  /// Exports private keys as [exportPrivateKeys] does, but writes the
+  /// response to [file] as JSON on the native side rather than sending it
+  /// over the channel. Resolves with the number of bytes written. On Android,
+  /// [file] must be in the app's files or cache directory.
+  Future<int> exportPrivateKeysToFile(
+    String mpcKeyExportMetadata,
     String passcode,
-  ) {
+    File file, {
+    WaasPriority? priority,
+  }) {
+    throw UnimplementedError(
+        'exportPrivateKeysToFile() has not been implemented');
+  }
+
+  Future<void> computePrepareDeviceArchiveMPCOperation(
+    Object mpcData,
+    String passcode, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) {
     throw UnimplementedError(
         'computePrepareDeviceArchiveMPCOperation() has not been implemented');
   }
 
   Future<void> computePrepareDeviceBackupMPCOperation(
-    String mpcData,
-    String passcode,
-  ) {
+    Object mpcData,
+    String passcode, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) {
     throw UnimplementedError(
         'computePrepareDeviceBackupMPCOperation() has not been implemented');
   }
@@ -70,11 +274,32 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('exportDeviceBackup() has not been implemented');
   }
 
+  /// Exports the device backup as [exportDeviceBackup] does, but keeps it on
+  /// the native side, to be passed to [computeAddDeviceMPCOperation].
+  Future<WaasBlob> exportDeviceBackupBlob() {
+    throw UnimplementedError(
+        'exportDeviceBackupBlob() has not been implemented');
+  }
+
+  /// Exports the device backup as [exportDeviceBackup] does, but writes it to
+  /// [file] as raw bytes, half the size of the hex string, on the native side.
+  /// Resolves with the number of bytes written. On Android, [file] must be in
+  /// the app's files or cache directory, e.g. the application support or
+  /// temporary directory; other paths are rejected.
+  Future<int> exportDeviceBackupToFile(File file) {
+    throw UnimplementedError(
+        'exportDeviceBackupToFile() has not been implemented');
+  }
+
+  /// [deviceBackup] is a String, the [WaasBlob] of one, or the [File] written
+  /// by [exportDeviceBackupToFile].
   Future<void> computeAddDeviceMPCOperation(
-    String mpcData,
+    Object mpcData,
     String passcode,
-    String deviceGroup,
-  ) {
+    Object deviceBackup, {
+    WaasPriority? priority,
+    String? orderedByDeviceGroup,
+  }) {
     throw UnimplementedError(
         'computeAddDeviceMPCOperation() has not been implemented');
   }
@@ -86,19 +311,31 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
   Future<void> initMPCKeyService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) {
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
     throw UnimplementedError('initMPCKeyService() has not been implemented');
   }
 
-  Future<dynamic> registerDevice() {
+  /// The MPCKeyService calls take an optional [priority] among the queued
+  /// calls to the service. By default signing runs at high priority, and
+  /// device backups and archives at low priority, so that a signature is not
+  /// held up behind a backup.
+  Future<dynamic> registerDevice({WaasPriority? priority}) {
     throw UnimplementedError('registerDevice() has not been implemented');
   }
 
+  /// If [mpcDataAsBlobs] is set, the MPCData of each operation is a
+  /// [WaasBlob] kept on the native side, to be passed to computeMPCOperation;
+  /// the same applies to the other pollForPending methods.
   Future<dynamic> pollForPendingDeviceGroup(
     String deviceGroup,
-    int pollInterval,
-  ) {
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
     throw UnimplementedError(
         'pollForPendingDeviceGroup() has not been implemented');
   }
@@ -108,18 +345,24 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
         'stopPollingPendingDeviceGroup() has not been implemented');
   }
 
+  /// [transaction] is a map, or the [WaasBlob] of one; the same applies to
+  /// [getSignedTransaction] and [signTransaction].
   Future<String> createSignatureFromTx(
     String parent,
-    Map<String, dynamic> transaction,
-  ) {
+    Object transaction, {
+    WaasPriority? priority,
+  }) {
     throw UnimplementedError(
         'createSignatureFromTx() has not been implemented');
   }
 
   Future<dynamic> pollForPendingSignatures(
     String deviceGroup,
-    int pollInterval,
-  ) {
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
     throw UnimplementedError(
         'pollForPendingSignatures() has not been implemented');
   }
@@ -129,29 +372,89 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
         'stopPollingForPendingSignatures() has not been implemented');
   }
 
-  Future<dynamic> waitPendingSignature(String operation) {
+  Future<dynamic> waitPendingSignature(
+    String operation, {
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
     throw UnimplementedError('waitPendingSignature() has not been implemented');
   }
 
   Future<dynamic> getSignedTransaction(
-    Map<String, dynamic> transaction,
-    Map<String, dynamic> signature,
-  ) {
+    Object transaction,
+    Map<String, dynamic> signature, {
+    WaasPriority? priority,
+  }) {
     throw UnimplementedError('getSignedTransaction() has not been implemented');
   }
 
-  Future<dynamic> getDeviceGroup(String name) {
+  /// Signs [transaction] with the MPCKey [parent] of [deviceGroup] in a
+  /// single native call, which runs [createSignatureFromTx],
+  /// [pollForPendingSignatures], computeMPCOperation, [waitPendingSignature]
+  /// and [getSignedTransaction] without returning to Dart in between.
+  /// Requires both the MPCSdk and the MPCKeyService to be initialized.
+  ///
+  /// Transactions of one DeviceGroup are signed one after the other, as the
+  /// pending Signatures do not tell which transaction they belong to. For the
+  /// same reason, the call fails rather than sign a pending Signature it
+  /// cannot tell apart from one created by a direct [createSignatureFromTx]
+  /// call, or by an earlier call which failed before signing.
+  /// Resolves with the RawTransaction, the TransactionHash and the Timings of
+  /// each stage, and the total, in milliseconds.
+  Future<dynamic> signTransaction(
+    String deviceGroup,
+    String parent,
+    Object transaction,
+    int pollInterval, {
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    throw UnimplementedError('signTransaction() has not been implemented');
+  }
+
+  /// Signs every transaction of [transactions] with the MPCKey [parent] of
+  /// [deviceGroup], each as [signTransaction] does, and emits the outcome of
+  /// each transaction as it completes, in any order. A failed transaction is
+  /// emitted with its error and does not stop the others; the stream closes
+  /// once all are done.
+  ///
+  /// Up to [parallelism] transactions, by default one per core, are in flight
+  /// at once, so that their MPC computations run in parallel. Cancelling the
+  /// subscription cancels the transactions not yet signed.
+  Stream<WaasSignedTransactionItem> signTransactions(
+    String deviceGroup,
+    String parent,
+    List<Object> transactions,
+    int pollInterval, {
+    int? parallelism,
+    WaasPriority? priority,
+  }) {
+    throw UnimplementedError('signTransactions() has not been implemented');
+  }
+
+  /// DeviceGroups are cached natively for up to a minute, until addDevice,
+  /// prepareDeviceBackup, prepareDeviceArchive or a completed
+  /// computeAddDeviceMPCOperation changes them. Pass orderedByDeviceGroup to
+  /// computeAddDeviceMPCOperation to drop only the DeviceGroup it changes.
+  Future<dynamic> getDeviceGroup(String name, {WaasPriority? priority}) {
     throw UnimplementedError('getDeviceGroup() has not been implemented');
   }
 
-  Future<String> prepareDeviceArchive(String deviceGroup, String device) {
+  Future<String> prepareDeviceArchive(
+    String deviceGroup,
+    String device, {
+    WaasPriority? priority,
+  }) {
     throw UnimplementedError('prepareDeviceArchive() has not been implemented');
   }
 
   Future<dynamic> pollForPendingDeviceArchives(
     String deviceGroup,
-    int pollInterval,
-  ) {
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
     throw UnimplementedError(
         'pollForPendingDeviceArchives() has not been implemented');
   }
@@ -163,8 +466,11 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
 
   Future<dynamic> pollForPendingDeviceBackups(
     String deviceGroup,
-    int pollInterval,
-  ) {
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
     throw UnimplementedError(
         'pollForPendingDeviceBackups() has not been implemented');
   }
@@ -174,15 +480,29 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
         'stopPollingForPendingDeviceBackups() has not been implemented');
   }
 
-  Future<String> prepareDeviceBackup(String deviceGroup, String device) {
+  Future<String> prepareDeviceBackup(
+    String deviceGroup,
+    String device, {
+    WaasPriority? priority,
+  }) {
     throw UnimplementedError('prepareDeviceBackup() has not been implemented');
   }
 
-  Future<String> addDevice(String deviceGroup, String device) {
+  Future<String> addDevice(
+    String deviceGroup,
+    String device, {
+    WaasPriority? priority,
+  }) {
     throw UnimplementedError('addDevice() has not been implemented');
   }
 
-  Future<dynamic> pollForPendingDevices(String deviceGroup, int pollInterval) {
+  Future<dynamic> pollForPendingDevices(
+    String deviceGroup,
+    int pollInterval, {
+    bool mpcDataAsBlobs = false,
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
     throw UnimplementedError(
         'pollForPendingDevices() has not been implemented');
   }
@@ -192,11 +512,72 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
         'stopPollingForPendingDevices() has not been implemented');
   }
 
+  /// Polls for pending operations of any of [kinds] of [deviceGroup], and
+  /// returns the first set that materializes, keyed by kind.
+  ///
+  /// Concurrent calls for the same DeviceGroup share one native poll per kind,
+  /// so watching several kinds does not pin one native thread per caller.
+  ///
+  /// Operations an earlier call has returned are left out unless they have
+  /// changed, so that an operation is not processed twice; set [includeAll]
+  /// to get every pending operation, e.g. to resynchronize.
+  Future<Map<WaasPendingOperationKind, List<dynamic>>> pollForPendingOperations(
+    String deviceGroup,
+    int pollInterval,
+    Set<WaasPendingOperationKind> kinds, {
+    bool includeAll = false,
+    bool mpcDataAsBlobs = false,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    throw UnimplementedError(
+        'pollForPendingOperations() has not been implemented');
+  }
+
+  /// Streams the pending operations of any of [kinds] of [deviceGroup] as
+  /// the native side finds them, until the subscription is cancelled.
+  ///
+  /// The native side keeps polling while the stream is listened to, so no
+  /// call has to be re-issued per batch. A failed poll is reported as a
+  /// PlatformException error event and retried; it does not end the stream.
+  ///
+  /// Only operations which are new or have changed since the stream last
+  /// emitted them are emitted, unless [includeAll] is set.
+  ///
+  /// [pollInterval] is the shortest interval, in milliseconds. While nothing
+  /// is pending the native side backs off from it, with jitter, up to 30
+  /// seconds; after [createSignatureFromTx], [addDevice] or
+  /// [prepareDeviceBackup] succeeds for the DeviceGroup, it polls quickly for
+  /// a while, as the new operation is expected shortly.
+  Stream<WaasPendingOperations> watchPendingOperations(
+    String deviceGroup,
+    int pollInterval,
+    Set<WaasPendingOperationKind> kinds, {
+    bool includeAll = false,
+  }) {
+    throw UnimplementedError(
+        'watchPendingOperations() has not been implemented');
+  }
+
+  /// Stops the native polls of [deviceGroup] made for
+  /// [pollForPendingOperations] and [watchPendingOperations], leaving other
+  /// DeviceGroups' polls running. Its pending [pollForPendingOperations] calls
+  /// fail with E_CANCELLED, and its [watchPendingOperations] streams close.
+  /// Resolves with whether the DeviceGroup was being polled.
+  ///
+  /// Unlike the per-kind pollForPending methods, these two methods can poll
+  /// any number of DeviceGroups at once.
+  Future<bool> stopPollingDeviceGroup(String deviceGroup) {
+    throw UnimplementedError(
+        'stopPollingDeviceGroup() has not been implemented');
+  }
+
   Future<void> initMPCWalletService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) {
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
     throw UnimplementedError('initMPCWalletService() has not been implemented');
   }
 
@@ -204,7 +585,10 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('createMPCWallet() has not been implemented');
   }
 
-  Future<dynamic> waitPendingMPCWallet(String operation) {
+  Future<dynamic> waitPendingMPCWallet(
+    String operation, {
+    WaasCancellationToken? cancellationToken,
+  }) {
     throw UnimplementedError('waitPendingMPCWallet() has not been implemented');
   }
 
@@ -215,15 +599,27 @@ abstract class WaasSdkFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('generateAddress() has not been implemented');
   }
 
+  /// Addresses are cached natively once looked up or generated, and
+  /// concurrent lookups of the same Address share one request.
   Future<dynamic> getAddress(String name) {
     throw UnimplementedError('getAddress() has not been implemented');
   }
 
+  /// The counters of the native Address cache behind [getAddress]: "hits",
+  /// the lookups served without a request of their own, "misses", those
+  /// which sent one, and "size", the number of Addresses cached.
+  Future<Map<String, int>> getAddressCacheStats() {
+    throw UnimplementedError(
+        'getAddressCacheStats() has not been implemented');
+  }
+
   Future<void> initPoolService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) {
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
     throw UnimplementedError('initPoolService() has not been implemented');
   }
 
@@ -1,12 +1,16 @@
+import 'package:flutter/foundation.dart';
 import 'package:flutter/services.dart';
 import 'package:flutter_test/flutter_test.dart';
+import 'package:waas_sdk_flutter/waas_message_codec.dart';
 import 'package:waas_sdk_flutter/waas_sdk_flutter_method_channel.dart';
+import 'package:waas_sdk_flutter/waas_sdk_flutter_platform_interface.dart';
 
 void main() {
   TestWidgetsFlutterBinding.ensureInitialized();
 
   MethodChannelWaasSdkFlutter platform = MethodChannelWaasSdkFlutter();
-  const MethodChannel channel = MethodChannel('waas_sdk_flutter');
+  const MethodChannel channel = MethodChannel(
+      'waas_sdk_flutter', StandardMethodCodec(WaasMessageCodec()));
 
   setUp(() {
     TestDefaultBinaryMessengerBinding.instance.defaultBinaryMessenger.setMockMethodCallHandler(
@@ -24,4 +28,69 @@ void main() {
   test('getPlatformVersion', () async {
     expect(await platform.getPlatformVersion(), '42');
   });
+
+  test('calls inside a deadline send the remaining budget', () async {
+    const MethodChannel poolChannel =
+        MethodChannel('waas_sdk_flutter/pool_service');
+    final sent = <dynamic>[];
+    TestDefaultBinaryMessengerBinding.instance.defaultBinaryMessenger
+        .setMockMethodCallHandler(poolChannel, (MethodCall methodCall) async {
+      sent.add(methodCall.arguments);
+      return {'name': 'pools/1', 'displayName': 'pool'};
+    });
+
+    await platform.createPool('pool', 'pool-id');
+    await WaasDeadline.after(const Duration(minutes: 1))
+        .run(() => platform.createPool('pool', 'pool-id'));
+
+    expect(sent[0], isNot(contains('timeoutMillis')));
+    expect(sent[1]['displayName'], 'pool');
+    expect(sent[1]['timeoutMillis'], inInclusiveRange(1, 60000));
+
+    TestDefaultBinaryMessengerBinding.instance.defaultBinaryMessenger
+        .setMockMethodCallHandler(poolChannel, null);
+  });
+
+  test('typed SDK objects decode to the maps calls resolve with', () {
+    const codec = WaasMessageCodec();
+    final buffer = WriteBuffer();
+    buffer.putUint8(128);
+    for (final field in [
+      'networks/n/addresses/a',
+      '0x1',
+      ['keys/k'],
+      'wallets/w',
+    ]) {
+      codec.writeValue(buffer, field);
+    }
+
+    expect(codec.decodeMessage(buffer.done()), {
+      'Name': 'networks/n/addresses/a',
+      'Address': '0x1',
+      'MPCKeys': ['keys/k'],
+      'MPCWallet': 'wallets/w',
+    });
+  });
+  test('blobs cross the channel as handles', () async {
+    const MethodChannel mpcSdkChannel = MethodChannel(
+        'waas_sdk_flutter/mpc_sdk', StandardMethodCodec(WaasMessageCodec()));
+    final sent = <MethodCall>[];
+    TestDefaultBinaryMessengerBinding.instance.defaultBinaryMessenger
+        .setMockMethodCallHandler(mpcSdkChannel, (MethodCall methodCall) async {
+      sent.add(methodCall);
+      return methodCall.method == 'exportDeviceBackup'
+          ? const WaasBlob(7)
+          : null;
+    });
+
+    final backup = await platform.exportDeviceBackupBlob();
+    await platform.computeAddDeviceMPCOperation('mpc-data', 'passcode', backup);
+
+    expect(backup.id, 7);
+    expect(sent[0].arguments['asBlob'], true);
+    expect((sent[1].arguments['deviceBackup'] as WaasBlob).id, 7);
+
+    TestDefaultBinaryMessengerBinding.instance.defaultBinaryMessenger
+        .setMockMethodCallHandler(mpcSdkChannel, null);
+  });
 }
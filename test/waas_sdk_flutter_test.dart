@@ -1,3 +1,5 @@
+import 'dart:io';
+
 import 'package:flutter_test/flutter_test.dart';
 import 'package:waas_sdk_flutter/waas_sdk_flutter.dart';
 import 'package:waas_sdk_flutter/waas_sdk_flutter_platform_interface.dart';
@@ -11,7 +13,43 @@ class MockWaasSdkFlutterPlatform
   Future<String?> getPlatformVersion() => Future.value('42');
 
   @override
-  Future<String> addDevice(String deviceGroup, String device) {
+  Future<Map<String, dynamic>> getSchedulerStats() {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<Map<String, int>> getConcurrencyLimits() {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<Map<String, dynamic>> getMetadataSnapshot() {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<void> setClientIdleTimeout(Duration timeout) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<bool> cancel(WaasCancellationToken cancellationToken) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<WaasBlob> createBlob(Object value) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<bool> releaseBlob(WaasBlob blob) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<String> addDevice(String deviceGroup, String device,
+      {WaasPriority? priority}) {
     throw UnimplementedError();
   }
 
@@ -22,24 +60,28 @@ class MockWaasSdkFlutterPlatform
 
   @override
   Future<void> computeAddDeviceMPCOperation(
-      String mpcData, String passcode, String deviceGroup) {
+      Object mpcData, String passcode, Object deviceBackup,
+      {WaasPriority? priority, String? orderedByDeviceGroup}) {
     throw UnimplementedError();
   }
 
   @override
-  Future<void> computeMPCOperation(String mpcData) {
+  Future<void> computeMPCOperation(Object mpcData,
+      {WaasPriority? priority, String? orderedByDeviceGroup}) {
     throw UnimplementedError();
   }
 
   @override
   Future<void> computePrepareDeviceArchiveMPCOperation(
-      String mpcData, String passcode) {
+      Object mpcData, String passcode,
+      {WaasPriority? priority, String? orderedByDeviceGroup}) {
     throw UnimplementedError();
   }
 
   @override
   Future<void> computePrepareDeviceBackupMPCOperation(
-      String mpcData, String passcode) {
+      Object mpcData, String passcode,
+      {WaasPriority? priority, String? orderedByDeviceGroup}) {
     throw UnimplementedError();
   }
 
@@ -54,8 +96,8 @@ class MockWaasSdkFlutterPlatform
   }
 
   @override
-  Future<String> createSignatureFromTx(
-      String parent, Map<String, dynamic> transaction) {
+  Future<String> createSignatureFromTx(String parent, Object transaction,
+      {WaasPriority? priority}) {
     throw UnimplementedError();
   }
 
@@ -65,7 +107,25 @@ class MockWaasSdkFlutterPlatform
   }
 
   @override
-  Future exportPrivateKeys(String mpcKeyExportMetadata, String passcode) {
+  Future<WaasBlob> exportDeviceBackupBlob() {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<int> exportDeviceBackupToFile(File file) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<int> exportPrivateKeysToFile(
+      String mpcKeyExportMetadata, String passcode, File file,
+      {WaasPriority? priority}) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future exportPrivateKeys(String mpcKeyExportMetadata, String passcode,
+      {WaasPriority? priority}) {
     throw UnimplementedError();
   }
 
@@ -81,7 +141,13 @@ class MockWaasSdkFlutterPlatform
   }
 
   @override
-  Future<Map<String, dynamic>> getDeviceGroup(String name) {
+  Future<Map<String, int>> getAddressCacheStats() {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<Map<String, dynamic>> getDeviceGroup(String name,
+      {WaasPriority? priority}) {
     throw UnimplementedError();
   }
 
@@ -92,7 +158,32 @@ class MockWaasSdkFlutterPlatform
 
   @override
   Future<Map<String, dynamic>> getSignedTransaction(
-      Map<String, dynamic> transaction, Map<String, dynamic> signature) {
+      Object transaction, Map<String, dynamic> signature,
+      {WaasPriority? priority}) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<dynamic> signTransaction(
+    String deviceGroup,
+    String parent,
+    Object transaction,
+    int pollInterval, {
+    WaasPriority? priority,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Stream<WaasSignedTransactionItem> signTransactions(
+    String deviceGroup,
+    String parent,
+    List<Object> transactions,
+    int pollInterval, {
+    int? parallelism,
+    WaasPriority? priority,
+  }) {
     throw UnimplementedError();
   }
 
@@ -100,13 +191,19 @@ class MockWaasSdkFlutterPlatform
   Future<void> initMPCKeyService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) {
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
     throw UnimplementedError();
   }
 
   @override
-  Future<void> initMPCSdk(bool isSimulator) {
+  Future<void> initMPCSdk(
+    bool isSimulator, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
     throw UnimplementedError();
   }
 
@@ -114,8 +211,10 @@ class MockWaasSdkFlutterPlatform
   Future<void> initMPCWalletService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) {
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
     throw UnimplementedError();
   }
 
@@ -123,48 +222,67 @@ class MockWaasSdkFlutterPlatform
   Future<void> initPoolService(
     String? apiKeyName,
     String? privateKey,
-    String? proxyUrl,
-  ) {
+    String? proxyUrl, {
+    int? maxInFlight,
+    int? maxQueued,
+  }) {
     throw UnimplementedError();
   }
 
   @override
-  Future pollForPendingDeviceArchives(String deviceGroup, int pollInterval) {
+  Future pollForPendingDeviceArchives(String deviceGroup, int pollInterval,
+      {bool mpcDataAsBlobs = false,
+      WaasPriority? priority,
+      WaasCancellationToken? cancellationToken}) {
     throw UnimplementedError();
   }
 
   @override
-  Future pollForPendingDeviceBackups(String deviceGroup, int pollInterval) {
+  Future pollForPendingDeviceBackups(String deviceGroup, int pollInterval,
+      {bool mpcDataAsBlobs = false,
+      WaasPriority? priority,
+      WaasCancellationToken? cancellationToken}) {
     throw UnimplementedError();
   }
 
   @override
-  Future pollForPendingDeviceGroup(String deviceGroup, int pollInterval) {
+  Future pollForPendingDeviceGroup(String deviceGroup, int pollInterval,
+      {bool mpcDataAsBlobs = false,
+      WaasPriority? priority,
+      WaasCancellationToken? cancellationToken}) {
     throw UnimplementedError();
   }
 
   @override
-  Future pollForPendingDevices(String deviceGroup, int pollInterval) {
+  Future pollForPendingDevices(String deviceGroup, int pollInterval,
+      {bool mpcDataAsBlobs = false,
+      WaasPriority? priority,
+      WaasCancellationToken? cancellationToken}) {
     throw UnimplementedError();
   }
 
   @override
-  Future pollForPendingSignatures(String deviceGroup, int pollInterval) {
+  Future pollForPendingSignatures(String deviceGroup, int pollInterval,
+      {bool mpcDataAsBlobs = false,
+      WaasPriority? priority,
+      WaasCancellationToken? cancellationToken}) {
     throw UnimplementedError();
   }
 
   @override
-  Future<String> prepareDeviceArchive(String deviceGroup, String device) {
+  Future<String> prepareDeviceArchive(String deviceGroup, String device,
+      {WaasPriority? priority}) {
     throw UnimplementedError();
   }
 
   @override
-  Future<String> prepareDeviceBackup(String deviceGroup, String device) {
+  Future<String> prepareDeviceBackup(String deviceGroup, String device,
+      {WaasPriority? priority}) {
     throw UnimplementedError();
   }
 
   @override
-  Future<Map<String, dynamic>> registerDevice() {
+  Future<Map<String, dynamic>> registerDevice({WaasPriority? priority}) {
     throw UnimplementedError();
   }
 
@@ -188,6 +306,33 @@ class MockWaasSdkFlutterPlatform
     throw UnimplementedError();
   }
 
+  @override
+  Future<Map<WaasPendingOperationKind, List<dynamic>>> pollForPendingOperations(
+    String deviceGroup,
+    int pollInterval,
+    Set<WaasPendingOperationKind> kinds, {
+    bool includeAll = false,
+    bool mpcDataAsBlobs = false,
+    WaasCancellationToken? cancellationToken,
+  }) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Stream<WaasPendingOperations> watchPendingOperations(
+    String deviceGroup,
+    int pollInterval,
+    Set<WaasPendingOperationKind> kinds, {
+    bool includeAll = false,
+  }) {
+    throw UnimplementedError();
+  }
+
+  @override
+  Future<bool> stopPollingDeviceGroup(String deviceGroup) {
+    throw UnimplementedError();
+  }
+
   @override
   Future<String> stopPollingForPendingSignatures() {
     throw UnimplementedError();
@@ -199,12 +344,14 @@ class MockWaasSdkFlutterPlatform
   }
 
   @override
-  Future<Map<String, dynamic>> waitPendingMPCWallet(String operation) {
+  Future<Map<String, dynamic>> waitPendingMPCWallet(String operation,
+      {WaasCancellationToken? cancellationToken}) {
     throw UnimplementedError();
   }
 
   @override
-  Future<Map<String, dynamic>> waitPendingSignature(String operation) {
+  Future<Map<String, dynamic>> waitPendingSignature(String operation,
+      {WaasPriority? priority, WaasCancellationToken? cancellationToken}) {
     throw UnimplementedError();
   }
 }